@@ -6,8 +6,10 @@ import dagger.multibindings.IntoSet;
 import dagger.multibindings.Multibinds;
 import jakarta.inject.Named;
 import nl.ulso.curator.change.ChangeProcessor;
+import nl.ulso.curator.main.CuratorSettings;
 import nl.ulso.curator.main.MainModule;
 import nl.ulso.curator.query.Query;
+import nl.ulso.curator.vault.VaultSettings;
 
 import java.nio.file.WatchService;
 import java.util.Locale;
@@ -27,6 +29,8 @@ import java.util.Set;
 /// binds it to the `Query` interface.
 /// - Provide a [WatchService] to detect changes to the vault. The default implementation is
 /// optimized for macOS. Other platforms are not tested.
+/// - Provide [VaultSettings] to tweak how the vault is loaded and watched.
+/// - Provide [CuratorSettings] to tweak when changes are processed.
 /// - Provide a [Locale]. This will be used for translations in output. The default is English.
 /// (Instructions and error messages are all in English, hard-coded.)
 /// - Provide the name of a "watch document". This is a file in the root of the vault that, when
@@ -50,6 +54,14 @@ public abstract class CuratorModule
     @BindsOptionalOf
     abstract WatchService bindOptionalWatchService();
 
+    /// Bind custom [VaultSettings]; the default is [VaultSettings#DEFAULT].
+    @BindsOptionalOf
+    abstract VaultSettings bindOptionalVaultSettings();
+
+    /// Bind custom [CuratorSettings]; the default is [CuratorSettings#DEFAULT].
+    @BindsOptionalOf
+    abstract CuratorSettings bindOptionalCuratorSettings();
+
     /// Bind a custom [Locale]; the default is English.
     @BindsOptionalOf
     abstract Locale bindOptionalLocale();
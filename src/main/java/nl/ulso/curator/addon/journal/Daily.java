@@ -1,6 +1,7 @@
 package nl.ulso.curator.addon.journal;
 
 import nl.ulso.curator.addon.journal.Outline.LineValues;
+import nl.ulso.curator.change.Identifiable;
 import nl.ulso.curator.vault.*;
 import nl.ulso.date.LocalDates;
 
@@ -24,21 +25,24 @@ import static nl.ulso.date.LocalDates.parseDateOrNull;
 /// a tree structure ([Outline] to compute [LineValues]. These line values are used when generating
 /// summaries for a document quickly.
 ///
+/// The names of the documents a daily refers to are kept in memory for as long as the daily exists.
+/// They are deduplicated with the [StringPool] of the vault.
+///
 /// The name of a daily in the vault MUST be formatted like "yyyy-MM-dd".
 public final class Daily
-    implements Comparable<Daily>
+    implements Comparable<Daily>, Identifiable
 {
     private final LocalDate date;
     private final Section section;
     private final List<LineValues> lineValues;
     private final Map<String, BitSet> documentReferences;
 
-    Daily(LocalDate date, Section section)
+    Daily(LocalDate date, Section section, StringPool stringPool)
     {
         this.date = date;
         this.section = section;
         var sectionLines = sectionLines(section);
-        this.documentReferences = extractDocumentReferences(section, sectionLines);
+        this.documentReferences = extractDocumentReferences(section, sectionLines, stringPool);
         this.lineValues = newOutline(sectionLines).toLineValues();
     }
 
@@ -54,7 +58,7 @@ public final class Daily
         {
             throw new IllegalArgumentException("Cannot parse date from document name");
         }
-        return new Daily(date, section);
+        return new Daily(date, section, StringPool.NONE);
     }
 
     private List<String> sectionLines(Section section)
@@ -102,6 +106,12 @@ public final class Daily
         return date;
     }
 
+    @Override
+    public Object identity()
+    {
+        return date;
+    }
+
     /// Generates a list of all lines that refer to the given document
     public List<String> linesFor(String documentName)
     {
@@ -220,12 +230,13 @@ public final class Daily
 
     private Map<String, BitSet> extractDocumentReferences(
         Section section,
-        List<String> sectionLines)
+        List<String> sectionLines,
+        StringPool stringPool)
     {
         var references = new HashMap<String, BitSet>();
         var size = sectionLines.size();
         range(0, size).forEach(index ->
-            extractInternalLinksFrom(section, sectionLines.get(index)).stream()
+            extractInternalLinksFrom(section, sectionLines.get(index), stringPool).stream()
                 .map(InternalLink::targetDocument)
                 .collect(toSet())
                 .forEach(documentName ->
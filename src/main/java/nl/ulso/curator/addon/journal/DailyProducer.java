@@ -10,18 +10,24 @@ import java.util.Optional;
 import static nl.ulso.date.LocalDates.parseDateOrNull;
 
 /// Creates dailies from documents in the journal folder.
+///
+/// A daily is built from the activities section of a document only. If a new version of a
+/// document has the same activities section as the previous version - because only other sections
+/// changed - the daily is not updated.
 @Singleton
 final class DailyProducer
     extends EntityTransformer<Document, Daily>
 {
     private final String journalFolderName;
     private final String activitiesSectionName;
+    private final StringPool stringPool;
 
     @Inject
-    DailyProducer(JournalSettings settings)
+    DailyProducer(JournalSettings settings, StringPool stringPool)
     {
         this.journalFolderName = settings.journalFolderName();
         this.activitiesSectionName = settings.activitiesSectionName();
+        this.stringPool = stringPool;
     }
 
     @Override
@@ -36,6 +42,12 @@ final class DailyProducer
         return Daily.class;
     }
 
+    @Override
+    protected boolean canHandleChangesConcurrently()
+    {
+        return true;
+    }
+
     @Override
     protected Optional<Daily> transform(Document document)
     {
@@ -48,10 +60,30 @@ final class DailyProducer
         {
             return Optional.empty();
         }
+        var section = activitiesSectionOf(document).orElse(Section.EMPTY_SECTION);
+        return Optional.of(new Daily(date, section, stringPool));
+    }
+
+    /// The section is compared by reference, without looking at its content; see
+    /// [Fragment#isUnchangedFrom(Fragment)].
+    @Override
+    protected boolean isUnchanged(Document oldDocument, Document newDocument)
+    {
+        if (!newDocument.isInPath(journalFolderName))
+        {
+            return false;
+        }
+        var newSection = activitiesSectionOf(newDocument);
+        return newSection.isPresent() && activitiesSectionOf(oldDocument)
+            .map(oldSection -> newSection.get().isUnchangedFrom(oldSection))
+            .orElse(false);
+    }
+
+    private Optional<Section> activitiesSectionOf(Document document)
+    {
         var finder = new ActivitiesSectionFinder();
         document.accept(finder);
-        var section = finder.section != null ? finder.section : Section.EMPTY_SECTION;
-        return Optional.of(new Daily(date, section));
+        return Optional.ofNullable(finder.section);
     }
 
     private class ActivitiesSectionFinder
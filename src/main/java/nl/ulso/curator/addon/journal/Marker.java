@@ -1,15 +1,23 @@
 package nl.ulso.curator.addon.journal;
 
+import nl.ulso.curator.change.Identifiable;
 import nl.ulso.curator.vault.Document;
 import nl.ulso.dictionary.Dictionary;
 
 public record Marker(Document document)
+    implements Identifiable
 {
     public String name()
     {
         return document.name();
     }
 
+    @Override
+    public Object identity()
+    {
+        return name();
+    }
+
     public Dictionary settings()
     {
         return document.frontMatter();
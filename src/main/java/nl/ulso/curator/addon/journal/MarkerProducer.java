@@ -35,6 +35,12 @@ final class MarkerProducer
         return Marker.class;
     }
 
+    @Override
+    protected boolean canHandleChangesConcurrently()
+    {
+        return true;
+    }
+
     @Override
     protected Optional<Marker> transform(Document document)
     {
@@ -1,5 +1,6 @@
 package nl.ulso.curator.addon.journal;
 
+import nl.ulso.curator.change.Identifiable;
 import nl.ulso.curator.vault.Document;
 
 import java.util.Optional;
@@ -14,10 +15,16 @@ import static java.util.regex.Pattern.compile;
 /// The name of a weekly in the vault MUST be formatted like "yyyy Week ww". The document name
 /// pattern and the toString method are together in this class to ensure symmetry.
 public record Weekly(int year, int week)
-        implements Comparable<Weekly>
+        implements Comparable<Weekly>, Identifiable
 {
     private static final Pattern DOCUMENT_NAME_PATTERN = compile("^(\\d{4}) Week (\\d{2})$");
 
+    @Override
+    public Object identity()
+    {
+        return this;
+    }
+
     @Override
     public int compareTo(Weekly o)
     {
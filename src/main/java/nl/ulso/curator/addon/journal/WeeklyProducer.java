@@ -35,6 +35,12 @@ final class WeeklyProducer
         return Weekly.class;
     }
 
+    @Override
+    protected boolean canHandleChangesConcurrently()
+    {
+        return true;
+    }
+
     @Override
     protected Optional<Weekly> transform(Document document)
     {
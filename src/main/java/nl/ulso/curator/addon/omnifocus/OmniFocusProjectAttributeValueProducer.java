@@ -12,8 +12,7 @@ import java.util.*;
 import static java.util.Objects.requireNonNull;
 import static nl.ulso.curator.addon.omnifocus.OmniFocusProject.NULL_PROJECT;
 import static nl.ulso.curator.addon.project.ProjectAttributeDefinition.PRIORITY;
-import static nl.ulso.curator.change.Change.isDelete;
-import static nl.ulso.curator.change.Change.isPayloadType;
+import static nl.ulso.curator.change.Change.Kind.DELETE;
 import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 
 /// Produces attribute values for projects from matching projects in OmniFocus.
@@ -54,11 +53,11 @@ final class OmniFocusProjectAttributeValueProducer
     {
         return List.of(
             newChangeHandler(
-                isPayloadType(OmniFocusUpdate.class),
+                OmniFocusUpdate.class,
                 this::omniFocusUpdated
             ),
             newChangeHandler(
-                isPayloadType(Project.class).and(isDelete()),
+                Project.class, DELETE,
                 this::projectDeleted
             )
         );
@@ -2,6 +2,7 @@ package nl.ulso.curator.addon.omnifocus;
 
 import nl.ulso.curator.change.Change;
 import nl.ulso.curator.change.ChangeProcessor;
+import nl.ulso.curator.change.Identifiable;
 
 import static nl.ulso.curator.change.Change.update;
 
@@ -17,9 +18,16 @@ import static nl.ulso.curator.change.Change.update;
 /// The [OmniFocusInitializer] ensures the projects are loaded from OmniFocus at application
 /// startup.
 record OmniFocusUpdate()
+    implements Identifiable
 {
     static final Change<?> OMNIFOCUS_CHANGE = update(new OmniFocusUpdate(), OmniFocusUpdate.class);
 
+    @Override
+    public Object identity()
+    {
+        return this;
+    }
+
     @Override
     public String toString()
     {
@@ -15,10 +15,9 @@ import static java.util.HashMap.newHashMap;
 import static java.util.HashSet.newHashSet;
 import static java.util.Objects.requireNonNull;
 import static nl.ulso.curator.addon.project.ProjectAttributeRepositoryUpdate.REPOSITORY_UPDATE;
-import static nl.ulso.curator.change.Change.isCreate;
-import static nl.ulso.curator.change.Change.isDelete;
-import static nl.ulso.curator.change.Change.isPayloadType;
-import static nl.ulso.curator.change.Change.isUpdate;
+import static nl.ulso.curator.change.Change.Kind.CREATE;
+import static nl.ulso.curator.change.Change.Kind.DELETE;
+import static nl.ulso.curator.change.Change.Kind.UPDATE;
 import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -49,19 +48,19 @@ final class DefaultProjectAttributeRepository
     {
         return List.of(
             newChangeHandler(
-                isPayloadType(Project.class).and(isDelete()),
+                Project.class, DELETE,
                 this::projectDeleted
             ),
             newChangeHandler(
-                isPayloadType(ProjectAttributeValue.class).and(isCreate()),
+                ProjectAttributeValue.class, CREATE,
                 this::attributeValueCreated
             ),
             newChangeHandler(
-                isPayloadType(ProjectAttributeValue.class).and(isUpdate()),
+                ProjectAttributeValue.class, UPDATE,
                 this::attributeValueUpdated
             ),
             newChangeHandler(
-                isPayloadType(ProjectAttributeValue.class).and(isDelete()),
+                ProjectAttributeValue.class, DELETE,
                 this::attributeValueDeleted
             )
         );
@@ -5,6 +5,7 @@ import jakarta.inject.Singleton;
 import nl.ulso.curator.change.ChangeCollector;
 import nl.ulso.curator.change.EntityProcessor;
 import nl.ulso.curator.vault.Document;
+import nl.ulso.curator.vault.StringPool;
 import nl.ulso.curator.vault.Vault;
 import nl.ulso.dictionary.Dictionary;
 
@@ -16,6 +17,9 @@ import java.util.*;
 /// Is the default, built-in mechanism for resolving attribute values. All values set by this
 /// producer have a weight of 0 and are expected to be overruled by other attribute producers that
 /// use larger weights.
+///
+/// String values, like statuses, are the same for many projects. They are deduplicated with the
+/// [StringPool] of the vault.
 @Singleton
 public final class FrontMatterProjectAttributeValueProducer
     extends EntityProcessor<Project>
@@ -23,13 +27,16 @@ public final class FrontMatterProjectAttributeValueProducer
     private static final int WEIGHT = 0;
     private final Collection<ProjectAttributeDefinition> projectAttributeDefinitions;
     private final Vault vault;
+    private final StringPool stringPool;
 
     @Inject
     FrontMatterProjectAttributeValueProducer(
-        Map<String, ProjectAttributeDefinition> attributeDefinitions, Vault vault)
+        Map<String, ProjectAttributeDefinition> attributeDefinitions, Vault vault,
+        StringPool stringPool)
     {
         this.projectAttributeDefinitions = attributeDefinitions.values();
         this.vault = vault;
+        this.stringPool = stringPool;
     }
 
     @Override
@@ -142,7 +149,8 @@ public final class FrontMatterProjectAttributeValueProducer
 
     private Optional<?> fromString(String frontMatterProperty, Dictionary frontMatter)
     {
-        return Optional.ofNullable(frontMatter.string(frontMatterProperty, null));
+        return Optional.ofNullable(frontMatter.string(frontMatterProperty, null))
+            .map(stringPool::intern);
     }
 
     private Optional<?> fromDocument(String frontMatterProperty, Dictionary frontMatter)
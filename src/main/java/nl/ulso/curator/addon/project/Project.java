@@ -1,17 +1,25 @@
 package nl.ulso.curator.addon.project;
 
+import nl.ulso.curator.change.Identifiable;
 import nl.ulso.curator.vault.Document;
 
 import java.util.Objects;
 
 /// Represents a project; a simple wrapper around [Document]s.
 public record Project(Document document)
+    implements Identifiable
 {
     public String name()
     {
         return document.name();
     }
 
+    @Override
+    public Object identity()
+    {
+        return name();
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -1,6 +1,7 @@
 package nl.ulso.curator.addon.project;
 
 import nl.ulso.curator.change.Change;
+import nl.ulso.curator.change.Identifiable;
 
 import static nl.ulso.curator.change.Change.update;
 
@@ -8,10 +9,17 @@ import static nl.ulso.curator.change.Change.update;
 ///
 /// The repository always produces either zero or one [ProjectAttributeRepositoryUpdate] objects.
 public record ProjectAttributeRepositoryUpdate()
+    implements Identifiable
 {
     static final Change<ProjectAttributeRepositoryUpdate> REPOSITORY_UPDATE =
         update(new ProjectAttributeRepositoryUpdate(), ProjectAttributeRepositoryUpdate.class);
 
+    @Override
+    public Object identity()
+    {
+        return this;
+    }
+
     @Override
     public String toString()
     {
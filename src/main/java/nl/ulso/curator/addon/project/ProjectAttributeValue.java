@@ -2,7 +2,9 @@ package nl.ulso.curator.addon.project;
 
 import nl.ulso.curator.change.Change;
 import nl.ulso.curator.change.ChangeProcessor;
+import nl.ulso.curator.change.Identifiable;
 
+import java.util.List;
 import java.util.Objects;
 
 /// Represents a single attribute value for a project. Objects of this type are to be published by
@@ -13,9 +15,10 @@ import java.util.Objects;
 /// value, the system uses the value with the highest weight.
 ///
 /// Attribute values are considered the same if they are for the same project and attribute
-/// definition and have the same weight; the actual value is ignored.
+/// definition and have the same weight; the actual value is ignored. That is also their identity.
 public record ProjectAttributeValue(
     Project project, ProjectAttributeDefinition definition, Object value, int weight)
+    implements Identifiable
 {
     public ProjectAttributeValue
     {
@@ -61,6 +64,12 @@ public record ProjectAttributeValue(
         }
     }
 
+    @Override
+    public Object identity()
+    {
+        return List.of(project.identity(), definition, weight);
+    }
+
     WeightedValue toWeightedValue()
     {
         return new WeightedValue(value, weight);
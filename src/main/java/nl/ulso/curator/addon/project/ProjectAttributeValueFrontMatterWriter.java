@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import java.util.List;
 import java.util.Set;
 
-import static nl.ulso.curator.change.Change.isPayloadType;
 import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -45,7 +44,7 @@ public final class ProjectAttributeValueFrontMatterWriter
     {
         return List.of(
             newChangeHandler(
-                isPayloadType(ProjectAttributeValue.class),
+                ProjectAttributeValue.class,
                 this::attributeValueChanged
             )
         );
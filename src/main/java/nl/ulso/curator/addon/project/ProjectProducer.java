@@ -38,6 +38,12 @@ final class ProjectProducer
         return Project.class;
     }
 
+    @Override
+    protected boolean canHandleChangesConcurrently()
+    {
+        return true;
+    }
+
     @Override
     protected Optional<Project> transform(Document document)
     {
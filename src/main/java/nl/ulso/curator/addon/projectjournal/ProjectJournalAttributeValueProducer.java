@@ -13,10 +13,9 @@ import java.util.*;
 import java.util.stream.Stream;
 
 import static java.util.Comparator.reverseOrder;
-import static nl.ulso.curator.change.Change.isCreate;
-import static nl.ulso.curator.change.Change.isDelete;
-import static nl.ulso.curator.change.Change.isPayloadType;
-import static nl.ulso.curator.change.Change.isUpdate;
+import static nl.ulso.curator.change.Change.Kind.CREATE;
+import static nl.ulso.curator.change.Change.Kind.DELETE;
+import static nl.ulso.curator.change.Change.Kind.UPDATE;
 import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -98,23 +97,23 @@ abstract class ProjectJournalAttributeValueProducer
     {
         return List.of(
             newChangeHandler(
-                isPayloadType(Project.class).and(isCreate()),
+                Project.class, CREATE,
                 this::projectCreated
             ),
             newChangeHandler(
-                isPayloadType(Project.class).and(isDelete()),
+                Project.class, DELETE,
                 this::projectDeleted
             ),
             newChangeHandler(
-                isPayloadType(Daily.class).and(isCreate()),
+                Daily.class, CREATE,
                 this::dailyCreated
             ),
             newChangeHandler(
-                isPayloadType(Daily.class).and(isUpdate()),
+                Daily.class, UPDATE,
                 this::dailyUpdated
             ),
             newChangeHandler(
-                isPayloadType(Daily.class).and(isDelete()),
+                Daily.class, DELETE,
                 this::dailyDeleted
             )
         );
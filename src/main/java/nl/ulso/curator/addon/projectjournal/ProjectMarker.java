@@ -1,6 +1,7 @@
 package nl.ulso.curator.addon.projectjournal;
 
 import nl.ulso.curator.addon.journal.Marker;
+import nl.ulso.curator.change.Identifiable;
 
 import java.util.*;
 
@@ -11,6 +12,7 @@ import java.util.*;
 ///
 /// The set of aliases to trigger on is specified in the front matter of the marker itself.
 abstract class ProjectMarker
+    implements Identifiable
 {
     private final Marker marker;
     private final Map<String, String> markdownLinks;
@@ -50,6 +52,12 @@ abstract class ProjectMarker
         return marker.name();
     }
 
+    @Override
+    public Object identity()
+    {
+        return marker.identity();
+    }
+
     /// Returns a map of links to aliases supported by the project marker. The links are the actual
     /// text as used in the project journal, e.g. `[[marker|alias]]`. The aliases are the
     /// corresponding alias.
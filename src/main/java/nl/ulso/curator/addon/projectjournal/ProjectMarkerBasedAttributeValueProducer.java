@@ -6,7 +6,6 @@ import nl.ulso.curator.change.ChangeHandler;
 
 import java.util.*;
 
-import static nl.ulso.curator.change.Change.isPayloadType;
 import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 
 /// Base class for attribute value producers that trigger on [ProjectMarker]s to determine the
@@ -51,7 +50,7 @@ abstract class ProjectMarkerBasedAttributeValueProducer<P extends ProjectMarker>
     {
         var handlers = new ArrayList<ChangeHandler>();
         handlers.add(newChangeHandler(
-            isPayloadType(projectMarkerType()),
+            projectMarkerType(),
             (_, collector) -> reload(collector)
         ));
         handlers.addAll(super.createChangeHandlers());
@@ -19,6 +19,12 @@ abstract class ProjectMarkerProducer<P extends ProjectMarker>
         return Marker.class;
     }
 
+    @Override
+    protected boolean canHandleChangesConcurrently()
+    {
+        return true;
+    }
+
     @Override
     protected final Optional<P> transform(Marker marker)
     {
@@ -1,5 +1,6 @@
 package nl.ulso.curator.change;
 
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -73,6 +74,39 @@ public sealed interface Change<T>
         return new Delete<>(oldValue, payloadType);
     }
 
+    /// Folds two consecutive changes to the same object into a single change with the same net
+    /// effect:
+    ///
+    /// - create, then update: create of the latest value.
+    /// - create, then delete: nothing at all.
+    /// - update, then update: update from the oldest to the latest value; if the first update has
+    /// no old value, the result doesn't have one either.
+    /// - update, then delete: delete of the oldest value.
+    /// - delete, then create: update from the deleted value to the latest value.
+    ///
+    /// @param first  the first change.
+    /// @param second the change that follows the first change, to the same object.
+    /// @return the net change, or nothing if the changes cancel each other out.
+    @SuppressWarnings("unchecked")
+    static <T> Optional<Change<T>> netEffect(Change<T> first, Change<T> second)
+    {
+        var payloadType = (Class<T>) first.payloadType();
+        if (second.kind() == DELETE)
+        {
+            return first.kind() == CREATE
+                   ? Optional.empty()
+                   : Optional.of(delete(first.values().findFirst().orElseThrow(), payloadType));
+        }
+        var newValue = second.newValue();
+        return Optional.of(switch (first)
+        {
+            case Create<T> _ -> create(newValue, payloadType);
+            case Update1<T> _ -> update(newValue, payloadType);
+            case Update2<T> update -> update(update.oldValue(), newValue, payloadType);
+            case Delete<T> delete -> update(delete.oldValue(), newValue, payloadType);
+        });
+    }
+
     static Predicate<Change<?>> isPayloadType(Class<?> payloadType)
     {
         return change -> change.payloadType().equals(payloadType);
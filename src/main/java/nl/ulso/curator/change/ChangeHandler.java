@@ -1,22 +1,95 @@
 package nl.ulso.curator.change;
 
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
+import static java.util.Objects.requireNonNull;
+
 /// A handler for [Change<?>]s used by the [ChangeProcessorTemplate].
 ///
 /// A handler is both a [Predicate] - to test whether it applies to a [Change<?>] - and a
 /// [BiConsumer] that accepts a [Change<?>] to process and a [ChangeCollector] for producing new
 /// changes, if any.
 ///
+/// A handler can declare the payload type and kinds of the changes it applies to up front, in a
+/// [Selection]. The [ChangeProcessorTemplate] then looks up the handlers for each change, instead
+/// of testing every change against every handler. Handlers without a selection are tested for
+/// each change.
+///
 /// @see ChangeProcessorTemplate
 public interface ChangeHandler
     extends Predicate<Change<?>>, BiConsumer<Change<?>, ChangeCollector>
 {
+    /// Creates a handler for the changes that match the predicate; prefer one of the other methods
+    /// if the handler selects changes on payload type and/or kind only.
     static ChangeHandler newChangeHandler(
         Predicate<Change<?>> predicate,
         BiConsumer<Change<?>, ChangeCollector> consumer)
     {
         return new DefaultChangeHandler(predicate, consumer);
     }
+
+    /// Creates a handler for all changes of a payload type.
+    static ChangeHandler newChangeHandler(
+        Class<?> payloadType,
+        BiConsumer<Change<?>, ChangeCollector> consumer)
+    {
+        return new DefaultChangeHandler(
+            new Selection(Optional.of(payloadType), EnumSet.allOf(Change.Kind.class)), consumer);
+    }
+
+    /// Creates a handler for all changes of a payload type and kind.
+    static ChangeHandler newChangeHandler(
+        Class<?> payloadType,
+        Change.Kind kind,
+        BiConsumer<Change<?>, ChangeCollector> consumer)
+    {
+        return new DefaultChangeHandler(
+            new Selection(Optional.of(payloadType), EnumSet.of(kind)), consumer);
+    }
+
+    /// Creates a handler for all changes of a kind, of any payload type.
+    static ChangeHandler newChangeHandler(
+        Change.Kind kind,
+        BiConsumer<Change<?>, ChangeCollector> consumer)
+    {
+        return new DefaultChangeHandler(
+            new Selection(Optional.empty(), EnumSet.of(kind)), consumer);
+    }
+
+    /// @return The selection of changes this handler applies to, if declared up front; the default
+    /// implementation returns nothing, in which case the handler is tested for each change.
+    default Optional<Selection> selection()
+    {
+        return Optional.empty();
+    }
+
+    /// Selection of the changes a [ChangeHandler] applies to.
+    ///
+    /// @param payloadType payload type of the changes; if empty, changes of any payload type.
+    /// @param kinds       kinds of the changes.
+    record Selection(Optional<Class<?>> payloadType, Set<Change.Kind> kinds)
+        implements Predicate<Change<?>>
+    {
+        public Selection
+        {
+            requireNonNull(payloadType);
+            kinds = Set.copyOf(kinds);
+        }
+
+        public boolean selects(Class<?> payloadType, Change.Kind kind)
+        {
+            return kinds.contains(kind)
+                   && (this.payloadType.isEmpty() || this.payloadType.get().equals(payloadType));
+        }
+
+        @Override
+        public boolean test(Change<?> change)
+        {
+            return selects(change.payloadType(), change.kind());
+        }
+    }
 }
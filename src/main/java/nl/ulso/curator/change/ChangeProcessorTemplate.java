@@ -1,6 +1,13 @@
 package nl.ulso.curator.change;
 
+import org.slf4j.MDC;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
 
 /// Base class for [ChangeProcessor]s that processes [Changelog]s through [ChangeHandler]s.
 ///
@@ -12,10 +19,21 @@ import java.util.*;
 /// - Changes are processed fully, in order.
 /// - The same change can be accepted by multiple [ChangeHandler]s
 /// - The order in which handlers are executed is guaranteed.
+/// - Handlers that declare a [ChangeHandler.Selection] are looked up per payload type and kind of
+///   change, in a table that is built once per payload type. Only the other handlers are tested
+///   against each change.
+/// - If the handlers can handle different changes concurrently (see
+///   [#canHandleChangesConcurrently()]), the changes in large changelogs, like the one after a
+///   [Reset], are handled on virtual threads, spread over all cores. The changes they produce are
+///   still collected in order.
 public abstract class ChangeProcessorTemplate
     implements ChangeProcessor
 {
+    /// Minimum size of a changelog for it to be worth processing concurrently.
+    static final int CONCURRENT_PROCESSING_THRESHOLD = 1000;
+
     private final List<ChangeHandler> changeHandlers;
+    private final Map<Class<?>, Map<Change.Kind, List<ChangeHandler>>> dispatchTable;
 
     protected ChangeProcessorTemplate()
     {
@@ -26,6 +44,7 @@ public abstract class ChangeProcessorTemplate
                 "No change handlers configured. This processor is useless!"
             );
         }
+        this.dispatchTable = new ConcurrentHashMap<>();
     }
 
     protected abstract List<? extends ChangeHandler> createChangeHandlers();
@@ -33,15 +52,84 @@ public abstract class ChangeProcessorTemplate
     @Override
     public final Changelog apply(Changelog changelog)
     {
+        if (changelog.size() >= CONCURRENT_PROCESSING_THRESHOLD && canHandleChangesConcurrently())
+        {
+            return applyConcurrently(changelog);
+        }
         var collector = new DefaultChangeCollector(createChangeCollection());
-        changelog.changes().forEach(change ->
-            changeHandlers.stream()
-                .filter(handler -> handler.test(change))
-                .forEach(handler -> handler.accept(change, collector))
-        );
+        changelog.changes().forEach(change -> handle(change, collector));
         return collector.changelog();
     }
 
+    /// Handles each change in the changelog with a collector of its own, each on a virtual thread,
+    /// and then collects all produced changes in the order of the changes that produced them.
+    private Changelog applyConcurrently(Changelog changelog)
+    {
+        var curatorName = MDC.get("curator");
+        try (var executor = newVirtualThreadPerTaskExecutor())
+        {
+            var producedChanges = changelog.changes()
+                .map(change -> CompletableFuture.supplyAsync(() ->
+                {
+                    MDC.put("curator", curatorName);
+                    var changes = new ArrayList<Change<?>>(1);
+                    handle(change, new DefaultChangeCollector(changes));
+                    return changes;
+                }, executor))
+                .toList();
+            var collection = createChangeCollection();
+            producedChanges.forEach(changes -> collection.addAll(changes.join()));
+            return Changelog.changelogFor(collection);
+        }
+        catch (CompletionException e)
+        {
+            if (e.getCause() instanceof RuntimeException cause)
+            {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void handle(Change<?> change, ChangeCollector collector)
+    {
+        var handlers = dispatchTable.get(change.payloadType());
+        if (handlers == null)
+        {
+            handlers = dispatchTable.computeIfAbsent(change.payloadType(), this::resolveHandlers);
+        }
+        for (var handler : handlers.get(change.kind()))
+        {
+            if (handler.selection().isPresent() || handler.test(change))
+            {
+                handler.accept(change, collector);
+            }
+        }
+    }
+
+    /// Resolves the handlers that might apply to changes of a payload type, per kind, in order:
+    /// those that select that payload type and kind, and those that must be tested.
+    private Map<Change.Kind, List<ChangeHandler>> resolveHandlers(Class<?> payloadType)
+    {
+        var handlers = new EnumMap<Change.Kind, List<ChangeHandler>>(Change.Kind.class);
+        for (var kind : Change.Kind.values())
+        {
+            handlers.put(kind, changeHandlers.stream()
+                .filter(handler -> handler.selection()
+                    .map(selection -> selection.selects(payloadType, kind))
+                    .orElse(true))
+                .toList());
+        }
+        return handlers;
+    }
+
+    /// Whether the change handlers can handle different changes at the same time. This requires
+    /// that handling a change has no other side effect than collecting new changes. The default
+    /// implementation returns `false`.
+    protected boolean canHandleChangesConcurrently()
+    {
+        return false;
+    }
 
     /// Creates the collection to capture changes in. The default implementation creates an
     /// [ArrayList].
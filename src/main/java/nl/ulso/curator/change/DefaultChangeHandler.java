@@ -1,5 +1,6 @@
 package nl.ulso.curator.change;
 
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
@@ -8,6 +9,7 @@ final class DefaultChangeHandler
 {
     private final Predicate<Change<?>> predicate;
     private final BiConsumer<Change<?>, ChangeCollector> consumer;
+    private final Optional<Selection> selection;
 
     DefaultChangeHandler(
         Predicate<Change<?>> predicate,
@@ -15,6 +17,14 @@ final class DefaultChangeHandler
     {
         this.predicate = predicate;
         this.consumer = consumer;
+        this.selection = Optional.empty();
+    }
+
+    DefaultChangeHandler(Selection selection, BiConsumer<Change<?>, ChangeCollector> consumer)
+    {
+        this.predicate = selection;
+        this.consumer = consumer;
+        this.selection = Optional.of(selection);
     }
 
     @Override
@@ -28,4 +38,10 @@ final class DefaultChangeHandler
     {
         consumer.accept(change, collector);
     }
+
+    @Override
+    public Optional<Selection> selection()
+    {
+        return selection;
+    }
 }
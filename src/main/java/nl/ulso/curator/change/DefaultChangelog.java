@@ -1,43 +1,55 @@
 package nl.ulso.curator.change;
 
 import java.util.*;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
-import static java.util.List.copyOf;
 
+/// Immutable [Changelog] that consists of one or more segments of changes, in order.
+///
+/// Each segment indexes the positions of its changes by payload type, so that selecting the
+/// changes for specific payload types takes time proportional to the number of matching changes,
+/// instead of the size of the whole changelog. Appending a changelog to another shares the
+/// segments of both, instead of copying their changes. The same goes for filtering: segments that
+/// contain only changes of the selected payload types are shared as well.
+///
+/// During a [Reset] the changelog can hold tens of thousands of changes, which are then filtered
+/// for every [ChangeProcessor], and appended to after every processor.
 final class DefaultChangelog
     implements Changelog
 {
-    static final Changelog EMPTY_CHANGELOG = new DefaultChangelog(emptyList());
+    static final Changelog EMPTY_CHANGELOG = new DefaultChangelog(emptyList(), 0);
 
-    private final List<Change<?>> changes;
+    private final List<Segment> segments;
+    private final int size;
 
-    DefaultChangelog(List<Change<?>> changes)
+    DefaultChangelog(Collection<Change<?>> changes)
     {
-        this.changes = copyOf(changes);
+        this(List.of(new Segment(changes.toArray(new Change<?>[0]))), changes.size());
     }
 
-    DefaultChangelog(Collection<Change<?>> changes)
+    DefaultChangelog(Change<?>... changes)
     {
-        this.changes = copyOf(changes);
+        this(List.of(new Segment(changes.clone())), changes.length);
     }
 
-    DefaultChangelog(Change<?>... changes)
+    private DefaultChangelog(List<Segment> segments, int size)
     {
-        this.changes = List.of(changes);
+        this.segments = segments;
+        this.size = size;
     }
 
     @Override
     public boolean isEmpty()
     {
-        return changes.isEmpty();
+        return size == 0;
     }
 
     @Override
     public int size()
     {
-        return changes.size();
+        return size;
     }
 
     @Override
@@ -45,18 +57,18 @@ final class DefaultChangelog
     {
         if (changelog instanceof DefaultChangelog other)
         {
-            if (changes.isEmpty())
+            if (isEmpty())
             {
                 return changelog;
             }
-            if (other.changes.isEmpty())
+            if (other.isEmpty())
             {
                 return this;
             }
-            List<Change<?>> merge = new ArrayList<>(this.changes.size() + other.changes.size());
-            merge.addAll(this.changes);
-            merge.addAll(other.changes);
-            return new DefaultChangelog(merge);
+            var merge = new ArrayList<Segment>(segments.size() + other.segments.size());
+            merge.addAll(segments);
+            merge.addAll(other.segments);
+            return new DefaultChangelog(merge, size + other.size);
         }
         throw new IllegalArgumentException(
             "Cannot merge changelog with unknown type: " + changelog.getClass());
@@ -65,23 +77,112 @@ final class DefaultChangelog
     @Override
     public Stream<Change<?>> changes()
     {
-        return changes.stream();
+        return segments.stream().flatMap(Segment::changes);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T> Stream<Change<T>> changesFor(Class<T> payloadType)
     {
-        return changes.stream()
-            .filter(change -> change.payloadType().equals(payloadType))
-            .map(change -> (Change<T>) change);
+        return segments.stream().flatMap(segment -> segment.changesFor(payloadType));
     }
 
     @Override
     public Changelog changelogFor(Set<Class<?>> payloadTypes)
     {
-        return Changelog.changelogFor(changes.stream()
-            .filter(change -> payloadTypes.contains(change.payloadType()))
-            .toList());
+        var filtered = new ArrayList<Segment>(segments.size());
+        var filteredSize = 0;
+        for (var segment : segments)
+        {
+            var filteredSegment = segment.filter(payloadTypes);
+            if (filteredSegment != null)
+            {
+                filtered.add(filteredSegment);
+                filteredSize += filteredSegment.size();
+            }
+        }
+        if (filteredSize == size)
+        {
+            return this;
+        }
+        return filteredSize == 0 ? EMPTY_CHANGELOG : new DefaultChangelog(filtered, filteredSize);
+    }
+
+    /// Immutable list of changes, with the positions of the changes indexed by payload type.
+    private static final class Segment
+    {
+        private final Change<?>[] changes;
+        private final Map<Class<?>, int[]> positions;
+
+        private Segment(Change<?>[] changes)
+        {
+            this.changes = changes;
+            this.positions = indexPositions(changes);
+        }
+
+        private static Map<Class<?>, int[]> indexPositions(Change<?>[] changes)
+        {
+            var counts = new HashMap<Class<?>, Integer>();
+            for (var change : changes)
+            {
+                counts.merge(change.payloadType(), 1, Integer::sum);
+            }
+            var positions = HashMap.<Class<?>, int[]>newHashMap(counts.size());
+            counts.forEach((payloadType, count) -> positions.put(payloadType, new int[count]));
+            counts.replaceAll((_, _) -> 0);
+            for (var i = 0; i < changes.length; i++)
+            {
+                var payloadType = changes[i].payloadType();
+                positions.get(payloadType)[counts.merge(payloadType, 1, Integer::sum) - 1] = i;
+            }
+            return positions;
+        }
+
+        int size()
+        {
+            return changes.length;
+        }
+
+        Stream<Change<?>> changes()
+        {
+            return Arrays.stream(changes);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> Stream<Change<T>> changesFor(Class<T> payloadType)
+        {
+            var indexes = positions.get(payloadType);
+            if (indexes == null)
+            {
+                return Stream.empty();
+            }
+            return Arrays.stream(indexes).mapToObj(index -> (Change<T>) changes[index]);
+        }
+
+        /// @return A segment with only the changes of the payload types, in order; this segment if
+        /// that is all of them, or `null` if there are none.
+        Segment filter(Set<Class<?>> payloadTypes)
+        {
+            if (payloadTypes.containsAll(positions.keySet()))
+            {
+                return this;
+            }
+            var matching = positions.entrySet().stream()
+                .filter(entry -> payloadTypes.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+            if (matching.isEmpty())
+            {
+                return null;
+            }
+            var indexes = matching.size() == 1
+                          ? matching.getFirst()
+                          : matching.stream().flatMapToInt(IntStream::of).sorted().toArray();
+            var filtered = new Change<?>[indexes.length];
+            for (var i = 0; i < indexes.length; i++)
+            {
+                filtered[i] = changes[indexes[i]];
+            }
+            return new Segment(filtered);
+        }
     }
 }
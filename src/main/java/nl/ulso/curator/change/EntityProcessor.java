@@ -3,9 +3,9 @@ package nl.ulso.curator.change;
 import java.util.List;
 import java.util.Set;
 
-import static nl.ulso.curator.change.Change.isCreate;
-import static nl.ulso.curator.change.Change.isDelete;
-import static nl.ulso.curator.change.Change.isUpdate;
+import static nl.ulso.curator.change.Change.Kind.CREATE;
+import static nl.ulso.curator.change.Change.Kind.DELETE;
+import static nl.ulso.curator.change.Change.Kind.UPDATE;
 import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 
 /// Base class for change processors that process changes with a specific payload type `E`.
@@ -40,7 +40,7 @@ public abstract class EntityProcessor<E>
     {
         return List.of(
             newChangeHandler(
-                isCreate(),
+                CREATE,
                 (change, collector) ->
                     entityCreated(
                         change.as(entityClass()).newValue(),
@@ -48,7 +48,7 @@ public abstract class EntityProcessor<E>
                     )
             ),
             newChangeHandler(
-                isUpdate(),
+                UPDATE,
                 (change, collector) ->
                     entityUpdated(
                         change.as(entityClass()).oldValue(),
@@ -57,7 +57,7 @@ public abstract class EntityProcessor<E>
                     )
             ),
             newChangeHandler(
-                isDelete(),
+                DELETE,
                 (change, collector) ->
                     entityDeleted(
                         change.as(entityClass()).oldValue(),
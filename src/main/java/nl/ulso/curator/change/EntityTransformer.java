@@ -8,7 +8,12 @@ import java.util.Set;
 /// For every change with source payload type `S`, the change payload is transformed into a target
 /// type `T` and then, if successful, published to the changelog.
 ///
-/// Subclasses must implement [#transform(S)] to produce an optional `T`.
+/// Subclasses must implement [#transform(S)] to produce an optional `T`. If that is a pure
+/// function, without side effects, subclasses can override [#canHandleChangesConcurrently()] to
+/// have large changelogs, like the one after a [Reset], transformed concurrently.
+///
+/// If a subclass can tell cheaply that a new version of a source transforms into the same target as
+/// the old version, it can override [#isUnchanged(S, S)] to skip the update altogether.
 public abstract class EntityTransformer<S, T>
     extends EntityProcessor<S>
 {
@@ -18,6 +23,14 @@ public abstract class EntityTransformer<S, T>
 
     protected abstract Optional<T> transform(S source);
 
+    /// @return `true` if the new version of the source transforms into the same target as the old
+    /// version, so that neither has to be transformed and no change is produced; `false` by
+    /// default.
+    protected boolean isUnchanged(S oldSource, S newSource)
+    {
+        return false;
+    }
+
     @Override
     protected final Class<S> entityClass()
     {
@@ -39,6 +52,10 @@ public abstract class EntityTransformer<S, T>
     @Override
     protected final void entityUpdated(S oldSource, S newSource, ChangeCollector collector)
     {
+        if (isUnchanged(oldSource, newSource))
+        {
+            return;
+        }
         var oldTarget = transform(oldSource);
         var newTarget = transform(newSource);
         if (oldTarget.isPresent() && newTarget.isPresent())
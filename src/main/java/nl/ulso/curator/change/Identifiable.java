@@ -0,0 +1,18 @@
+package nl.ulso.curator.change;
+
+/// Payload of changes that has an identity that stays the same across versions of the payload.
+///
+/// Changes to payloads with the same type and identity are changes to the same object. That
+/// allows the curator to fold consecutive changes to the same object into a single change with the
+/// same net effect; see [Change#netEffect(Change, Change)]. Changes with payloads that are not
+/// identifiable are never folded.
+///
+/// For example: the identity of a daily journal entry is its date, and the identity of a project
+/// is the name of its document.
+public interface Identifiable
+{
+    /// @return The identity of this object; equal for all versions of the same object, and
+    /// different for different objects of the same type. It must implement [Object#equals(Object)]
+    /// and [Object#hashCode()] accordingly.
+    Object identity();
+}
@@ -0,0 +1,121 @@
+package nl.ulso.curator.main;
+
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.change.Identifiable;
+import nl.ulso.curator.change.Reset;
+import nl.ulso.curator.vault.Document;
+import nl.ulso.curator.vault.Folder;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static nl.ulso.curator.change.Change.netEffect;
+
+/// Queue of changes that are waiting to be processed by the [DefaultCurator], compacted to their
+/// net effect.
+///
+/// All changes to the same object - the same payload type and identity - are folded into a single
+/// change; see [Change#netEffect(Change, Change)]. That change takes the position of the last
+/// change to the object in the queue. Changes with payload types that have no identity are queued
+/// as they are.
+///
+/// The identity of a document is its name, which is unique within the vault. The identity of a
+/// folder is its path in the vault: the names of the folders from the root down to it. All other
+/// payloads have an identity if they are [Identifiable]. Changes are never folded across a
+/// [Reset]; all changes before it are discarded when the queue is processed anyway.
+///
+/// The curator uses this queue both for incoming vault changes, and - with pipelined processing -
+/// for the changes produced by the change processors, which are mostly entities.
+final class ChangeQueue
+{
+    private static final Map<Class<?>, Function<Object, Object>> IDENTITIES = Map.of(
+        Document.class, document -> ((Document) document).name(),
+        Folder.class, folder -> pathOf((Folder) folder)
+    );
+
+    private final List<Change<?>> changes;
+    private final Map<Identity, Integer> changeIndex;
+
+    ChangeQueue()
+    {
+        changes = new ArrayList<>();
+        changeIndex = new HashMap<>();
+    }
+
+    void add(Change<?> change)
+    {
+        if (change.payloadType().equals(Reset.class))
+        {
+            changeIndex.clear();
+        }
+        var identityValue = identityOf(change);
+        if (identityValue == null)
+        {
+            changes.add(change);
+            return;
+        }
+        var identity = new Identity(change.payloadType(), identityValue);
+        var index = changeIndex.remove(identity);
+        var netChange = Optional.<Change<?>>of(change);
+        if (index != null)
+        {
+            netChange = fold(change.payloadType(), changes.set(index, null), change);
+        }
+        netChange.ifPresent(c ->
+        {
+            changeIndex.put(identity, changes.size());
+            changes.add(c);
+        });
+    }
+
+    private static Object identityOf(Change<?> change)
+    {
+        var identityFunction = IDENTITIES.get(change.payloadType());
+        if (identityFunction != null)
+        {
+            return identityFunction.apply(change.value());
+        }
+        if (change.value() instanceof Identifiable identifiable)
+        {
+            return identifiable.identity();
+        }
+        return null;
+    }
+
+    private static List<String> pathOf(Folder folder)
+    {
+        var path = new ArrayList<String>();
+        for (var current = folder; !current.isRoot(); current = current.parent())
+        {
+            path.addFirst(current.name());
+        }
+        return path;
+    }
+
+    private static <T> Optional<Change<?>> fold(
+        Class<T> payloadType, Change<?> first, Change<?> second)
+    {
+        return netEffect(first.as(payloadType), second.as(payloadType)).map(change -> change);
+    }
+
+    /// @return All changes in the queue, compacted, in order.
+    List<Change<?>> changes()
+    {
+        return changes.stream().filter(Objects::nonNull).toList();
+    }
+
+    boolean isEmpty()
+    {
+        return changes.stream().allMatch(Objects::isNull);
+    }
+
+    void clear()
+    {
+        changes.clear();
+        changeIndex.clear();
+    }
+
+    private record Identity(Class<?> payloadType, Object identity)
+    {
+    }
+}
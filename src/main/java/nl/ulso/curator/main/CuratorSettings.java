@@ -0,0 +1,81 @@
+package nl.ulso.curator.main;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/// Settings for the [nl.ulso.curator.Curator].
+///
+/// Binding an instance of this record in a curator module is optional. Without it, the [#DEFAULT]
+/// settings apply. Start from the defaults and override specific settings with the `with` methods.
+///
+/// @param pipelinedProcessing whether to run the change processors as soon as changes come in,
+///                            instead of after the delay that also applies to running queries and
+///                            writing documents. This shortens the wait after the last change, at
+///                            the cost of running the change processors more often.
+/// @param minimumDelay        shortest delay between a change and running the queries, for
+///                            isolated changes.
+/// @param maximumDelay        longest delay between a change and running the queries, for changes
+///                            in a burst. If it is the same as the minimum, the delay is fixed.
+/// @param maximumLatency      longest time the queries can be postponed by a continuous stream of
+///                            changes, counting from the first change after the last run.
+/// @param parallelChangeProcessing whether to run change processors that don't depend on each
+///                            other concurrently. Processors depend on each other through the
+///                            payload types they produce, consume and require. The resulting
+///                            changelog is the same as when running them one by one.
+public record CuratorSettings(
+    boolean pipelinedProcessing, Duration minimumDelay, Duration maximumDelay,
+    Duration maximumLatency, boolean parallelChangeProcessing)
+{
+    public static final CuratorSettings DEFAULT = new CuratorSettings(
+        false, Duration.ofSeconds(3), Duration.ofSeconds(3), Duration.ofSeconds(30), false);
+
+    public CuratorSettings
+    {
+        requireNonNull(minimumDelay);
+        requireNonNull(maximumDelay);
+        requireNonNull(maximumLatency);
+        if (minimumDelay.isNegative() || minimumDelay.compareTo(maximumDelay) > 0)
+        {
+            throw new IllegalArgumentException(
+                "Minimum delay must not be negative and at most the maximum delay");
+        }
+        if (maximumLatency.compareTo(minimumDelay) < 0)
+        {
+            throw new IllegalArgumentException(
+                "Maximum latency must be at least the minimum delay");
+        }
+    }
+
+    public CuratorSettings withPipelinedProcessing(boolean pipelinedProcessing)
+    {
+        return new CuratorSettings(
+            pipelinedProcessing, minimumDelay, maximumDelay, maximumLatency,
+            parallelChangeProcessing);
+    }
+
+    /// Makes the delay before running the queries adapt to how often changes come in: short after an
+    /// isolated save, longer while a document is being edited continuously.
+    public CuratorSettings withAdaptiveDelay(Duration minimumDelay, Duration maximumDelay)
+    {
+        return new CuratorSettings(
+            pipelinedProcessing, minimumDelay, maximumDelay, maximumLatency,
+            parallelChangeProcessing);
+    }
+
+    public CuratorSettings withMaximumLatency(Duration maximumLatency)
+    {
+        return new CuratorSettings(
+            pipelinedProcessing, minimumDelay, maximumDelay, maximumLatency,
+            parallelChangeProcessing);
+    }
+
+    /// Runs change processors that don't depend on each other concurrently. Processors that share
+    /// state must declare that through the payload types they produce and require.
+    public CuratorSettings withParallelChangeProcessing(boolean parallelChangeProcessing)
+    {
+        return new CuratorSettings(
+            pipelinedProcessing, minimumDelay, maximumDelay, maximumLatency,
+            parallelChangeProcessing);
+    }
+}
@@ -0,0 +1,145 @@
+package nl.ulso.curator.main;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.statistics.MeasurementCollector;
+import nl.ulso.curator.statistics.MeasurementTracker;
+import nl.ulso.curator.vault.Document;
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+
+import static java.lang.Math.clamp;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/// Decides how long the [DefaultCurator] waits after a change before it runs the queries and
+/// writes documents to disk.
+///
+/// The delay adapts to the gaps between changes to each document, as observed by the scheduler.
+/// The first change to a document after a while is considered an isolated save: the queries run
+/// after the minimum delay from the [CuratorSettings]. While a document is being edited, for
+/// example because Obsidian saves it every few seconds, the scheduler keeps a moving average of
+/// the gaps between its changes, and waits a bit longer than that, up to the maximum delay. The
+/// delay for a batch of changes is the longest delay for any of the documents in it.
+///
+/// Because every change postpones the run, continuous editing could postpone it forever. The
+/// maximum latency in the settings caps the time between the first change after the previous run
+/// and the next run.
+///
+/// The decisions of the scheduler are reported through the statistics.
+@Singleton
+final class DebounceScheduler
+    implements MeasurementTracker
+{
+    private static final Logger LOGGER = getLogger(DebounceScheduler.class);
+
+    /// Gap after which the next change to a document is considered an isolated save.
+    private static final long SESSION_GAP_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    /// Weight of the latest gap in the moving average of the gaps between changes.
+    private static final double GAP_WEIGHT = 0.3;
+
+    /// Factor to apply to the average gap, so that the next change likely comes in before the
+    /// delay is over.
+    private static final double BURST_FACTOR = 1.5;
+
+    private final long minimumDelay;
+    private final long maximumDelay;
+    private final long maximumLatency;
+    private final Clock clock;
+    private final Map<String, Long> lastChanges;
+    private final Map<String, Double> averageGaps;
+    private long firstPendingChange;
+    private long lastDelay;
+    private long scheduledRunCount;
+    private long cappedRunCount;
+
+    @Inject
+    DebounceScheduler(Optional<CuratorSettings> settings)
+    {
+        this(settings.orElse(CuratorSettings.DEFAULT), Clock.systemUTC());
+    }
+
+    DebounceScheduler(CuratorSettings settings, Clock clock)
+    {
+        this.minimumDelay = settings.minimumDelay().toMillis();
+        this.maximumDelay = settings.maximumDelay().toMillis();
+        this.maximumLatency = settings.maximumLatency().toMillis();
+        this.clock = clock;
+        this.lastChanges = new HashMap<>();
+        this.averageGaps = new HashMap<>();
+        this.firstPendingChange = -1;
+    }
+
+    /// Records the changes and decides how long to wait before running the queries.
+    synchronized Duration delayFor(List<Change<?>> changes)
+    {
+        var now = clock.millis();
+        if (firstPendingChange < 0)
+        {
+            firstPendingChange = now;
+        }
+        var delay = minimumDelay;
+        for (var change : changes)
+        {
+            if (change.payloadType().equals(Document.class))
+            {
+                var name = change.as(Document.class).value().name();
+                delay = Math.max(delay, documentDelay(name, now));
+            }
+        }
+        var latencyLeft = firstPendingChange + maximumLatency - now;
+        if (latencyLeft < delay)
+        {
+            LOGGER.debug("Capping delay of {}ms to {}ms to meet the maximum latency.",
+                delay, Math.max(latencyLeft, 0)
+            );
+            delay = Math.max(latencyLeft, 0);
+            cappedRunCount++;
+        }
+        else
+        {
+            LOGGER.debug("Delaying query processing by {}ms.", delay);
+        }
+        lastDelay = delay;
+        scheduledRunCount++;
+        return Duration.ofMillis(delay);
+    }
+
+    private long documentDelay(String name, long now)
+    {
+        var previous = lastChanges.put(name, now);
+        if (previous == null || now - previous > SESSION_GAP_MILLIS)
+        {
+            averageGaps.remove(name);
+            return minimumDelay;
+        }
+        var averageGap = averageGaps.merge(name, (double) (now - previous),
+            (average, gap) -> average * (1 - GAP_WEIGHT) + gap * GAP_WEIGHT
+        );
+        return clamp((long) (averageGap * BURST_FACTOR), minimumDelay, maximumDelay);
+    }
+
+    /// Marks the start of a run; changes after this count towards the next run. Documents that
+    /// haven't changed for a while are forgotten.
+    synchronized void runStarted()
+    {
+        var now = clock.millis();
+        firstPendingChange = -1;
+        lastChanges.values().removeIf(lastChange -> now - lastChange > SESSION_GAP_MILLIS);
+        averageGaps.keySet().retainAll(lastChanges.keySet());
+    }
+
+    @Override
+    public synchronized void collectMeasurements(MeasurementCollector collector)
+    {
+        collector.forModule("main")
+            .total("debounce_scheduled_runs", scheduledRunCount)
+            .total("debounce_capped_runs", cappedRunCount)
+            .total("debounce_last_delay_millis", lastDelay)
+            .total("debounce_tracked_documents", lastChanges.size());
+    }
+}
@@ -6,13 +6,18 @@ import nl.ulso.curator.change.*;
 import nl.ulso.curator.statistics.Statistics;
 import nl.ulso.curator.vault.*;
 import org.slf4j.Logger;
+import org.slf4j.MDC;
 import org.slf4j.event.Level;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Comparator.comparing;
 import static java.util.List.copyOf;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 import static nl.ulso.curator.change.Change.isPayloadType;
@@ -20,6 +25,18 @@ import static nl.ulso.curator.change.Changelog.changelogFor;
 import static nl.ulso.curator.change.Changelog.emptyChangelog;
 import static org.slf4j.LoggerFactory.getLogger;
 
+/// Runs all [ChangeProcessor]s on a list of changes, producers of payload types before consumers.
+///
+/// By default, the processors run one by one, in the order determined at startup. With parallel
+/// change processing enabled in the [CuratorSettings], each processor instead runs as soon as all
+/// processors before it that produce payload types it consumes or requires have finished.
+/// Processors that are independent of each other, like those of unrelated add-ons, then run
+/// concurrently. Since a processor only sees the changes of the payload types it consumes, it gets
+/// exactly the same changelog as it would have in sequential order. The changelogs the processors
+/// produce are appended in that order as well, so the end result is the same.
+///
+/// The reserved processors, the only ones that can produce a [Reset], always run first, one by
+/// one.
 @Singleton
 final class DefaultChangeProcessorOrchestrator
     implements ChangeProcessorOrchestrator
@@ -32,15 +49,37 @@ final class DefaultChangeProcessorOrchestrator
     private static final Logger LOGGER = getLogger(DefaultChangeProcessorOrchestrator.class);
 
     private final List<ChangeProcessor> changeProcessors;
+    private final int reservedChangeProcessorCount;
+    private final int[][] dependencies;
     private final Statistics statistics;
+    private final boolean parallelChangeProcessing;
 
     @Inject
+    DefaultChangeProcessorOrchestrator(
+        Set<ChangeProcessor> changeProcessors, Statistics statistics,
+        Optional<CuratorSettings> settings)
+    {
+        this(changeProcessors, statistics, settings.orElse(CuratorSettings.DEFAULT));
+    }
+
     DefaultChangeProcessorOrchestrator(Set<ChangeProcessor> changeProcessors, Statistics statistics)
+    {
+        this(changeProcessors, statistics, CuratorSettings.DEFAULT);
+    }
+
+    DefaultChangeProcessorOrchestrator(
+        Set<ChangeProcessor> changeProcessors, Statistics statistics, CuratorSettings settings)
     {
         verifyPayloadTypeConsumers(changeProcessors);
         verifyReservedPayloadTypeProducers(changeProcessors);
         this.changeProcessors = orderChangeProcessors(changeProcessors);
+        this.reservedChangeProcessorCount = (int) changeProcessors.stream()
+            .filter(processor -> RESERVED_CHANGE_PROCESSORS_CLASSES.contains(processor.getClass()))
+            .count();
+        this.dependencies = resolveDependencies(
+            this.changeProcessors.subList(reservedChangeProcessorCount, changeProcessors.size()));
         this.statistics = statistics;
+        this.parallelChangeProcessing = settings.parallelChangeProcessing();
     }
 
     private void verifyPayloadTypeConsumers(Set<ChangeProcessor> processors)
@@ -158,6 +197,24 @@ final class DefaultChangeProcessorOrchestrator
         return copyOf(result);
     }
 
+    /// Resolves, for each processor in the ordered list, the positions of the processors before it
+    /// that produce any of the payload types it consumes or requires, in ascending order.
+    private static int[][] resolveDependencies(List<ChangeProcessor> orderedProcessors)
+    {
+        var result = new int[orderedProcessors.size()][];
+        for (var i = 0; i < orderedProcessors.size(); i++)
+        {
+            var processor = orderedProcessors.get(i);
+            var neededPayloadTypes = new HashSet<>(processor.consumedPayloadTypes());
+            neededPayloadTypes.addAll(processor.requiredPayloadTypes());
+            result[i] = IntStream.range(0, i)
+                .filter(j -> orderedProcessors.get(j).producedPayloadTypes().stream()
+                    .anyMatch(neededPayloadTypes::contains))
+                .toArray();
+        }
+        return result;
+    }
+
     /// Checks if any of the processors in the collection produce any of the given payload types.
     private boolean producesAnyOf(
         Collection<ChangeProcessor> changeProcessors, Set<Class<?>> payloadTypes)
@@ -171,21 +228,35 @@ final class DefaultChangeProcessorOrchestrator
     {
         var changelog = changelogFor(changes);
         resetIfNeeded(changelog);
-        for (ChangeProcessor processor : changeProcessors)
+        if (parallelChangeProcessing)
         {
-            var processorName = processor.name();
-            var filteredChangelog = changelog.changelogFor(processor.consumedPayloadTypes());
-            if (filteredChangelog.isEmpty())
-            {
-                LOGGER.debug(
-                    "Skipping change processor {}. No relevant changes available.",
-                    processorName
-                );
-                continue;
-            }
-            LOGGER.debug("Running change processor {}.", processorName);
-            var newChangelog = safelyApplyChangelogTo(processor, filteredChangelog);
-            verifyChanges(processor, newChangelog);
+            changelog = runSequentially(
+                changelog, changeProcessors.subList(0, reservedChangeProcessorCount));
+            changelog = runConcurrently(changelog, changeProcessors.subList(
+                reservedChangeProcessorCount, changeProcessors.size()));
+        }
+        else
+        {
+            changelog = runSequentially(changelog, changeProcessors);
+        }
+        LOGGER.info(
+            "Executed {} change processors on {} change(s).",
+            changeProcessors.size(),
+            changes.size()
+        );
+        statistics.logTo(
+            LOGGER,
+            changelog.changes().anyMatch(isPayloadType(Reset.class)) ? Level.INFO : Level.TRACE
+        );
+        LOGGER.info("Produced changelog with {} change(s).", changelog.size());
+        return changelog;
+    }
+
+    private Changelog runSequentially(Changelog changelog, List<ChangeProcessor> processors)
+    {
+        for (ChangeProcessor processor : processors)
+        {
+            var newChangelog = run(processor, changelog);
             if (resetIfNeeded(newChangelog))
             {
                 // The new changelog contains a Reset. All changes before it are no longer
@@ -197,21 +268,75 @@ final class DefaultChangeProcessorOrchestrator
                 // Append the new changelog to the existing one for the next processor.
                 changelog = changelog.append(newChangelog);
             }
-            LOGGER.trace("Executed change processor {}.", processorName);
         }
-        LOGGER.info(
-            "Executed {} change processors on {} change(s).",
-            changeProcessors.size(),
-            changes.size()
-        );
-        statistics.logTo(
-            LOGGER,
-            changelog.changes().anyMatch(isPayloadType(Reset.class)) ? Level.INFO : Level.TRACE
-        );
-        LOGGER.info("Produced changelog with {} change(s).", changelog.size());
         return changelog;
     }
 
+    /// Runs each processor as soon as its dependencies are done, on the changelog followed by the
+    /// changelogs of its dependencies. Since the processor sees only the payload types that it
+    /// consumes, and only its dependencies produce these, this is the same changelog as in
+    /// sequential order.
+    private Changelog runConcurrently(Changelog changelog, List<ChangeProcessor> processors)
+    {
+        var results = new ArrayList<CompletableFuture<Changelog>>(processors.size());
+        var curatorName = MDC.get("curator");
+        try (var executor = newVirtualThreadPerTaskExecutor())
+        {
+            for (var i = 0; i < processors.size(); i++)
+            {
+                var processor = processors.get(i);
+                var inputs = Arrays.stream(dependencies[i]).mapToObj(results::get).toList();
+                results.add(CompletableFuture.allOf(inputs.toArray(CompletableFuture<?>[]::new))
+                    .thenApplyAsync(_ ->
+                    {
+                        MDC.put("curator", curatorName);
+                        var input = changelog;
+                        for (var result : inputs)
+                        {
+                            input = input.append(result.join());
+                        }
+                        return run(processor, input);
+                    }, executor));
+            }
+            var result = changelog;
+            for (var newChangelog : results)
+            {
+                result = result.append(newChangelog.join());
+            }
+            return result;
+        }
+        catch (CompletionException e)
+        {
+            if (e.getCause() instanceof RuntimeException cause)
+            {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /// Runs a single processor on the changes it consumes in the changelog, if there are any.
+    ///
+    /// @return The changes produced by the processor.
+    private Changelog run(ChangeProcessor processor, Changelog changelog)
+    {
+        var processorName = processor.name();
+        var filteredChangelog = changelog.changelogFor(processor.consumedPayloadTypes());
+        if (filteredChangelog.isEmpty())
+        {
+            LOGGER.debug(
+                "Skipping change processor {}. No relevant changes available.",
+                processorName
+            );
+            return emptyChangelog();
+        }
+        LOGGER.debug("Running change processor {}.", processorName);
+        var newChangelog = safelyApplyChangelogTo(processor, filteredChangelog);
+        verifyChanges(processor, newChangelog);
+        LOGGER.trace("Executed change processor {}.", processorName);
+        return newChangelog;
+    }
+
     private boolean resetIfNeeded(Changelog changelog)
     {
         if (changelog.changes().noneMatch(isPayloadType(Reset.class)))
@@ -9,17 +9,16 @@ import nl.ulso.curator.vault.*;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 
-import static java.nio.file.Files.getLastModifiedTime;
-import static java.nio.file.Files.writeString;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static nl.ulso.curator.change.Change.isPayloadType;
+import static nl.ulso.curator.change.Changelog.changelogFor;
 import static nl.ulso.curator.change.Reset.RESET;
-import static nl.ulso.curator.main.DocumentRewriter.rewriteDocument;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /// Markdown curator on top of a [Vault] and custom [ChangeProcessor]s and [Query]s.
@@ -29,48 +28,60 @@ import static org.slf4j.LoggerFactory.getLogger;
 /// 1. All relevant [ChangeProcessor]s are executed in the right order by the
 /// [ChangeProcessorOrchestrator].
 /// 2. All relevant [Query]s are executed by the [QueryOrchestrator].
-/// 3. All updated documents resulting from query execution are written to disk.
+/// 3. All updated documents resulting from query execution are written to disk by the
+/// [DocumentWriter].
 ///
 /// Queries are not executed after every detected change. Instead, the running of queries and
 /// writing of documents to disk is scheduled to take place after a short delay. If during this
 /// delay new changes come in, the task is rescheduled. This prevents superfluous query execution
 /// and writes to disk, at the cost of the user having to wait a few seconds after saving the last
 /// change. This is especially useful when using Obsidian, which automatically writes changes to
-/// disk, every few seconds.
+/// disk, every few seconds. The [DebounceScheduler] decides on the delay. While waiting, changes
+/// are compacted to their net effect in a [ChangeQueue].
 ///
 /// The query run is performed with the changelog that has been built up from processing all
 /// incoming changes. After the queries have finally run and updated documents are written to disk,
 /// the changelog is reset.
+///
+/// With pipelined processing enabled in the [CuratorSettings], step 1 is not delayed. Instead, the
+/// change processors run as soon as changes come in, and the changelogs they produce are compacted
+/// in a second [ChangeQueue]. Only steps 2 and 3 wait for the delay to pass, so that less work is
+/// left to do after the last change. Without pipelined processing, the queries run on the
+/// changelog of the change processors as is.
 final class DefaultCurator
     implements Curator, VaultChangedCallback
 {
     private static final Logger LOGGER = getLogger(DefaultCurator.class);
-    private static final long SCHEDULE_TIMEOUT_IN_SECONDS = 3;
 
     private final String curatorName;
     private final Vault vault;
     private final ChangeProcessorOrchestrator changeProcessorOrchestrator;
     private final QueryOrchestrator queryOrchestrator;
-    private final DocumentPathResolver documentPathResolver;
+    private final DocumentWriter documentWriter;
     private final ScheduledExecutorService delayedExecutor;
-    private final Set<String> expectedDocumentUpdates;
-    private final List<Change<?>> changeQueue;
+    private final ChangeQueue changeQueue;
+    private final ChangeQueue processedChangeQueue;
+    private final CuratorSettings settings;
+    private final DebounceScheduler debounceScheduler;
     private ScheduledFuture<?> runTask;
 
     @Inject
     public DefaultCurator(
         Vault vault,
         ChangeProcessorOrchestrator changeProcessorOrchestrator,
-        QueryOrchestrator queryOrchestrator, DocumentPathResolver documentPathResolver)
+        QueryOrchestrator queryOrchestrator, DocumentWriter documentWriter,
+        Optional<CuratorSettings> settings, DebounceScheduler debounceScheduler)
     {
         this.curatorName = Thread.currentThread().getName();
         this.vault = vault;
         this.changeProcessorOrchestrator = changeProcessorOrchestrator;
         this.queryOrchestrator = queryOrchestrator;
-        this.documentPathResolver = documentPathResolver;
+        this.documentWriter = documentWriter;
         this.delayedExecutor = newScheduledThreadPool(1);
-        this.expectedDocumentUpdates = new HashSet<>();
-        this.changeQueue = new ArrayList<>();
+        this.changeQueue = new ChangeQueue();
+        this.processedChangeQueue = new ChangeQueue();
+        this.settings = settings.orElse(CuratorSettings.DEFAULT);
+        this.debounceScheduler = debounceScheduler;
         this.runTask = null;
     }
 
@@ -97,74 +108,56 @@ final class DefaultCurator
         }
     }
 
+    @Override
+    public void vaultChanged(Change<?> change)
+    {
+        vaultChanged(List.of(change));
+    }
+
+    /// Queues a batch of changes from the vault. Changes in a batch are logged individually only on
+    /// debug level, to keep large batches, for example from renaming a folder, out of the log.
+    ///
+    /// If the batch contains a [Reset] change, the application is starting up, or the complete
+    /// vault was reloaded. Then there's no reason to wait. In all other cases the curator waits for
+    /// a bit. Writes of the curator itself never get here; the vault recognizes and drops them.
+    ///
     /// This method is synchronized to ensure it doesn't run concurrently with
     /// [#processChangeQueue].
     @Override
-    public synchronized void vaultChanged(Change<?> change)
+    public synchronized void vaultChanged(List<Change<?>> changes)
     {
-        LOGGER.info("{} detected for {} '{}'.",
-            change.kind(), change.payloadType().getSimpleName(), change.value()
-        );
+        logChanges(changes);
         cancelQueryWriteRunIfPresent();
-        changeQueue.addLast(optimizeChangeQueue(change));
-        if (canRunImmediatelyFor(change))
+        changes.forEach(changeQueue::add);
+        var isReset = changes.stream().anyMatch(isPayloadType(Reset.class));
+        if (isReset)
         {
-            LOGGER.info("Immediately processing all expected document updates.");
+            LOGGER.info("Immediately processing a change to the complete vault.");
             processChangeQueue();
-            expectedDocumentUpdates.clear();
-            requestGarbageCollectionIfPotentiallyBeneficial(change);
+            requestGarbageCollection();
+            return;
         }
-        else
+        if (settings.pipelinedProcessing())
         {
-            scheduleChangeQueueProcessing();
+            processChanges();
         }
+        scheduleChangeQueueProcessing(debounceScheduler.delayFor(changes));
     }
 
-    /// If the last item in the queue points to the same [Document] as the new change coming in, and
-    /// they are both updates, then we can fold them into a single update. This is especially useful
-    /// for Obsidian, which updates documents frequently.
-    private Change<?> optimizeChangeQueue(Change<?> newChange)
+    private void logChanges(List<Change<?>> changes)
     {
-        if (!changeQueue.isEmpty()
-            && newChange.payloadType().equals(Document.class)
-            && newChange.kind() == Change.Kind.UPDATE)
+        if (changes.size() == 1)
         {
-            var lastChange = changeQueue.getLast();
-            if (lastChange.payloadType().equals(Document.class)
-                && lastChange.kind() == Change.Kind.UPDATE
-                && lastChange.as(Document.class).value().name().
-                    equals(newChange.as(Document.class).value().name()))
-            {
-                LOGGER.debug(
-                    "Two consecutive updates to the same document detected. Folding them into a " +
-                    "single update.");
-                changeQueue.remove(lastChange);
-                return Change.update(
-                    lastChange.as(Document.class).oldValue(),
-                    newChange.as(Document.class).newValue(),
-                    Document.class
-                );
-            }
+            var change = changes.getFirst();
+            LOGGER.info("{} detected for {} '{}'.",
+                change.kind(), change.payloadType().getSimpleName(), change.value()
+            );
+            return;
         }
-        return newChange;
-    }
-
-    /// If the incoming change is a [Reset] change, that means the application is starting up, and
-    /// then there's no reason to wait. If the incoming change is expected as the result of a file
-    /// written by the curator, then there's no reason to wait either. In all cases the curator
-    /// should wait for a bit.
-    private boolean canRunImmediatelyFor(Change<?> change)
-    {
-        if (change.payloadType().equals(Reset.class))
-        {
-            return true;
-        }
-        if (change.payloadType().equals(Document.class) && change.kind() == Change.Kind.UPDATE)
-        {
-            return expectedDocumentUpdates.remove(change.as(Document.class).value().name()) &&
-                   expectedDocumentUpdates.isEmpty();
-        }
-        return false;
+        LOGGER.info("Batch of {} changes detected.", changes.size());
+        changes.forEach(change -> LOGGER.debug("{} detected for {} '{}'.",
+            change.kind(), change.payloadType().getSimpleName(), change.value()
+        ));
     }
 
     /// Yes, calling `System.gc()` is bad practice and almost always a bad idea. Here, however, we
@@ -185,13 +178,10 @@ final class DefaultCurator
     ///
     /// So, hinting to the JVM that the garbage collector may run after a [Reset] is potentially
     /// beneficial.
-    private void requestGarbageCollectionIfPotentiallyBeneficial(Change<?> change)
+    private void requestGarbageCollection()
     {
-        if (change.payloadType().equals(Reset.class))
-        {
-            LOGGER.debug("Requesting the JVM to garbage collect.");
-            System.gc();
-        }
+        LOGGER.debug("Requesting the JVM to garbage collect.");
+        System.gc();
     }
 
     /// If there is an incoming change, there's no need to write changes to disk from the previous
@@ -209,53 +199,57 @@ final class DefaultCurator
     /// A change was detected, which means the queries need to be executed, and changes written to
     /// disk. That work is scheduled for a few seconds from now. If new changes come in in the
     /// meantime, the task will be cancelled and replaced by a new one.
-    private void scheduleChangeQueueProcessing()
+    private void scheduleChangeQueueProcessing(Duration delay)
     {
-        LOGGER.debug("Scheduling query processing and document writing task to run in {} seconds.",
-            SCHEDULE_TIMEOUT_IN_SECONDS
+        LOGGER.debug("Scheduling query processing and document writing task to run in {}ms.",
+            delay.toMillis()
         );
         runTask = delayedExecutor.schedule(
             this::processChangeQueue,
-            SCHEDULE_TIMEOUT_IN_SECONDS,
-            SECONDS
+            delay.toMillis(),
+            MILLISECONDS
         );
     }
 
     /// This method is synchronized to ensure it doesn't run concurrently with
-    /// [#vaultChanged(Change)].
+    /// [#vaultChanged(List)].
     private synchronized void processChangeQueue()
     {
         MDC.put("curator", curatorName);
         logSeparatorLine();
-        var changelog = changeProcessorOrchestrator.runFor(changeQueue);
-        queryOrchestrator.runFor(changelog).forEach(this::writeDocument);
-        changeQueue.clear();
+        debounceScheduler.runStarted();
+        Changelog changelog;
+        if (settings.pipelinedProcessing())
+        {
+            processChanges();
+            changelog = changelogFor(processedChangeQueue.changes());
+            processedChangeQueue.clear();
+        }
+        else
+        {
+            changelog = changeProcessorOrchestrator.runFor(changeQueue.changes());
+            changeQueue.clear();
+        }
+        documentWriter.writeAll(queryOrchestrator.runFor(changelog));
         logSeparatorLine();
     }
 
-    /// Executing queries has resulted in a set of [DocumentUpdate]s. These must be written to disk.
-    /// The writes are registered to detect self-triggered changes later on.
-    private void writeDocument(DocumentUpdate documentUpdate)
+    /// In pipelined mode: runs the change processors for all queued changes, and queues the
+    /// resulting changelog, compacted, for the next query run. If the changelog contains a
+    /// [Reset], all previously processed changes are no longer relevant.
+    private void processChanges()
     {
-        var document = documentUpdate.document();
-        LOGGER.info("Rewriting document: '{}'.", document);
-        var newDocumentContent = rewriteDocument(documentUpdate);
-        try
+        if (changeQueue.isEmpty())
         {
-            var path = documentPathResolver.resolveAbsolutePath(document);
-            if (document.lastModified() != getLastModifiedTime(path).toMillis())
-            {
-                LOGGER.warn("Document '{}' has changed on disk. Skipping.", document);
-                return;
-            }
-            writeString(path, newDocumentContent);
-            expectedDocumentUpdates.add(document.name());
+            return;
         }
-        catch (IOException e)
+        var changelog = changeProcessorOrchestrator.runFor(changeQueue.changes());
+        changeQueue.clear();
+        if (changelog.changes().anyMatch(isPayloadType(Reset.class)))
         {
-            LOGGER.warn("Couldn't write document '{}' to disk.", document);
-            LOGGER.error(e.getMessage(), e);
+            processedChangeQueue.clear();
         }
+        changelog.changes().forEach(processedChangeQueue::add);
     }
 
     private void logSeparatorLine()
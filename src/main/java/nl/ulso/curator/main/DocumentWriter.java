@@ -0,0 +1,231 @@
+package nl.ulso.curator.main;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import nl.ulso.curator.statistics.MeasurementCollector;
+import nl.ulso.curator.statistics.MeasurementTracker;
+import nl.ulso.curator.vault.DocumentPathResolver;
+import nl.ulso.curator.vault.DocumentWriteHandler;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.*;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.DSYNC;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static nl.ulso.curator.main.DocumentRewriter.rewriteDocument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/// Writes the [DocumentUpdate]s that result from running queries to disk.
+///
+/// After a [nl.ulso.curator.change.Reset] hundreds of documents may need to be written, so the
+/// writer writes them concurrently, with a bound on the number of writes in progress.
+///
+/// Each document is written atomically: its new content is written to a hidden temporary file in
+/// the same directory, which then replaces the document in a single rename. A crash halfway
+/// through a write therefore never leaves a truncated document behind. The vault ignores the
+/// temporary files. The new file gets the permissions and creation time of the original document,
+/// where the file system supports that. Other metadata of the original, like extended attributes,
+/// is not kept.
+///
+/// Right before the rename, the writer tells the vault what the document will look like on disk,
+/// and after it, it hands over the new content; see [DocumentWriteHandler]. That way the vault
+/// doesn't have to read the document back, and the change event of the write is dropped, instead
+/// of being processed all over again.
+///
+/// A document is not written if it has changed on disk since it was read, because then the user
+/// changed it in the meantime. The vault will pick up that change soon.
+///
+/// A document is not written either if its new content is exactly the same as what is on disk,
+/// for example when the output of a query is the same, but its hash is not. That saves a write, and
+/// the change event, parsing and processing that would follow it. The file on disk is read only if
+/// it has the same size as the new content.
+///
+/// The number of documents and bytes written, the number of writes skipped, and the time spent
+/// writing are reported through the statistics.
+@Singleton
+final class DocumentWriter
+    implements MeasurementTracker
+{
+    private static final Logger LOGGER = getLogger(DocumentWriter.class);
+    private static final int MAXIMUM_CONCURRENT_WRITES = 8;
+
+    private final DocumentPathResolver documentPathResolver;
+    private final DocumentWriteHandler documentWriteHandler;
+    private final AtomicLong writtenDocumentCount;
+    private final AtomicLong writtenByteCount;
+    private final AtomicLong skippedDocumentCount;
+    private final AtomicLong unchangedDocumentCount;
+    private final AtomicLong writeMillis;
+    private final AtomicLong slowestWriteMillis;
+
+    @Inject
+    DocumentWriter(
+        DocumentPathResolver documentPathResolver, DocumentWriteHandler documentWriteHandler)
+    {
+        this.documentPathResolver = documentPathResolver;
+        this.documentWriteHandler = documentWriteHandler;
+        this.writtenDocumentCount = new AtomicLong();
+        this.writtenByteCount = new AtomicLong();
+        this.skippedDocumentCount = new AtomicLong();
+        this.unchangedDocumentCount = new AtomicLong();
+        this.writeMillis = new AtomicLong();
+        this.slowestWriteMillis = new AtomicLong();
+    }
+
+    /// Writes all document updates to disk and waits for all writes to finish.
+    ///
+    /// @return The names of the documents that were written.
+    Set<String> writeAll(Collection<DocumentUpdate> documentUpdates)
+    {
+        if (documentUpdates.isEmpty())
+        {
+            return Set.of();
+        }
+        var writtenDocuments = ConcurrentHashMap.<String>newKeySet();
+        var permits = new Semaphore(MAXIMUM_CONCURRENT_WRITES);
+        var curatorName = MDC.get("curator");
+        var startTime = System.currentTimeMillis();
+        var startByteCount = writtenByteCount.get();
+        try (var executor = newVirtualThreadPerTaskExecutor())
+        {
+            for (var documentUpdate : documentUpdates)
+            {
+                executor.submit(() ->
+                {
+                    MDC.put("curator", curatorName);
+                    permits.acquireUninterruptibly();
+                    try
+                    {
+                        if (writeDocument(documentUpdate))
+                        {
+                            writtenDocuments.add(documentUpdate.document().name());
+                        }
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        var duration = System.currentTimeMillis() - startTime;
+        writeMillis.addAndGet(duration);
+        LOGGER.info("Wrote {} document(s), {} bytes, in {}ms.", writtenDocuments.size(),
+            writtenByteCount.get() - startByteCount, duration
+        );
+        return writtenDocuments;
+    }
+
+    private boolean writeDocument(DocumentUpdate documentUpdate)
+    {
+        var document = documentUpdate.document();
+        var newDocumentText = rewriteDocument(documentUpdate);
+        if (document.isStale())
+        {
+            LOGGER.warn("Document '{}' is stale. Skipping.", document);
+            skippedDocumentCount.incrementAndGet();
+            return false;
+        }
+        var newDocumentContent = newDocumentText.getBytes(UTF_8);
+        try
+        {
+            var startTime = System.currentTimeMillis();
+            var path = documentPathResolver.resolveAbsolutePath(document);
+            var attributes = readAttributes(path, BasicFileAttributes.class);
+            if (document.lastModified() != attributes.lastModifiedTime().toMillis())
+            {
+                LOGGER.warn("Document '{}' has changed on disk. Skipping.", document);
+                skippedDocumentCount.incrementAndGet();
+                return false;
+            }
+            if (attributes.size() == newDocumentContent.length
+                && Arrays.equals(readAllBytes(path), newDocumentContent))
+            {
+                LOGGER.debug("Document '{}' is unchanged on disk. Skipping.", document);
+                unchangedDocumentCount.incrementAndGet();
+                return false;
+            }
+            LOGGER.info("Rewriting document: '{}'.", document);
+            var newAttributes = writeAtomically(path, newDocumentContent, temporaryAttributes ->
+                documentWriteHandler.expectWrite(path, temporaryAttributes, newDocumentContent));
+            documentWriteHandler.documentWritten(
+                document, newDocumentText, newAttributes.lastModifiedTime().toMillis());
+            writtenDocumentCount.incrementAndGet();
+            writtenByteCount.addAndGet(newDocumentContent.length);
+            slowestWriteMillis.accumulateAndGet(System.currentTimeMillis() - startTime, Math::max);
+            return true;
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("Couldn't write document '{}' to disk.", document);
+            LOGGER.error(e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /// Replaces the content of the file at the path in a single rename. The temporary file gets
+    /// the same permissions and creation time as the original, where the file system supports
+    /// that.
+    ///
+    /// @param beforeReplace Called with the attributes of the temporary file right before the
+    ///                      rename. The rename keeps these attributes.
+    /// @return The attributes of the file after the rename.
+    static BasicFileAttributes writeAtomically(
+        Path path, byte[] content, Consumer<BasicFileAttributes> beforeReplace)
+        throws IOException
+    {
+        var temporaryFile = createTempFile(path.getParent(), "." + path.getFileName(), ".tmp");
+        try
+        {
+            try
+            {
+                setPosixFilePermissions(temporaryFile, getPosixFilePermissions(path));
+            }
+            catch (UnsupportedOperationException _)
+            {
+                // Not a POSIX file system; the file gets the default permissions.
+            }
+            write(temporaryFile, content, WRITE, DSYNC);
+            var creationTime = readAttributes(path, BasicFileAttributes.class).creationTime();
+            getFileAttributeView(temporaryFile, BasicFileAttributeView.class)
+                .setTimes(null, null, creationTime);
+            var attributes = readAttributes(temporaryFile, BasicFileAttributes.class);
+            beforeReplace.accept(attributes);
+            move(temporaryFile, path, ATOMIC_MOVE, REPLACE_EXISTING);
+            return attributes;
+        }
+        catch (IOException e)
+        {
+            deleteIfExists(temporaryFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public void collectMeasurements(MeasurementCollector collector)
+    {
+        collector.forModule("main")
+            .total("writer_documents_written", writtenDocumentCount.get())
+            .total("writer_documents_skipped", skippedDocumentCount.get())
+            .total("writer_documents_unchanged", unchangedDocumentCount.get())
+            .total("writer_bytes_written", writtenByteCount.get())
+            .total("writer_write_millis", writeMillis.get())
+            .total("writer_slowest_write_millis", slowestWriteMillis.get());
+    }
+}
@@ -27,6 +27,9 @@ import static nl.ulso.dictionary.Dictionary.mutableDictionary;
 ///
 /// The internal map is kept as small as possible. Dictionaries are created only on request and
 /// immediately removed when they're empty.
+///
+/// With parallel change processing, several change processors can update front matter at the same
+/// time. Access to the internal map is therefore synchronized.
 @Singleton
 final class FrontMatterRepository
     implements FrontMatterCollector, FrontMatterRewriteResolver, ChangeProcessor, MeasurementTracker
@@ -44,7 +47,7 @@ final class FrontMatterRepository
     }
 
     @Override
-    public Changelog apply(Changelog changelog)
+    public synchronized Changelog apply(Changelog changelog)
     {
         changelog.changes()
             .filter(change -> change.kind() == Change.Kind.DELETE)
@@ -55,7 +58,7 @@ final class FrontMatterRepository
     }
 
     @Override
-    public void reset()
+    public synchronized void reset()
     {
         documentFrontMatters.clear();
     }
@@ -67,7 +70,7 @@ final class FrontMatterRepository
     }
 
     @Override
-    public void updateFrontMatterFor(
+    public synchronized void updateFrontMatterFor(
         Document document, Consumer<MutableDictionary> dictionaryConsumer)
     {
         var documentName = document.name();
@@ -81,7 +84,7 @@ final class FrontMatterRepository
     }
 
     @Override
-    public Map<Document, Dictionary> resolveFrontMatterRewrites()
+    public synchronized Map<Document, Dictionary> resolveFrontMatterRewrites()
     {
         var finder = new FrontMatterRewriteFinder();
         vault.accept(finder);
@@ -178,7 +181,7 @@ final class FrontMatterRepository
     }
 
     @Override
-    public void collectMeasurements(MeasurementCollector collector)
+    public synchronized void collectMeasurements(MeasurementCollector collector)
     {
         collector.total("main", "frontmatter", documentFrontMatters.size());
     }
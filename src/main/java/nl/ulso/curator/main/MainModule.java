@@ -47,6 +47,14 @@ public abstract class MainModule
     @IntoSet
     abstract MeasurementTracker bindFrontMatterMeasurements(FrontMatterRepository frontMatterRepository);
 
+    @Binds
+    @IntoSet
+    abstract MeasurementTracker bindDebounceMeasurements(DebounceScheduler debounceScheduler);
+
+    @Binds
+    @IntoSet
+    abstract MeasurementTracker bindDocumentWriterMeasurements(DocumentWriter documentWriter);
+
     @Binds
     @IntoSet
     abstract Query bindChangeProcessorGraphQuery(ChangeProcessorGraphQuery changeProcessorGraphQuery);
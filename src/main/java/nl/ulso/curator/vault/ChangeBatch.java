@@ -0,0 +1,66 @@
+package nl.ulso.curator.vault;
+
+import nl.ulso.curator.change.Change;
+
+import java.util.*;
+
+import static nl.ulso.curator.change.Change.netEffect;
+
+/// Collects the changes to the vault that result from a burst of file system events, and compacts
+/// them into a single batch.
+///
+/// Renaming or moving a folder in Obsidian results in a delete for every document in it, followed
+/// by a create for every document in its new location. Since document names are unique within the
+/// vault, a delete and a create of a document with the same name are paired into a single update
+/// from the old to the new document: a move. In the same way, all changes to a single document in
+/// a batch are folded into one; see [Change#netEffect(Change, Change)].
+///
+/// The compacted change of a document takes the position of the last change to it in the batch, so
+/// that in a move the document is updated after the folder it moved to was created. Changes to
+/// folders are kept as they are.
+final class ChangeBatch
+    implements VaultChangedCallback
+{
+    private final List<Change<?>> changes;
+    private final Map<String, Integer> documentChangeIndex;
+
+    ChangeBatch()
+    {
+        changes = new ArrayList<>();
+        documentChangeIndex = new HashMap<>();
+    }
+
+    @Override
+    public void vaultChanged(Change<?> change)
+    {
+        if (!change.payloadType().equals(Document.class))
+        {
+            changes.add(change);
+            return;
+        }
+        var documentChange = change.as(Document.class);
+        var name = documentChange.value().name();
+        var index = documentChangeIndex.remove(name);
+        if (index != null)
+        {
+            var previousChange = changes.set(index, null).as(Document.class);
+            var netChange = netEffect(previousChange, documentChange);
+            if (netChange.isEmpty())
+            {
+                return;
+            }
+            documentChange = netChange.get();
+        }
+        documentChangeIndex.put(name, changes.size());
+        changes.add(documentChange);
+    }
+
+    /// @return All changes in the batch, compacted, in order; the batch is empty afterward.
+    List<Change<?>> drain()
+    {
+        var batch = changes.stream().filter(Objects::nonNull).toList();
+        changes.clear();
+        documentChangeIndex.clear();
+        return batch;
+    }
+}
@@ -19,8 +19,37 @@ public final class CodeBlock
 
     CodeBlock(List<String> lines)
     {
-        language = lines.getFirst().substring(CODE_MARKER.length());
-        code = join(lineSeparator(), lines.subList(1, lines.size() - 1));
+        this(
+            lines.getFirst().substring(CODE_MARKER.length()),
+            join(lineSeparator(), lines.subList(1, lines.size() - 1))
+        );
+    }
+
+    CodeBlock(DocumentText text, int startIndex, int endIndex)
+    {
+        this(
+            text.line(startIndex).substring(CODE_MARKER.length()),
+            text.joinedLines(startIndex + 1, endIndex - 1)
+        );
+    }
+
+    CodeBlock(String language, String code)
+    {
+        this.language = language;
+        this.code = code;
+    }
+
+    private CodeBlock(CodeBlock original)
+    {
+        super(original);
+        this.language = original.language;
+        this.code = original.code;
+    }
+
+    /// @return A copy of this code block, not part of any document yet, that shares its content.
+    CodeBlock copy()
+    {
+        return new CodeBlock(this);
     }
 
     public String toMarkdown()
@@ -5,7 +5,6 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 
-import static java.nio.file.Files.walkFileTree;
 import static nl.ulso.curator.change.Change.create;
 import static nl.ulso.curator.vault.FileSystemVault.folderName;
 import static nl.ulso.curator.vault.FileSystemVault.isHidden;
@@ -35,10 +34,7 @@ final class DirectoryCreatedEventHandler
         callback.vaultChanged(create(folder, Folder.class));
         try
         {
-            walkFileTree(
-                eventAbsolutePath,
-                new FileSystemVault.VaultBuilder(folder, eventAbsolutePath, callback)
-            );
+            new FileSystemVault.VaultBuilder(folder, eventAbsolutePath, callback).build();
         }
         catch (IOException e)
         {
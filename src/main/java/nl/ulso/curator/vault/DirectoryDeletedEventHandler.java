@@ -36,12 +36,13 @@ final class DirectoryDeletedEventHandler
         });
     }
 
-    private static class RecursiveFolderDeleter
+    /// Produces a DELETE change for every document and folder in a folder, including itself.
+    static class RecursiveFolderDeleter
         extends BreadthFirstVaultVisitor
     {
         private final VaultChangedCallback vaultChangedCallback;
 
-        private RecursiveFolderDeleter(VaultChangedCallback callback)
+        RecursiveFolderDeleter(VaultChangedCallback callback)
         {
             vaultChangedCallback = callback;
         }
@@ -15,21 +15,24 @@ import static nl.ulso.emoji.EmojiStripper.stripEmojisFrom;
 /// A [Document] is an immutable representation of a Markdown document on disk. That means that when
 /// changes in the vault are detected, the corresponding [Document]s are replaced with new
 /// instances. Therefore, it is not safe to store [Document]s in long-term program state.
+///
+/// In bounded memory mode, the text of a document can be evicted from memory, and read from disk
+/// again when needed; see [TextEviction]. If the document changed on disk in the meantime, that is
+/// no longer possible: the document is then stale. The vault replaces it with a new version soon.
 public final class Document
     extends FragmentContainer
 {
     private Folder folder;
     private final String name;
-    private final String title;
-    private final String sortableTitle;
     private final long lastModified;
+    private volatile String title;
+    private volatile String sortableTitle;
+    private volatile boolean stale;
 
     Document(String name, long lastModified, List<Fragment> fragments)
     {
         super(fragments);
         this.name = name;
-        this.title = resolveTitle(name, fragments);
-        this.sortableTitle = stripEmojisFrom(title).trim();
         this.lastModified = lastModified;
     }
 
@@ -64,8 +67,11 @@ public final class Document
         return Objects.hash(name, lastModified, fragments());
     }
 
-    private String resolveTitle(String name, List<Fragment> fragments)
+    /// Resolving the title may require the front matter, which is parsed lazily. Therefore, the title
+    /// is resolved lazily as well. Resolving it more than once, from different threads, is harmless.
+    private String resolveTitle()
     {
+        var fragments = fragments();
         if (fragments.size() > 1
             && fragments.get(1) instanceof Section section
             && section.level() == 1)
@@ -78,7 +84,36 @@ public final class Document
 
     static Document newDocument(String name, long lastModified, List<String> lines)
     {
-        return new DocumentParser(name, lastModified, lines).parse();
+        return newDocument(name, lastModified, DocumentText.of(lines));
+    }
+
+    static Document newDocument(String name, long lastModified, DocumentText text)
+    {
+        return newDocument(name, lastModified, text, StringPool.NONE);
+    }
+
+    static Document newDocument(
+        String name, long lastModified, DocumentText text, StringPool stringPool)
+    {
+        return new DocumentParser(stringPool.intern(name), lastModified, text,
+            new FragmentFactory(stringPool)
+        ).parse();
+    }
+
+    static Document updatedDocument(Document previousVersion, long lastModified, DocumentText text)
+    {
+        return updatedDocument(previousVersion, lastModified, text, StringPool.NONE);
+    }
+
+    /// Parses a new version of an existing document. All fragments that didn't change are copied
+    /// from the previous version, sharing their content; see [FragmentFactory]. The previous
+    /// version itself is not changed.
+    static Document updatedDocument(
+        Document previousVersion, long lastModified, DocumentText text, StringPool stringPool)
+    {
+        return new DocumentParser(previousVersion.name(), lastModified, text,
+            new FragmentFactory(previousVersion, stringPool)
+        ).parse();
     }
 
     public Folder folder()
@@ -93,12 +128,24 @@ public final class Document
 
     public String title()
     {
-        return title;
+        var result = title;
+        if (result == null)
+        {
+            result = resolveTitle();
+            title = result;
+        }
+        return result;
     }
 
     public String sortableTitle()
     {
-        return sortableTitle;
+        var result = sortableTitle;
+        if (result == null)
+        {
+            result = stripEmojisFrom(title()).trim();
+            sortableTitle = result;
+        }
+        return result;
     }
 
     public long lastModified()
@@ -106,6 +153,18 @@ public final class Document
         return lastModified;
     }
 
+    /// @return `true` if text of this document was evicted from memory and could not be read from
+    /// disk again, because the document changed on disk; its text is then incomplete.
+    public boolean isStale()
+    {
+        return stale;
+    }
+
+    void markStale()
+    {
+        stale = true;
+    }
+
     public void accept(VaultVisitor visitor)
     {
         visitor.visit(this);
@@ -1,19 +1,22 @@
 package nl.ulso.curator.vault;
 
-import nl.ulso.curator.vault.MarkdownTokenizer.HeaderLineToken;
 import nl.ulso.curator.vault.MarkdownTokenizer.TokenType;
 
 import java.util.*;
 
 import static java.util.Collections.emptyList;
+import static nl.ulso.curator.vault.MarkdownTokenizer.MAXIMUM_HEADER_LEVEL;
 import static nl.ulso.curator.vault.MarkdownTokenizer.TokenStatus.END;
 import static nl.ulso.curator.vault.MarkdownTokenizer.TokenStatus.START;
 import static nl.ulso.curator.vault.MarkdownTokenizer.TokenType.END_OF_DOCUMENT;
 import static nl.ulso.curator.vault.MarkdownTokenizer.TokenType.HEADER;
+import static nl.ulso.curator.vault.MarkdownTokenizer.headerLevel;
+import static nl.ulso.curator.vault.MarkdownTokenizer.tokenStatus;
+import static nl.ulso.curator.vault.MarkdownTokenizer.tokenType;
 
-/// Parses a list of [String]s into a [Document]. This is **not** a full parser for Markdown, nor is
-/// it ever intended to be. Markdown documents are only broken down in high-level parts (or:
-/// fragments). The contents of the fragments are still plain text (Markdown).
+/// Parses the [DocumentText] of a document into a [Document]. This is **not** a full parser for
+/// Markdown, nor is it ever intended to be. Markdown documents are only broken down in high-level
+/// parts (or: fragments). The contents of the fragments are still plain text (Markdown).
 ///
 /// The parser is a bit complicated because the document is turned into a tree of sections of
 /// varying levels. Because the document object model is immutable, a section can only a constructed
@@ -22,54 +25,79 @@ import static nl.ulso.curator.vault.MarkdownTokenizer.TokenType.HEADER;
 /// The parser also tries to protect against accidents. Front matter, code blocks and queries need
 /// to be closed with a specific marker. If this marker is missing, the parser treats the block as
 /// text. In case of doubt, that's the safest bet.
+///
+/// The parser works on line indexes; each fragment gets its content from a single range of lines in
+/// the text, taken in one go. It reads the tokens produced by [MarkdownTokenizer#tokenize()]
+/// directly from the packed array. The stack of open headers is kept as line indexes.
+///
+/// All fragments are created through a [FragmentFactory]. When parsing a new version of an existing
+/// document, that factory reuses the fragments that didn't change.
 final class DocumentParser
 {
     private final String name;
     private final long lastModified;
-    private final List<String> lines;
+    private final DocumentText text;
+    private final FragmentFactory fragmentFactory;
     private final Map<Integer, List<Fragment>> fragments;
-    private final Deque<HeaderLineToken> headers;
+    private final int[] headers;
+    private int headerCount;
+    private int queryCount;
 
     public DocumentParser(String name, long lastModified, List<String> lines)
+    {
+        this(name, lastModified, DocumentText.of(lines));
+    }
+
+    DocumentParser(String name, long lastModified, DocumentText text)
+    {
+        this(name, lastModified, text, new FragmentFactory());
+    }
+
+    DocumentParser(
+        String name, long lastModified, DocumentText text, FragmentFactory fragmentFactory)
     {
         this.name = name;
         this.lastModified = lastModified;
-        this.lines = lines;
+        this.text = text;
+        this.fragmentFactory = fragmentFactory;
         this.fragments = new HashMap<>();
-        this.headers = new ArrayDeque<>();
+        this.headers = new int[MAXIMUM_HEADER_LEVEL];
     }
 
     Document parse()
     {
         fragments.clear();
         fragments.put(0, new ArrayList<>());
-        headers.clear();
+        headerCount = 0;
+        queryCount = 0;
         var level = 0;
         var startIndex = 0;
-        for (var token : new MarkdownTokenizer(lines))
+        var tokenizer = new MarkdownTokenizer(text);
+        var tokens = tokenizer.tokenize();
+        for (var lineIndex = 0; lineIndex < tokens.length; lineIndex++)
         {
-            var type = token.tokenType();
-            var status = token.tokenStatus();
-            var lineIndex = token.lineIndex();
+            var token = tokens[lineIndex];
+            var type = tokenType(token);
+            var status = tokenStatus(token);
             if (type == HEADER)
             {
                 processText(level, startIndex, lineIndex);
-                var header = (HeaderLineToken) token;
-                while (header.level() <= level)
+                var headerLevel = headerLevel(token);
+                while (headerLevel <= level)
                 {
-                    level = processSection();
+                    level = processSection(tokenizer, tokens);
                 }
-                level = header.level();
+                level = headerLevel;
                 fragments.put(level, new ArrayList<>());
-                headers.push(header);
+                headers[headerCount++] = lineIndex;
                 startIndex = lineIndex + 1;
             }
             else if (type == END_OF_DOCUMENT)
             {
                 processText(level, startIndex, lineIndex);
-                while (!headers.isEmpty())
+                while (headerCount > 0)
                 {
-                    processSection();
+                    processSection(tokenizer, tokens);
                 }
                 ensureFrontMatterIsPresent();
             }
@@ -89,12 +117,14 @@ final class DocumentParser
         return document;
     }
 
-    private int processSection()
+    private int processSection(MarkdownTokenizer tokenizer, int[] tokens)
     {
-        var header = headers.pop();
-        var previousLevel = headers.isEmpty() ? 0 : headers.peek().level();
+        var lineIndex = headers[--headerCount];
+        var level = headerLevel(tokens[lineIndex]);
+        var previousLevel = headerCount == 0 ? 0 : headerLevel(tokens[headers[headerCount - 1]]);
         fragments.get(previousLevel).add(
-            new Section(header.level(), header.title(), fragments.get(header.level())));
+            fragmentFactory.section(
+                level, tokenizer.headerTitle(lineIndex, level), fragments.get(level)));
         return previousLevel;
     }
 
@@ -102,18 +132,18 @@ final class DocumentParser
     {
         if (startIndex < endIndex)
         {
-            fragments.get(level).add(new TextBlock(lines.subList(startIndex, endIndex)));
+            fragments.get(level).add(fragmentFactory.textBlock(text, startIndex, endIndex));
         }
     }
 
     private void processFragment(int level, TokenType type, int startIndex, int endIndex)
     {
-        var subList = lines.subList(startIndex, endIndex);
         var fragment = switch (type)
         {
-            case FRONT_MATTER -> new FrontMatter(subList);
-            case CODE -> new CodeBlock(subList);
-            case QUERY -> new QueryBlock(subList);
+            case FRONT_MATTER -> fragmentFactory.frontMatter(text, startIndex, endIndex);
+            case CODE -> fragmentFactory.codeBlock(text, startIndex, endIndex);
+            case QUERY ->
+                fragmentFactory.queryBlock(text, startIndex, endIndex, name, queryCount++);
             default -> throw new IllegalStateException("Unsupported type " + type);
         };
         fragments.get(level).add(fragment);
@@ -128,7 +158,7 @@ final class DocumentParser
         }
     }
 
-    private void updateInternalReferences(Document document)
+    static void updateInternalReferences(Document document)
     {
         var visitor = new BreadthFirstVaultVisitor()
         {
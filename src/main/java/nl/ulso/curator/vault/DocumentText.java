@@ -0,0 +1,190 @@
+package nl.ulso.curator.vault;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.System.lineSeparator;
+
+/// The complete text of a document in a single [String], with an index on the start of each line.
+///
+/// Lines in the text are always separated by the platform's line separator, and the last line is
+/// always terminated by it too, no matter the line separators in the original content. That makes
+/// the text of any range of lines equal to what joining these lines with the line separator would
+/// have produced, without having to create a string for every line first.
+///
+/// The [MarkdownTokenizer] and the [DocumentParser] work on line indexes only. The parser creates
+/// each fragment from a single range of the text.
+final class DocumentText
+{
+    private static final String LINE_SEPARATOR = lineSeparator();
+    private static final int LINE_SEPARATOR_LENGTH = LINE_SEPARATOR.length();
+    private static final int INITIAL_INDEX_SIZE = 64;
+
+    private final String text;
+    private final int[] lineStarts;
+    private final int lineCount;
+
+    private DocumentText(String text, int[] lineStarts, int lineCount)
+    {
+        this.text = text;
+        this.lineStarts = lineStarts;
+        this.lineCount = lineCount;
+    }
+
+    /// Creates the text of a document from the raw content of a file. Like
+    /// [java.io.BufferedReader#readLine()], lines can be terminated by `\n`, `\r` or `\r\n`.
+    static DocumentText of(String content)
+    {
+        if (content.isEmpty())
+        {
+            return new DocumentText("", new int[] {0}, 0);
+        }
+        var text = normalizeLineSeparators(content);
+        var lineStarts = new int[INITIAL_INDEX_SIZE];
+        var count = 0;
+        var start = 0;
+        var length = text.length();
+        while (start < length)
+        {
+            if (count + 1 == lineStarts.length)
+            {
+                lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+            }
+            lineStarts[count++] = start;
+            start = text.indexOf(LINE_SEPARATOR, start) + LINE_SEPARATOR_LENGTH;
+        }
+        lineStarts[count] = length;
+        return new DocumentText(text, lineStarts, count);
+    }
+
+    /// Creates the text of a document from a list of lines that do not contain line separators.
+    static DocumentText of(List<String> lines)
+    {
+        if (lines.isEmpty())
+        {
+            return of("");
+        }
+        return of(String.join(LINE_SEPARATOR, lines) + LINE_SEPARATOR);
+    }
+
+    private static String normalizeLineSeparators(String content)
+    {
+        var length = content.length();
+        if (content.indexOf('\r') == -1 && LINE_SEPARATOR.equals("\n"))
+        {
+            return content.charAt(length - 1) == '\n' ? content : content + LINE_SEPARATOR;
+        }
+        var builder = new StringBuilder(length + LINE_SEPARATOR_LENGTH);
+        var start = 0;
+        for (var i = 0; i < length; i++)
+        {
+            var c = content.charAt(i);
+            if (c == '\n' || c == '\r')
+            {
+                builder.append(content, start, i).append(LINE_SEPARATOR);
+                if (c == '\r' && i + 1 < length && content.charAt(i + 1) == '\n')
+                {
+                    i++;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < length)
+        {
+            builder.append(content, start, length).append(LINE_SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    int lineCount()
+    {
+        return lineCount;
+    }
+
+    /// @return The line at the given index, without its line separator.
+    String line(int index)
+    {
+        return text.substring(lineStart(index), lineEnd(index));
+    }
+
+    int lineStart(int index)
+    {
+        return lineStarts[index];
+    }
+
+    /// @return The offset of the line separator that ends the line at the given index.
+    int lineEnd(int index)
+    {
+        return lineStarts[index + 1] - LINE_SEPARATOR_LENGTH;
+    }
+
+    int lineLength(int index)
+    {
+        return lineEnd(index) - lineStart(index);
+    }
+
+    boolean lineEquals(int index, String string)
+    {
+        return lineLength(index) == string.length() && lineStartsWith(index, string);
+    }
+
+    boolean lineStartsWith(int index, String prefix)
+    {
+        return lineLength(index) >= prefix.length()
+               && text.startsWith(prefix, lineStart(index));
+    }
+
+    boolean lineEndsWith(int index, String suffix)
+    {
+        var length = suffix.length();
+        return lineLength(index) >= length
+               && text.startsWith(suffix, lineEnd(index) - length);
+    }
+
+    /// @return The lines in the range `[from, to)`, each terminated by the line separator, or an
+    /// empty string if the range is empty.
+    String lines(int from, int to)
+    {
+        if (from >= to)
+        {
+            return "";
+        }
+        return text.substring(lineStart(from), lineStarts[to]);
+    }
+
+    /// @return The lines in the range `[from, to)`, joined with the line separator, or an empty
+    /// string if the range is empty. This is the same as [#lines(int, int)], minus the last line
+    /// separator.
+    String joinedLines(int from, int to)
+    {
+        if (from >= to)
+        {
+            return "";
+        }
+        return text.substring(lineStart(from), lineEnd(to - 1));
+    }
+
+    /// @return The hash code of the text between the given offsets; this is exactly the same as
+    /// the hash code of a string with that text, without creating that string.
+    int hashCode(int startOffset, int endOffset)
+    {
+        var hash = 0;
+        for (var i = startOffset; i < endOffset; i++)
+        {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    /// @return `true` if the text between the given offsets is equal to the given string.
+    boolean regionEquals(int startOffset, int endOffset, String string)
+    {
+        return endOffset - startOffset == string.length() && text.startsWith(string, startOffset);
+    }
+
+    /// @return The complete text; use with care, as the offsets in it are shared with the index.
+    String text()
+    {
+        return text;
+    }
+}
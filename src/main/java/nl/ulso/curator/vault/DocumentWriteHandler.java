@@ -0,0 +1,27 @@
+package nl.ulso.curator.vault;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/// Lets the [Vault] take over the documents that the curator writes to disk itself.
+///
+/// After the curator rewrites a document, the directory watcher reports that it changed on disk.
+/// The vault would then read the document back, parse it, and report the change, even though the
+/// curator knows exactly what it wrote. Instead, the curator tells the vault about the write right
+/// before it happens, and hands over the content it wrote afterward. The vault then drops the
+/// change event of the write, without reading anything from disk.
+public interface DocumentWriteHandler
+{
+    /// Registers an upcoming write of a document, so that its change event can be recognized.
+    ///
+    /// @param path       The absolute path of the document.
+    /// @param attributes The attributes the file will have after the write, typically those of the
+    ///                   temporary file that replaces the document with a rename.
+    /// @param content    The new content of the document.
+    void expectWrite(Path path, BasicFileAttributes attributes, byte[] content);
+
+    /// Installs a new version of the document in the vault, parsed from the content that was just
+    /// written to disk. If the document was removed in the meantime, or replaced with a version
+    /// that is at least as recent as the write, nothing happens.
+    void documentWritten(Document document, String content, long lastModified);
+}
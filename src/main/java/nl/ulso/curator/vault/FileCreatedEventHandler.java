@@ -4,14 +4,20 @@ import io.methvin.watcher.DirectoryChangeEvent;
 import org.slf4j.Logger;
 
 import static nl.ulso.curator.change.Change.create;
+import static nl.ulso.curator.vault.FileSystemVault.documentName;
 import static nl.ulso.curator.vault.FileSystemVault.newDocumentFromAbsolutePath;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /// Handles file creation events and applies them to a [FileSystemFolder].
+///
+/// Replacing a document with a rename, like atomic writes do, can be reported as the creation of
+/// a document that already exists. That is handled as a modification instead.
 final class FileCreatedEventHandler
     implements DirectoryChangeEventHandler
 {
     private static final Logger LOGGER = getLogger(FileCreatedEventHandler.class);
+    private static final DirectoryChangeEventHandler MODIFIED_HANDLER =
+        new FileModifiedEventHandler();
 
     @Override
     public void handle(
@@ -19,7 +25,12 @@ final class FileCreatedEventHandler
         VaultChangedCallback callback)
     {
         var eventAbsolutePath = event.path();
-        var document = newDocumentFromAbsolutePath(eventAbsolutePath);
+        if (parent.document(documentName(eventAbsolutePath)).isPresent())
+        {
+            MODIFIED_HANDLER.handle(event, parent, callback);
+            return;
+        }
+        var document = newDocumentFromAbsolutePath(eventAbsolutePath, parent.stringPool());
         LOGGER.trace("Detected new document '{}'.", document);
         parent.addDocument(document);
         callback.vaultChanged(create(document, Document.class));
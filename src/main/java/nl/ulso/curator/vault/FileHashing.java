@@ -0,0 +1,101 @@
+package nl.ulso.curator.vault;
+
+import io.methvin.watcher.hashing.FileHash;
+import io.methvin.watcher.hashing.FileHasher;
+import io.methvin.watcher.hashing.Murmur3F;
+
+import java.nio.ByteBuffer;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static io.methvin.watcher.hashing.FileHasher.DEFAULT_FILE_HASHER;
+
+/// How the directory watcher of the [Vault] detects that a file has changed.
+///
+/// The watcher computes a hash for every file in the vault when it starts, and for every file it
+/// gets an event for after that. It ignores events for files whose hash didn't change.
+public enum FileHashing
+{
+    /// [#LAST_MODIFIED_TIME] on macOS, [#CONTENT] on all other platforms.
+    PLATFORM_DEFAULT,
+
+    /// Hashes the complete content of each file. This always works, but it means that the complete
+    /// vault is read from disk when the watcher starts, on top of reading it to load the vault.
+    CONTENT,
+
+    /// Uses the time of last modification of a file only. This is only suitable for platforms that
+    /// have at least millisecond precision in last modified times from Java, like macOS with APFS.
+    LAST_MODIFIED_TIME,
+
+    /// Uses the time of last modification and the size of a file. The content of a file is hashed
+    /// as well if it was modified so recently that another change might not be visible in its time
+    /// of last modification and size. See [FingerprintFileHasher].
+    FINGERPRINT;
+
+    private static final FingerprintFileHasher FINGERPRINT_FILE_HASHER =
+        new FingerprintFileHasher();
+
+    FileHasher fileHasher()
+    {
+        return switch (this)
+        {
+            case PLATFORM_DEFAULT -> platformDefault().fileHasher();
+            case CONTENT -> DEFAULT_FILE_HASHER;
+            case LAST_MODIFIED_TIME -> FileHasher.LAST_MODIFIED_TIME;
+            case FINGERPRINT -> FINGERPRINT_FILE_HASHER;
+        };
+    }
+
+    /// Computes the same hash as the [#fileHasher()], from the attributes and content of a file
+    /// that were already read.
+    ///
+    /// @param content The content of the file, or `null` if it wasn't read.
+    /// @return The hash, or `null` if the content is needed but not available.
+    FileHash hash(BasicFileAttributes attributes, byte[] content)
+    {
+        return switch (this)
+        {
+            case PLATFORM_DEFAULT -> platformDefault().hash(attributes, content);
+            case CONTENT -> content != null ? contentHash(content) : null;
+            case LAST_MODIFIED_TIME ->
+            {
+                var lastModified = attributes.lastModifiedTime().toInstant();
+                yield FileHash.fromBytes(ByteBuffer.allocate(2 * Long.BYTES)
+                    .putLong(lastModified.getEpochSecond())
+                    .putLong(lastModified.getNano())
+                    .array());
+            }
+            case FINGERPRINT -> FINGERPRINT_FILE_HASHER.hash(attributes, content);
+        };
+    }
+
+    /// Strips the part of a hash that depends on when the file was hashed, so that hashes of the
+    /// same version of a file, computed at different times, are equal. Only [#FINGERPRINT] hashes
+    /// have such a part: the hash of the content of a file that was modified very recently.
+    FileHash stableHash(FileHash hash)
+    {
+        return switch (this)
+        {
+            case PLATFORM_DEFAULT -> platformDefault().stableHash(hash);
+            case CONTENT, LAST_MODIFIED_TIME -> hash;
+            case FINGERPRINT -> FingerprintFileHasher.withoutContentHash(hash);
+        };
+    }
+
+    private static FileHashing platformDefault()
+    {
+        // On macOS, use a faster hasher, based on file timestamps instead of contents.
+        // From the README on https://github.com/gmethvin/directory-watcher:
+        // "This hasher is only suitable for platforms that have at least millisecond precision
+        // in last modified times from Java. It's known to work with JDK 10+ on Macs with APFS."
+        return System.getProperty("os.name").contains("Mac OS X") ? LAST_MODIFIED_TIME : CONTENT;
+    }
+
+    /// @return The same hash as the [FileHasher#DEFAULT_FILE_HASHER] computes for a file with the
+    /// given content.
+    static FileHash contentHash(byte[] content)
+    {
+        var murmur = new Murmur3F();
+        murmur.update(content);
+        return FileHash.fromBytes(murmur.getValueBytesBigEndian());
+    }
+}
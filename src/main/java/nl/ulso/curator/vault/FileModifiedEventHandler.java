@@ -4,10 +4,15 @@ import io.methvin.watcher.DirectoryChangeEvent;
 import org.slf4j.Logger;
 
 import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.vault.FileSystemVault.documentName;
 import static nl.ulso.curator.vault.FileSystemVault.newDocumentFromAbsolutePath;
+import static nl.ulso.curator.vault.FileSystemVault.updatedDocumentFromAbsolutePath;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /// Handles file modification events and applies them to a [FileSystemFolder].
+///
+/// The new version of the document takes over all fragments that didn't change from the previous
+/// version.
 final class FileModifiedEventHandler
     implements DirectoryChangeEventHandler
 {
@@ -19,7 +24,10 @@ final class FileModifiedEventHandler
         VaultChangedCallback callback)
     {
         var eventAbsolutePath = event.path();
-        var newDocument = newDocumentFromAbsolutePath(eventAbsolutePath);
+        var newDocument = parent.document(documentName(eventAbsolutePath))
+            .map(previousVersion -> updatedDocumentFromAbsolutePath(
+                eventAbsolutePath, previousVersion, parent.stringPool()))
+            .orElseGet(() -> newDocumentFromAbsolutePath(eventAbsolutePath, parent.stringPool()));
         LOGGER.trace("Detected changes to document '{}'.", newDocument);
         var oldDocument = parent.addDocument(newDocument);
         callback.vaultChanged(update(oldDocument, newDocument, Document.class));
@@ -1,6 +1,7 @@
 package nl.ulso.curator.vault;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Collections.unmodifiableCollection;
 
@@ -10,6 +11,11 @@ import static java.util.Collections.unmodifiableCollection;
 /// within this package - it's mutable so that the [Vault] can apply changes it detects
 /// on disk.
 ///
+/// The vault applies these changes on the thread of its directory watcher, while other threads
+/// may be reading the folder, for example to run queries. That's why the folders and documents are
+/// kept in concurrent maps. Iterating over them never fails, but it may or may not see changes
+/// that are applied at the same time.
+///
 public class FileSystemFolder
         implements Folder
 {
@@ -17,6 +23,7 @@ public class FileSystemFolder
     private final String name;
     private final Map<String, Folder> folders;
     private final Map<String, Document> documents;
+    private final StringPool stringPool;
 
     /// Construct a new Folder with the specified name; this is always a **root**
     /// folder; it cannot be added to another folder as a subfolder.
@@ -24,15 +31,23 @@ public class FileSystemFolder
     /// To add subfolders to a folder, use [#addFolder(String)].
     FileSystemFolder(String name)
     {
-        this(null, name);
+        this(name, StringPool.NONE);
+    }
+
+    /// Construct a new root folder whose subfolders, and the documents in them, share the given
+    /// [StringPool].
+    FileSystemFolder(String name, StringPool stringPool)
+    {
+        this(null, name, stringPool);
     }
 
-    private FileSystemFolder(FileSystemFolder parent, String name)
+    private FileSystemFolder(FileSystemFolder parent, String name, StringPool stringPool)
     {
         this.parent = parent;
         this.name = name;
-        this.folders = new HashMap<>();
-        this.documents = new HashMap<>();
+        this.folders = new ConcurrentHashMap<>();
+        this.documents = new ConcurrentHashMap<>();
+        this.stringPool = stringPool;
     }
 
     @Override
@@ -117,11 +132,17 @@ public class FileSystemFolder
      */
     FileSystemFolder addFolder(String name)
     {
-        var folder = new FileSystemFolder(this, name);
+        var folder = new FileSystemFolder(this, stringPool.intern(name), stringPool);
         folders.put(folder.name(), folder);
         return folder;
     }
 
+    /// @return The pool to deduplicate the strings of the documents in this folder with.
+    StringPool stringPool()
+    {
+        return stringPool;
+    }
+
     void removeFolder(String name)
     {
         folders.remove(name);
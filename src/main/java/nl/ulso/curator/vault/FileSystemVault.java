@@ -1,36 +1,47 @@
 package nl.ulso.curator.vault;
 
 import io.methvin.watcher.DirectoryChangeEvent;
+import io.methvin.watcher.DirectoryChangeListener;
 import io.methvin.watcher.DirectoryWatcher;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import nl.ulso.curator.change.Change;
 import nl.ulso.curator.change.ExternalChangeHandler;
+import nl.ulso.curator.change.Reset;
 import nl.ulso.curator.statistics.MeasurementCollector;
 import nl.ulso.curator.statistics.MeasurementTracker;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
-import static io.methvin.watcher.hashing.FileHasher.DEFAULT_FILE_HASHER;
-import static io.methvin.watcher.hashing.FileHasher.LAST_MODIFIED_TIME;
+import static io.methvin.watcher.DirectoryChangeEvent.EventType.DELETE;
 import static java.lang.Runtime.getRuntime;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.getLastModifiedTime;
-import static java.nio.file.Files.readAllLines;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.readString;
 import static java.nio.file.Files.walkFileTree;
 import static java.text.Normalizer.Form.NFC;
 import static java.text.Normalizer.normalize;
 import static java.util.Collections.reverse;
+import static java.util.Comparator.comparingInt;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
 import static nl.ulso.curator.change.Change.create;
 import static nl.ulso.curator.vault.DirectoryChangeEventHandler.DIRECTORY_CHANGE_EVENT_HANDLERS;
 import static nl.ulso.curator.vault.DirectoryChangeEventHandler.FileSystemItemType;
 import static nl.ulso.curator.vault.Document.newDocument;
+import static nl.ulso.curator.vault.Document.updatedDocument;
 import static nl.ulso.curator.vault.ElementCounter.countFoldersAndDocuments;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.slf4j.MDC.getCopyOfContextMap;
@@ -38,42 +49,82 @@ import static org.slf4j.MDC.getCopyOfContextMap;
 /// [Vault] implementation on top of the (default) filesystem.
 ///
 /// On creation, it uses a [FileVisitor] to process all folders and documents and pull them in
-/// memory. From then on it watches all folders and subfolders for changes using the file system's
-/// [WatchService].
+/// memory. From then on it watches all non-hidden folders for changes using the file system's
+/// [WatchService]. To start watching, it reuses what was read from disk while loading the
+/// vault, instead of walking the file tree again; see [VaultScan]. Changes from the events that the
+/// watcher reports in a single burst are delivered together, in a compacted [ChangeBatch].
+/// Bursts with more events than the threshold in the [VaultSettings], like after a `git pull`,
+/// are handled in bulk mode: the affected folders are synchronized with disk once the burst is
+/// over, instead of handling each event; see [FolderSynchronizer].
+///
+/// Documents written by the curator itself are installed from the content it wrote; the change
+/// events of these writes are recognized by the path and hash of the file and dropped before they
+/// result in a change. See [DocumentWriteHandler] and [SelfWriteRegistry].
+///
+/// How the vault is loaded can be tweaked with [VaultSettings]. For example, documents can be read
+/// and parsed in parallel, which speeds up loading large vaults considerably. Also, a
+/// [VaultSnapshot] can be saved on shutdown, so that the next start only needs to read and parse
+/// the documents that changed in the meantime. And in bounded memory mode, the text of cold
+/// documents can be evicted from memory; see [TextEviction].
+///
+/// All folders and documents in the vault share a single [StringPool].
 @Singleton
 final class FileSystemVault
     extends FileSystemFolder
-    implements Vault, DocumentPathResolver, ExternalChangeHandler, MeasurementTracker
+    implements Vault, DocumentPathResolver, DocumentWriteHandler, ExternalChangeHandler,
+               MeasurementTracker
 {
     private static final Logger LOGGER = getLogger(FileSystemVault.class);
 
     private final Path absolutePath;
+    private final VaultSettings settings;
+    private final StringPool stringPool;
+    private final TextEviction textEviction;
     private final DirectoryWatcher watcher;
+    private final ChangeBatch changeBatch;
+    private final Set<Path> bulkChangeDirectories;
+    private final SelfWriteRegistry selfWriteRegistry;
+    private int burstEventCount;
     private VaultChangedCallback callback;
 
     @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     @Inject
-    public FileSystemVault(Path absolutePath, Optional<WatchService> watchService)
+    public FileSystemVault(
+        Path absolutePath, Optional<WatchService> watchService, Optional<VaultSettings> settings,
+        StringPool stringPool)
     {
-        super(absolutePath.toString());
+        super(absolutePath.toString(), stringPool);
         this.callback = _ -> {}; // By default, do nothing.
         this.absolutePath = absolutePath;
-        var builder = new VaultBuilder(this, absolutePath);
+        this.settings = settings.orElse(VaultSettings.DEFAULT);
+        this.stringPool = stringPool;
+        this.textEviction = TextEviction.forSettings(this.settings);
+        this.changeBatch = new ChangeBatch();
+        this.bulkChangeDirectories = new HashSet<>();
+        this.selfWriteRegistry = new SelfWriteRegistry();
         try
         {
-            walkFileTree(absolutePath, builder);
-            // On macOS, use a faster hasher, based on file timestamps instead of contents.
-            // From the README on https://github.com/gmethvin/directory-watcher:
-            // "This hasher is only suitable for platforms that have at least millisecond precision
-            // in last modified times from Java. It's known to work with JDK 10+ on Macs with APFS."
-            var fileHasher = System.getProperty("os.name").contains("Mac OS X")
-                             ? LAST_MODIFIED_TIME
-                             : DEFAULT_FILE_HASHER;
+            var scan = new VaultScan(absolutePath, this.settings.fileHashing());
+            loadVault(scan);
             this.watcher = DirectoryWatcher.builder()
                 .path(absolutePath)
-                .listener(this::processFileSystemEvent)
+                .listener(new DirectoryChangeListener()
+                {
+                    @Override
+                    public void onEvent(DirectoryChangeEvent event)
+                    {
+                        processFileSystemEvent(event);
+                    }
+
+                    @Override
+                    public void onIdle(int count)
+                    {
+                        deliverChangeBatch();
+                    }
+                })
                 .watchService(watchService.orElse(null))
-                .fileHasher(fileHasher)
+                .fileHasher(scan)
+                .fileTreeVisitor(scan)
                 .build();
         }
         catch (IOException e)
@@ -91,7 +142,7 @@ final class FileSystemVault
         // On macOS, this results in a native, non-polling service. Nice and fast.
         // However, this service doesn't work with the JimFS filesystem, used in tests.
         // That's why there's a constructor for an "optional" WatchService.
-        this(absolutePath, empty());
+        this(absolutePath, empty(), empty(), new StringPool());
     }
 
     public Path root()
@@ -142,21 +193,25 @@ final class FileSystemVault
                 {
                     LOGGER.debug("Failed to close directory watcher: {}.", e.getMessage());
                 }
+                settings.snapshotFile().ifPresent(file -> VaultSnapshot.save(file, this));
             })
         );
         LOGGER.info("Watching '{}' for changes.", absolutePath);
         watcher.watch();
     }
 
+    /// Reloads the vault from disk, in a single walk over the file tree. Unlike at startup, there's
+    /// no [VaultScan] to share with the directory watcher: the watcher is already running. It
+    /// doesn't walk the file tree again; it keeps its baseline of file hashes up to date from the
+    /// events it reports, and it doesn't allow that baseline to be replaced from the outside.
     @Override
     public void reload()
     {
         LOGGER.info("Reloading the complete vault from '{}'.", absolutePath);
         clearAll();
-        var builder = new VaultBuilder(this, absolutePath);
         try
         {
-            walkFileTree(absolutePath, builder);
+            loadVault(VaultScan.NONE);
         }
         catch (IOException e)
         {
@@ -167,6 +222,36 @@ final class FileSystemVault
         logStatistics();
     }
 
+    /// Loads all folders and documents from disk into memory, either sequentially or in parallel,
+    /// and with or without a snapshot, depending on the [VaultSettings]. What is read from disk is
+    /// recorded in the [VaultScan], for the directory watcher.
+    private void loadVault(VaultScan scan)
+        throws IOException
+    {
+        var snapshot = settings.snapshotFile()
+            .map(file -> VaultSnapshot.load(file, stringPool))
+            .orElse(VaultSnapshot.EMPTY);
+        if (settings.parallelLoading())
+        {
+            try (var executor = newVirtualThreadPerTaskExecutor())
+            {
+                new VaultBuilder(this, absolutePath, _ -> {}, executor, snapshot, scan).build();
+            }
+        }
+        else
+        {
+            new VaultBuilder(this, absolutePath, _ -> {}, Runnable::run, snapshot, scan)
+                .build();
+        }
+        if (snapshot != VaultSnapshot.EMPTY)
+        {
+            LOGGER.debug("Restored {} documents from the vault snapshot.",
+                snapshot.restoredDocumentCount()
+            );
+        }
+        textEviction.check(this);
+    }
+
     private void logStatistics()
     {
         if (LOGGER.isInfoEnabled())
@@ -184,9 +269,14 @@ final class FileSystemVault
         var statistics = countFoldersAndDocuments(this);
         collector.total(Folder.class, statistics.folders());
         collector.total(Document.class, statistics.documents());
+        collector.forModule("vault")
+            .total("self_writes_recognized", selfWriteRegistry.recognizedWriteCount())
+            .total("self_writes_expired", selfWriteRegistry.expiredWriteCount());
     }
 
-    private void processFileSystemEvent(DirectoryChangeEvent event)
+    /// Handling an event is synchronized with [#documentWritten], so that the version of a document
+    /// that was written by the curator doesn't replace a newer version from disk, or vice versa.
+    private synchronized void processFileSystemEvent(DirectoryChangeEvent event)
     {
         var eventAbsolutePath = event.path();
         LOGGER.trace("Change detected: {}", eventAbsolutePath);
@@ -205,6 +295,13 @@ final class FileSystemVault
             LOGGER.trace("Ignoring event for file '{}', not a document", eventAbsolutePath);
             return;
         }
+        if (item == FileSystemItemType.FILE && isSelfWrite(event))
+        {
+            LOGGER.trace("Ignoring event for document '{}', written by the curator",
+                eventAbsolutePath
+            );
+            return;
+        }
         var eventHandler = DIRECTORY_CHANGE_EVENT_HANDLERS.get(item).get(event.eventType());
         if (eventHandler == null)
         {
@@ -214,13 +311,162 @@ final class FileSystemVault
             );
             return;
         }
-        eventHandler.handle(event, parent, callback);
+        if (++burstEventCount > settings.bulkChangeThreshold())
+        {
+            if (bulkChangeDirectories.isEmpty())
+            {
+                LOGGER.info("More than {} changes at once in '{}'; switching to bulk mode.",
+                    settings.bulkChangeThreshold(), absolutePath
+                );
+            }
+            bulkChangeDirectories.add(eventAbsolutePath.getParent());
+            return;
+        }
+        eventHandler.handle(event, parent, changeBatch);
+        textEviction.checkPeriodically(this);
+    }
+
+    /// @return `true` if the event reports a write by the curator itself: the file has exactly the
+    /// hash it was expected to have after the write. Hashes are compared without the parts that
+    /// depend on when they were computed; see [FileHashing].
+    private boolean isSelfWrite(DirectoryChangeEvent event)
+    {
+        var hash = event.eventType() != DELETE && event.hash() != null
+                   ? settings.fileHashing().stableHash(event.hash())
+                   : null;
+        return selfWriteRegistry.isSelfWrite(event.path(), hash);
+    }
+
+    @Override
+    public void expectWrite(Path path, BasicFileAttributes attributes, byte[] content)
+    {
+        var hash = settings.fileHashing().hash(attributes, content);
+        if (hash != null)
+        {
+            selfWriteRegistry.expect(path, settings.fileHashing().stableHash(hash));
+        }
+    }
+
+    @Override
+    public synchronized void documentWritten(Document document, String content, long lastModified)
+    {
+        // The folder of the document may have been removed from the vault while it was written,
+        // and the document may have been replaced with a version from disk. If that version is
+        // older than the write, the write replaced it on disk as well.
+        var folder = resolveParentFolder(resolveAbsolutePath(document));
+        if (folder == null)
+        {
+            LOGGER.debug("Folder of document '{}' is gone after it was written. Skipping.",
+                document
+            );
+            return;
+        }
+        var current = folder.document(document.name()).orElse(null);
+        if (current == null || current.lastModified() >= lastModified)
+        {
+            LOGGER.debug("Document '{}' changed while it was written. Skipping.", document);
+            return;
+        }
+        folder.addDocument(
+            updatedDocument(current, lastModified, DocumentText.of(content), stringPool));
+    }
+
+    /// Delivers all changes from the file system events processed since the last time the
+    /// directory watcher ran out of events, as a single batch. In bulk mode, the folders affected
+    /// by the events that were not handled are synchronized with disk first.
+    private void deliverChangeBatch()
+    {
+        List<Change<?>> changes;
+        synchronized (this)
+        {
+            if (!bulkChangeDirectories.isEmpty())
+            {
+                synchronizeBulkChanges();
+            }
+            burstEventCount = 0;
+            selfWriteRegistry.expire();
+            changes = changeBatch.drain();
+        }
+        if (changes.isEmpty())
+        {
+            return;
+        }
+        LOGGER.debug("Delivering a batch of {} changes.", changes.size());
+        callback.vaultChanged(changes);
+    }
+
+    /// Synchronizes the topmost folders affected by a storm of changes with disk, so that the
+    /// change batch contains only the net changes; see [FolderSynchronizer].
+    private void synchronizeBulkChanges()
+    {
+        var directories = new ArrayList<Path>();
+        bulkChangeDirectories.stream()
+            .map(this::closestExistingDirectory)
+            .distinct()
+            .sorted(comparingInt(Path::getNameCount))
+            .forEach(directory ->
+            {
+                if (directories.stream().noneMatch(directory::startsWith))
+                {
+                    directories.add(directory);
+                }
+            });
+        bulkChangeDirectories.clear();
+        LOGGER.info("Synchronizing {} folders after {} changes.", directories.size(),
+            burstEventCount
+        );
+        var synchronizer = new FolderSynchronizer(changeBatch);
+        for (var directory : directories)
+        {
+            try
+            {
+                synchronizer.synchronize(resolveFolder(directory), directory);
+            }
+            catch (IOException e)
+            {
+                LOGGER.warn("Couldn't synchronize folder '{}' with disk; reloading the vault.",
+                    directory, e
+                );
+                changeBatch.drain();
+                reload();
+                changeBatch.vaultChanged(Reset.RESET);
+                return;
+            }
+        }
+        textEviction.checkPeriodically(this);
+    }
+
+    /// @return The directory itself, or its closest ancestor, that exists both on disk and in
+    /// memory.
+    private Path closestExistingDirectory(Path directory)
+    {
+        var path = directory;
+        while (!path.equals(absolutePath)
+               && (!Files.isDirectory(path) || resolveFolder(path) == null))
+        {
+            path = path.getParent();
+        }
+        return path;
+    }
+
+    private FileSystemFolder resolveFolder(Path directory)
+    {
+        if (directory.equals(absolutePath))
+        {
+            return this;
+        }
+        var relativePath = absolutePath.relativize(directory);
+        return resolveFolder(relativePath, relativePath.getNameCount());
     }
 
     private FileSystemFolder resolveParentFolder(Path eventAbsolutePath)
     {
         var relativePath = absolutePath.relativize(eventAbsolutePath);
-        var steps = relativePath.getNameCount() - 1;
+        return resolveFolder(relativePath, relativePath.getNameCount() - 1);
+    }
+
+    private FileSystemFolder resolveFolder(Path relativePath, int steps)
+    {
         Folder folder = this;
         for (int i = 0; i < steps; i++)
         {
@@ -254,14 +500,35 @@ final class FileSystemVault
         return file.getFileName().toString().endsWith(".md");
     }
 
-    static Document newDocumentFromAbsolutePath(Path absolutePath)
+    static Document newDocumentFromAbsolutePath(Path absolutePath, StringPool stringPool)
     {
         try
         {
             return newDocument(
                 documentName(absolutePath),
                 getLastModifiedTime(absolutePath).toMillis(),
-                readAllLines(absolutePath)
+                DocumentText.of(readString(absolutePath)),
+                stringPool
+            );
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Could not read file " + absolutePath, e);
+        }
+    }
+
+    /// Reads a new version of an existing document from disk; fragments that didn't change are
+    /// reused from the previous version.
+    static Document updatedDocumentFromAbsolutePath(
+        Path absolutePath, Document previousVersion, StringPool stringPool)
+    {
+        try
+        {
+            return updatedDocument(
+                previousVersion,
+                getLastModifiedTime(absolutePath).toMillis(),
+                DocumentText.of(readString(absolutePath)),
+                stringPool
             );
         }
         catch (IOException e)
@@ -307,24 +574,65 @@ final class FileSystemVault
         return path;
     }
 
+    /// Builds (part of) the vault in memory by walking a file tree on disk.
+    ///
+    /// Documents are read and parsed on the provided [Executor]. With the default, direct executor
+    /// that happens on the walking thread, one document at a time. With a pool, many documents are
+    /// read and parsed at the same time. Either way, documents are added to their folders, and
+    /// changes are published, in the order the file tree was walked, after the walk has finished.
+    /// The resulting folder tree and the list of changes are therefore always the same.
+    ///
+    /// Documents that are available in the provided [VaultSnapshot] are restored from it, instead
+    /// of being read and parsed from disk.
+    ///
+    /// All directories and documents found, and the content read, are recorded in the provided
+    /// [VaultScan]. Each document is read from disk exactly once, using the attributes that come
+    /// with the walk.
     static class VaultBuilder
         extends SimpleFileVisitor<Path>
     {
         private final Path root;
-        private FileSystemFolder currentFolder;
         private final VaultChangedCallback vaultChangedCallback;
+        private final Executor executor;
+        private final VaultSnapshot snapshot;
+        private final VaultScan scan;
+        private final List<Runnable> assemblySteps;
+        private FileSystemFolder currentFolder;
 
         VaultBuilder(
-            FileSystemFolder targetFolder, Path absolutePath, VaultChangedCallback callback)
+            FileSystemFolder targetFolder, Path absolutePath, VaultChangedCallback callback,
+            Executor executor, VaultSnapshot snapshot, VaultScan scan)
         {
             root = absolutePath;
             currentFolder = targetFolder;
             vaultChangedCallback = callback;
+            this.executor = executor;
+            this.snapshot = snapshot;
+            this.scan = scan;
+            assemblySteps = new ArrayList<>();
+        }
+
+        VaultBuilder(
+            FileSystemFolder targetFolder, Path absolutePath, VaultChangedCallback callback,
+            Executor executor)
+        {
+            this(targetFolder, absolutePath, callback, executor, VaultSnapshot.EMPTY,
+                VaultScan.NONE);
+        }
+
+        VaultBuilder(
+            FileSystemFolder targetFolder, Path absolutePath, VaultChangedCallback callback)
+        {
+            this(targetFolder, absolutePath, callback, Runnable::run);
         }
 
-        private VaultBuilder(FileSystemFolder targetFolder, Path absolutePath)
+        /// Walks the file tree and assembles the folders and documents found in it.
+        void build()
+            throws IOException
         {
-            this(targetFolder, absolutePath, _ -> {});
+            walkFileTree(root, this);
+            assemblySteps.forEach(Runnable::run);
+            assemblySteps.clear();
         }
 
         @Override
@@ -336,10 +644,13 @@ final class FileSystemVault
                 LOGGER.trace("Skipping directory '{}'.", directory);
                 return FileVisitResult.SKIP_SUBTREE;
             }
+            scan.addDirectory(directory);
             if (!root.equals(directory))
             {
-                currentFolder = currentFolder.addFolder(folderName(directory));
-                vaultChangedCallback.vaultChanged(create(currentFolder, Folder.class));
+                var folder = currentFolder.addFolder(folderName(directory));
+                assemblySteps.add(() ->
+                    vaultChangedCallback.vaultChanged(create(folder, Folder.class)));
+                currentFolder = folder;
             }
             return super.preVisitDirectory(directory, attributes);
         }
@@ -350,9 +661,19 @@ final class FileSystemVault
         {
             if (isDocument(file))
             {
-                var document = newDocumentFromAbsolutePath(file);
-                currentFolder.addDocument(document);
-                vaultChangedCallback.vaultChanged(create(document, Document.class));
+                var folder = currentFolder;
+                var relativePath = root.relativize(file);
+                scan.addFile(file, attributes);
+                var futureDocument = supplyAsync(() -> snapshot.restore(relativePath, attributes)
+                    .orElseGet(() -> readDocument(file, attributes, folder.stringPool())),
+                    executor
+                );
+                assemblySteps.add(() ->
+                {
+                    var document = join(futureDocument);
+                    folder.addDocument(document);
+                    vaultChangedCallback.vaultChanged(create(document, Document.class));
+                });
             }
             return super.visitFile(file, attributes);
         }
@@ -374,5 +695,41 @@ final class FileSystemVault
             }
             return super.postVisitDirectory(directory, exception);
         }
+
+        private Document readDocument(
+            Path file, BasicFileAttributes attributes, StringPool stringPool)
+        {
+            try
+            {
+                var content = readAllBytes(file);
+                scan.addContent(file, attributes, content);
+                return newDocument(
+                    documentName(file),
+                    attributes.lastModifiedTime().toMillis(),
+                    DocumentText.of(UTF_8.newDecoder().decode(ByteBuffer.wrap(content)).toString()),
+                    stringPool
+                );
+            }
+            catch (IOException e)
+            {
+                throw new IllegalStateException("Could not read file " + file, e);
+            }
+        }
+
+        private static Document join(CompletableFuture<Document> futureDocument)
+        {
+            try
+            {
+                return futureDocument.join();
+            }
+            catch (CompletionException e)
+            {
+                if (e.getCause() instanceof RuntimeException cause)
+                {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
     }
 }
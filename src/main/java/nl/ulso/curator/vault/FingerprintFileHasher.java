@@ -0,0 +1,98 @@
+package nl.ulso.curator.vault;
+
+import io.methvin.watcher.hashing.FileHash;
+import io.methvin.watcher.hashing.FileHasher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.util.Arrays;
+
+import static io.methvin.watcher.hashing.FileHasher.DEFAULT_FILE_HASHER;
+import static java.nio.file.Files.readAttributes;
+import static nl.ulso.curator.vault.FileHashing.contentHash;
+
+/// [FileHasher] that hashes the fingerprint of a file, its time of last modification and its size,
+/// instead of its content. This means that the watcher doesn't need to read the complete vault when
+/// it starts.
+///
+/// A fingerprint alone is not enough for files that were modified very recently: a second change
+/// within the resolution of the file system's timestamps might keep both the time of last
+/// modification and the size the same. For such "racy" files, the hash includes the hash of the
+/// content as well. Hashing a racy file again later, without changes, results in a different hash;
+/// the watcher then reports a change that isn't one. That is harmless, and rare. To compare hashes
+/// of the same version of a file that were computed at different times, compare them without the
+/// hash of the content; see [#withoutContentHash(FileHash)].
+final class FingerprintFileHasher
+    implements FileHasher
+{
+    // Some file systems store timestamps with a resolution of 1 or even 2 seconds.
+    private static final long RACY_INTERVAL_MILLIS = 2_000;
+
+    private static final byte[] NO_CONTENT_HASH = new byte[0];
+    private static final int FINGERPRINT_LENGTH = 3 * Long.BYTES;
+
+    private final Clock clock;
+
+    FingerprintFileHasher()
+    {
+        this(Clock.systemUTC());
+    }
+
+    FingerprintFileHasher(Clock clock)
+    {
+        this.clock = clock;
+    }
+
+    @Override
+    public FileHash hash(Path path)
+        throws IOException
+    {
+        var attributes = readAttributes(path, BasicFileAttributes.class);
+        return fingerprint(attributes, isRacy(attributes)
+                                       ? DEFAULT_FILE_HASHER.hash(path).asBytes()
+                                       : NO_CONTENT_HASH);
+    }
+
+    /// Computes the same hash as [#hash(Path)], from attributes and content that were already read.
+    ///
+    /// @return The hash, or `null` if the file is racy and the content is not available.
+    FileHash hash(BasicFileAttributes attributes, byte[] content)
+    {
+        if (!isRacy(attributes))
+        {
+            return fingerprint(attributes, NO_CONTENT_HASH);
+        }
+        return content != null ? fingerprint(attributes, contentHash(content).asBytes()) : null;
+    }
+
+    /// @return The fingerprint in the hash, without the hash of the content of a racy file. It
+    /// doesn't depend on when the file was hashed.
+    static FileHash withoutContentHash(FileHash hash)
+    {
+        var bytes = hash.asBytes();
+        if (bytes.length <= FINGERPRINT_LENGTH)
+        {
+            return hash;
+        }
+        return FileHash.fromBytes(Arrays.copyOf(bytes, FINGERPRINT_LENGTH));
+    }
+
+    private boolean isRacy(BasicFileAttributes attributes)
+    {
+        return clock.millis() - attributes.lastModifiedTime().toMillis() < RACY_INTERVAL_MILLIS;
+    }
+
+    private static FileHash fingerprint(BasicFileAttributes attributes, byte[] contentHash)
+    {
+        var lastModified = attributes.lastModifiedTime().toInstant();
+        return FileHash.fromBytes(ByteBuffer.allocate(FINGERPRINT_LENGTH + contentHash.length)
+            .putLong(lastModified.getEpochSecond())
+            .putLong(lastModified.getNano())
+            .putLong(attributes.size())
+            .put(contentHash)
+            .array());
+    }
+}
@@ -0,0 +1,138 @@
+package nl.ulso.curator.vault;
+
+import nl.ulso.curator.vault.DirectoryDeletedEventHandler.RecursiveFolderDeleter;
+import nl.ulso.curator.vault.FileSystemVault.VaultBuilder;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.file.Files.readAttributes;
+import static nl.ulso.curator.change.Change.create;
+import static nl.ulso.curator.change.Change.delete;
+import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.vault.FileSystemVault.documentName;
+import static nl.ulso.curator.vault.FileSystemVault.folderName;
+import static nl.ulso.curator.vault.FileSystemVault.isDocument;
+import static nl.ulso.curator.vault.FileSystemVault.isHidden;
+import static nl.ulso.curator.vault.FileSystemVault.newDocumentFromAbsolutePath;
+import static nl.ulso.curator.vault.FileSystemVault.updatedDocumentFromAbsolutePath;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/// Synchronizes a folder in memory with its directory on disk, recursively, and reports only the
+/// net differences as changes: documents and folders that no longer exist on disk are deleted,
+/// new ones are created, and documents with a different time of last modification are updated.
+///
+/// This is what the [FileSystemVault] does in bulk mode, instead of handling many thousands of
+/// file system events one by one.
+final class FolderSynchronizer
+{
+    private static final Logger LOGGER = getLogger(FolderSynchronizer.class);
+
+    private final VaultChangedCallback callback;
+
+    FolderSynchronizer(VaultChangedCallback callback)
+    {
+        this.callback = callback;
+    }
+
+    void synchronize(FileSystemFolder folder, Path directory)
+        throws IOException
+    {
+        LOGGER.trace("Synchronizing folder '{}' with '{}'.", folder, directory);
+        var directories = new TreeMap<String, Path>();
+        var documents = new TreeMap<String, Path>();
+        var lastModified = new TreeMap<String, Long>();
+        try (var entries = Files.newDirectoryStream(directory))
+        {
+            for (var entry : entries)
+            {
+                var attributes = readAttributes(entry, BasicFileAttributes.class);
+                if (attributes.isDirectory() && !isHidden(entry))
+                {
+                    directories.put(folderName(entry), entry);
+                }
+                else if (attributes.isRegularFile() && isDocument(entry))
+                {
+                    var name = documentName(entry);
+                    documents.put(name, entry);
+                    lastModified.put(name, attributes.lastModifiedTime().toMillis());
+                }
+            }
+        }
+        removeDeletedDocuments(folder, documents);
+        removeDeletedFolders(folder, directories);
+        synchronizeDocuments(folder, documents, lastModified);
+        synchronizeFolders(folder, directories);
+    }
+
+    private void removeDeletedDocuments(FileSystemFolder folder, Map<String, Path> documents)
+    {
+        for (var document : new ArrayList<>(folder.documents()))
+        {
+            if (!documents.containsKey(document.name()))
+            {
+                folder.removeDocument(document.name());
+                callback.vaultChanged(delete(document, Document.class));
+            }
+        }
+    }
+
+    private void removeDeletedFolders(FileSystemFolder folder, Map<String, Path> directories)
+    {
+        for (var subfolder : new ArrayList<>(folder.folders()))
+        {
+            if (!directories.containsKey(subfolder.name()))
+            {
+                folder.removeFolder(subfolder.name());
+                subfolder.accept(new RecursiveFolderDeleter(callback));
+            }
+        }
+    }
+
+    private void synchronizeDocuments(
+        FileSystemFolder folder, Map<String, Path> documents, Map<String, Long> lastModified)
+    {
+        documents.forEach((name, path) ->
+        {
+            var existingDocument = folder.document(name);
+            if (existingDocument.isEmpty())
+            {
+                var document = newDocumentFromAbsolutePath(path, folder.stringPool());
+                folder.addDocument(document);
+                callback.vaultChanged(create(document, Document.class));
+            }
+            else if (existingDocument.get().lastModified() != lastModified.get(name))
+            {
+                var newDocument = updatedDocumentFromAbsolutePath(
+                    path, existingDocument.get(), folder.stringPool());
+                var oldDocument = folder.addDocument(newDocument);
+                callback.vaultChanged(update(oldDocument, newDocument, Document.class));
+            }
+        });
+    }
+
+    private void synchronizeFolders(FileSystemFolder folder, Map<String, Path> directories)
+        throws IOException
+    {
+        for (var entry : directories.entrySet())
+        {
+            var existingFolder = folder.folder(entry.getKey());
+            if (existingFolder.isPresent())
+            {
+                synchronize((FileSystemFolder) existingFolder.get(), entry.getValue());
+            }
+            else
+            {
+                var newFolder = folder.addFolder(entry.getKey());
+                callback.vaultChanged(create(newFolder, Folder.class));
+                new VaultBuilder(newFolder, entry.getValue(), callback).build();
+            }
+        }
+    }
+}
@@ -14,5 +14,12 @@ public interface Fragment
 
     Optional<Section> parentSection();
 
+    /// @param previous a fragment in a previous version of the same document.
+    /// @return `true` if this fragment was reused from the previous fragment because its content
+    /// didn't change, without comparing the content; see [FragmentFactory]. For a section that
+    /// means that none of its fragments changed either. Fragments with equal content that were
+    /// parsed separately are not unchanged from each other.
+    boolean isUnchangedFrom(Fragment previous);
+
     void accept(VaultVisitor visitor);
 }
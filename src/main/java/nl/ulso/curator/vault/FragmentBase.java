@@ -6,14 +6,33 @@ import static java.util.Objects.requireNonNull;
 
 /// Base class for fragments in a document; it has back-references to the document and optionally
 /// the section it is part of.
+///
+/// These back-references are set by the [DocumentParser] once the document is complete, exactly
+/// once. A fragment is never moved to another document, not even to a new version of the same
+/// document; the [FragmentFactory] hands out copies instead.
+///
+/// A copy shares the content of the original, and with it an immutable object that identifies
+/// that content. It is created once, when the content is parsed for the first time, and is then
+/// passed on from version to version of the document, for as long as the content doesn't change.
+/// That makes [#isUnchangedFrom(Fragment)] a reference check.
 abstract class FragmentBase
         implements Visitable
 {
+    private final Object content;
     private Document document;
     private Section section;
 
     FragmentBase()
     {
+        this.content = new Object();
+        this.document = null;
+        this.section = null;
+    }
+
+    /// Creates a copy of a fragment that shares its content.
+    FragmentBase(FragmentBase original)
+    {
+        this.content = original.content;
         this.document = null;
         this.section = null;
     }
@@ -37,4 +56,9 @@ abstract class FragmentBase
     {
         return Optional.ofNullable(section);
     }
+
+    public final boolean isUnchangedFrom(Fragment previous)
+    {
+        return previous instanceof FragmentBase fragment && fragment.content == content;
+    }
 }
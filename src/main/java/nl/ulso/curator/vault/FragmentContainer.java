@@ -16,6 +16,14 @@ abstract class FragmentContainer
         this.fragments = unmodifiableList(requireNonNull(fragments));
     }
 
+    /// Creates a copy of a container that shares its content, with the given fragments; these must
+    /// be copies of the fragments in the original.
+    FragmentContainer(FragmentContainer original, List<Fragment> fragments)
+    {
+        super(original);
+        this.fragments = unmodifiableList(requireNonNull(fragments));
+    }
+
     public List<Fragment> fragments()
     {
         return fragments;
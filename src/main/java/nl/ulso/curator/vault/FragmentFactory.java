@@ -0,0 +1,234 @@
+package nl.ulso.curator.vault;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import static nl.ulso.curator.vault.CodeBlock.CODE_MARKER;
+import static nl.ulso.curator.vault.QueryBlock.findDefinitionEnd;
+import static nl.ulso.curator.vault.QueryBlock.parseOutputHash;
+
+/// Creates the [Fragment]s for the [DocumentParser].
+///
+/// A factory can be created for a new version of an existing document. It then reuses the
+/// fragments of the previous version of the document whenever the content of a new fragment is
+/// exactly the same, instead of creating a new one. A [QueryBlock] is reused only if it is still at
+/// the same position in the document, so that its identity stays correct. A [Section] is reused
+/// only if its level and title are the same, and if all its fragments were reused as well. A
+/// fragment is reused at most once.
+///
+/// Reusing a fragment means handing out a copy of it that shares its content. The fragments of the
+/// previous version are left alone: other threads may still be using that version, and its
+/// fragments must keep referring to it. The copies are cheap; the result is that after a small
+/// change to a large document, no text is copied, and front matter and query configurations that
+/// didn't change do not have to be parsed again.
+///
+/// Because a copy shares the content of the original by reference, consumers of a new version of a
+/// document can skip the fragments that didn't change with [Fragment#isUnchangedFrom(Fragment)],
+/// instead of comparing their content.
+///
+/// Candidates are looked up by the hash code of their content. This hash is computed directly on
+/// the [DocumentText], so looking for a candidate to reuse doesn't create any strings.
+///
+/// Section titles and front matter of new fragments are deduplicated with a [StringPool].
+final class FragmentFactory
+{
+    private final Map<Integer, List<Fragment>> candidates;
+    private final StringPool stringPool;
+    private int reusedFragmentCount;
+
+    /// Creates a factory that always creates new fragments.
+    FragmentFactory()
+    {
+        this(StringPool.NONE);
+    }
+
+    FragmentFactory(StringPool stringPool)
+    {
+        this.candidates = Collections.emptyMap();
+        this.stringPool = stringPool;
+    }
+
+    FragmentFactory(Document previousVersion)
+    {
+        this(previousVersion, StringPool.NONE);
+    }
+
+    /// Creates a factory that reuses the fragments of the previous version of a document.
+    FragmentFactory(Document previousVersion, StringPool stringPool)
+    {
+        this.candidates = new HashMap<>();
+        this.stringPool = stringPool;
+        previousVersion.accept(new BreadthFirstVaultVisitor()
+        {
+            @Override
+            public void visit(FrontMatter frontMatter)
+            {
+                addCandidate(frontMatter.markdown().hashCode(), frontMatter);
+            }
+
+            @Override
+            public void visit(Section section)
+            {
+                addCandidate(section.title().hashCode(), section);
+                super.visit(section);
+            }
+
+            @Override
+            public void visit(CodeBlock codeBlock)
+            {
+                addCandidate(codeBlock.code().hashCode(), codeBlock);
+            }
+
+            @Override
+            public void visit(QueryBlock queryBlock)
+            {
+                addCandidate(queryBlock.definition().hashCode(), queryBlock);
+            }
+
+            @Override
+            public void visit(TextBlock textBlock)
+            {
+                // Evicted text can't be compared; it might not even be on disk anymore.
+                if (textBlock.residentMarkdown() != null)
+                {
+                    addCandidate(textBlock.hashCode(), textBlock);
+                }
+            }
+        });
+    }
+
+    private void addCandidate(int hash, Fragment fragment)
+    {
+        candidates.computeIfAbsent(hash, _ -> new ArrayList<>(1)).add(fragment);
+    }
+
+    /// @return The number of fragments reused from the previous version of the document.
+    int reusedFragmentCount()
+    {
+        return reusedFragmentCount;
+    }
+
+    FrontMatter frontMatter(DocumentText text, int startIndex, int endIndex)
+    {
+        if (candidates.isEmpty())
+        {
+            return new FrontMatter(text, startIndex, endIndex, stringPool);
+        }
+        var start = text.lineStart(startIndex);
+        var end = text.lineStart(endIndex);
+        return reuse(text.hashCode(start, end), FrontMatter.class,
+            frontMatter -> text.regionEquals(start, end, frontMatter.markdown()),
+            FrontMatter::copy
+        ).orElseGet(() -> new FrontMatter(text, startIndex, endIndex, stringPool));
+    }
+
+    TextBlock textBlock(DocumentText text, int startIndex, int endIndex)
+    {
+        if (candidates.isEmpty())
+        {
+            return new TextBlock(text.lines(startIndex, endIndex));
+        }
+        var start = text.lineStart(startIndex);
+        var end = text.lineStart(endIndex);
+        return reuse(text.hashCode(start, end), TextBlock.class,
+            textBlock ->
+            {
+                var markdown = textBlock.residentMarkdown();
+                return markdown != null && text.regionEquals(start, end, markdown);
+            },
+            TextBlock::copy
+        ).orElseGet(() -> new TextBlock(text.lines(startIndex, endIndex)));
+    }
+
+    CodeBlock codeBlock(DocumentText text, int startIndex, int endIndex)
+    {
+        if (candidates.isEmpty())
+        {
+            return new CodeBlock(text, startIndex, endIndex);
+        }
+        var start = text.lineStart(startIndex + 1);
+        var end = endIndex - startIndex > 2 ? text.lineEnd(endIndex - 2) : start;
+        var languageStart = text.lineStart(startIndex) + CODE_MARKER.length();
+        var languageEnd = text.lineEnd(startIndex);
+        return reuse(text.hashCode(start, end), CodeBlock.class,
+            codeBlock -> text.regionEquals(start, end, codeBlock.code())
+                         && text.regionEquals(languageStart, languageEnd, codeBlock.language()),
+            CodeBlock::copy
+        ).orElseGet(() -> new CodeBlock(text, startIndex, endIndex));
+    }
+
+    QueryBlock queryBlock(
+        DocumentText text, int startIndex, int endIndex, String documentName, int ordinal)
+    {
+        if (candidates.isEmpty())
+        {
+            return new QueryBlock(text, startIndex, endIndex, documentName, ordinal);
+        }
+        var start = text.lineStart(startIndex);
+        var end = text.lineEnd(findDefinitionEnd(text, startIndex, endIndex));
+        return reuse(text.hashCode(start, end), QueryBlock.class,
+            queryBlock -> queryBlock.ordinal() == ordinal
+                          && text.regionEquals(start, end, queryBlock.definition())
+                          && parseOutputHash(text.line(endIndex - 1))
+                              .equals(queryBlock.outputHash()),
+            QueryBlock::copy
+        ).orElseGet(() -> new QueryBlock(text, startIndex, endIndex, documentName, ordinal));
+    }
+
+    Section section(int level, String title, List<Fragment> fragments)
+    {
+        if (candidates.isEmpty())
+        {
+            return new Section(level, stringPool.intern(title), fragments);
+        }
+        return reuse(title.hashCode(), Section.class,
+            section -> section.level() == level
+                       && section.title().equals(title)
+                       && areUnchangedFrom(fragments, section.fragments()),
+            section -> section.copy(fragments)
+        ).orElseGet(() -> new Section(level, stringPool.intern(title), fragments));
+    }
+
+    private boolean areUnchangedFrom(List<Fragment> fragments, List<Fragment> previousFragments)
+    {
+        if (fragments.size() != previousFragments.size())
+        {
+            return false;
+        }
+        for (var i = 0; i < fragments.size(); i++)
+        {
+            if (!fragments.get(i).isUnchangedFrom(previousFragments.get(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <F extends Fragment> Optional<F> reuse(
+        int hash, Class<F> fragmentClass, Predicate<F> sameContent, UnaryOperator<F> copy)
+    {
+        var list = candidates.get(hash);
+        if (list == null)
+        {
+            return Optional.empty();
+        }
+        var iterator = list.iterator();
+        while (iterator.hasNext())
+        {
+            var candidate = iterator.next();
+            if (fragmentClass.isInstance(candidate))
+            {
+                var fragment = fragmentClass.cast(candidate);
+                if (sameContent.test(fragment))
+                {
+                    iterator.remove();
+                    reusedFragmentCount++;
+                    return Optional.of(copy.apply(fragment));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
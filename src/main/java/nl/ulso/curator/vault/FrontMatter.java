@@ -16,30 +16,53 @@ import static nl.ulso.dictionary.Dictionary.yamlDictionary;
 /// This class wraps a [Dictionary]. For ease of use it
 /// implements its interface as well.
 ///
-/// This implementation holds both the original content (a [String]) as well as the processed
-/// content (a [Dictionary]) of the front matter in memory. The original content is needed
-/// to ensure that front matter is written back to disk unchanged, however the document author
-/// formatted it.
+/// This implementation holds the original content (a [String]) of the front matter in memory. The
+/// original content is needed to ensure that front matter is written back to disk unchanged,
+/// however the document author formatted it. The processed content (a [Dictionary]) is created
+/// from it on first access only: many documents have front matter that is never read, or read only
+/// when the document has no title of its own. Parsing is thread-safe and happens at most once.
+/// Property keys and string values are deduplicated with the [StringPool] of the vault.
 public final class FrontMatter
         extends FragmentBase
         implements Fragment, Dictionary
 {
     static final String FRONT_MATTER_MARKER = "---";
+    private static final String LINE_SEPARATOR = lineSeparator();
 
     private final String markdown;
-    private final Dictionary dictionary;
+    private final StringPool stringPool;
+    private volatile Dictionary dictionary;
+
+    FrontMatter(DocumentText text, int startIndex, int endIndex, StringPool stringPool)
+    {
+        markdown = text.lines(startIndex, endIndex);
+        this.stringPool = stringPool;
+    }
+
+    private FrontMatter(FrontMatter original)
+    {
+        super(original);
+        markdown = original.markdown;
+        stringPool = original.stringPool;
+        dictionary = original.dictionary;
+    }
 
     FrontMatter(List<String> lines)
     {
+        this(lines, StringPool.NONE);
+    }
+
+    FrontMatter(List<String> lines, StringPool stringPool)
+    {
+        this.stringPool = stringPool;
         if (lines.isEmpty())
         {
-            dictionary = emptyDictionary();
             markdown = "";
+            dictionary = emptyDictionary();
         }
         else
         {
-            dictionary = yamlDictionary(lines);
-            markdown = String.join(lineSeparator(), lines) + lineSeparator();
+            markdown = String.join(LINE_SEPARATOR, lines) + LINE_SEPARATOR;
         }
     }
 
@@ -52,8 +75,7 @@ public final class FrontMatter
         }
         if (o instanceof FrontMatter frontMatter)
         {
-            return Objects.equals(markdown, frontMatter.markdown) &&
-                   Objects.equals(dictionary, frontMatter.dictionary);
+            return Objects.equals(markdown, frontMatter.markdown);
         }
         return false;
     }
@@ -61,7 +83,7 @@ public final class FrontMatter
     @Override
     public int hashCode()
     {
-        return Objects.hash(markdown, dictionary);
+        return Objects.hashCode(markdown);
     }
 
     public String markdown()
@@ -69,6 +91,13 @@ public final class FrontMatter
         return markdown;
     }
 
+    /// @return A copy of this front matter, not part of any document yet, that shares its content
+    /// and, if it was parsed already, its dictionary.
+    FrontMatter copy()
+    {
+        return new FrontMatter(this);
+    }
+
     @Override
     public void accept(VaultVisitor visitor)
     {
@@ -77,78 +106,112 @@ public final class FrontMatter
 
     public Dictionary dictionary()
     {
-        return dictionary;
+        var result = dictionary;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = dictionary;
+                if (result == null)
+                {
+                    result = yamlDictionary(yaml(markdown), stringPool::intern);
+                    dictionary = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /// Extracts the YAML from the front matter, skipping the front matter markers around it, if
+    /// present. A closing marker directly after the opening marker is considered to be YAML; that's
+    /// how the YAML dictionary treats a list of lines as well.
+    private static String yaml(String markdown)
+    {
+        if (markdown.isEmpty())
+        {
+            return "";
+        }
+        var marker = FRONT_MATTER_MARKER + LINE_SEPARATOR;
+        var start = markdown.startsWith(marker) ? marker.length() : 0;
+        var end = markdown.length() - LINE_SEPARATOR.length();
+        var closingMarker = markdown.length() - marker.length();
+        if (closingMarker > start && markdown.startsWith(LINE_SEPARATOR + marker,
+            closingMarker - LINE_SEPARATOR.length()))
+        {
+            end = closingMarker - LINE_SEPARATOR.length();
+        }
+        return start < end ? markdown.substring(start, end) : "";
     }
 
     @Override
     public Set<String> propertyNames()
     {
-        return dictionary.propertyNames();
+        return dictionary().propertyNames();
     }
 
     @Override
     public boolean isEmpty()
     {
-        return dictionary.isEmpty();
+        return dictionary().isEmpty();
     }
 
     @Override
     public String string(String property, String defaultValue)
     {
-        return dictionary.string(property, defaultValue);
+        return dictionary().string(property, defaultValue);
     }
 
     @Override
     public int integer(String property, int defaultValue)
     {
-        return dictionary.integer(property, defaultValue);
+        return dictionary().integer(property, defaultValue);
     }
 
     @Override
     public LocalDate date(String property, LocalDate defaultDate)
     {
-        return dictionary.date(property, defaultDate);
+        return dictionary().date(property, defaultDate);
     }
 
     @Override
     public boolean bool(String property, boolean defaultValue)
     {
-        return dictionary.bool(property, defaultValue);
+        return dictionary().bool(property, defaultValue);
     }
 
     @Override
     public List<String> listOfStrings(String property)
     {
-        return dictionary.listOfStrings(property);
+        return dictionary().listOfStrings(property);
     }
 
     @Override
     public List<Integer> listOfIntegers(String property)
     {
-        return dictionary.listOfIntegers(property);
+        return dictionary().listOfIntegers(property);
     }
 
     @Override
     public List<LocalDate> listOfDates(String property)
     {
-        return dictionary.listOfDates(property);
+        return dictionary().listOfDates(property);
     }
 
     @Override
     public Optional<Object> getProperty(String name)
     {
-        return dictionary.getProperty(name);
+        return dictionary().getProperty(name);
     }
 
     @Override
     public boolean hasProperty(String property)
     {
-        return dictionary.hasProperty(property);
+        return dictionary().hasProperty(property);
     }
 
     @Override
     public String toYamlString()
     {
-        return dictionary.toYamlString();
+        return dictionary().toYamlString();
     }
 }
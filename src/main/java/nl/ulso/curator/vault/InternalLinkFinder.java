@@ -9,6 +9,9 @@ import static java.util.stream.Collectors.toSet;
 /// Yes: internal links that look like normal Markdown links are considered to be external links.
 /// <p/P A full Obsidian WikiLink looks like this: `[[document#anchor|label]]`, with the anchor and
 /// the label optional.
+///
+/// Target document names can be deduplicated with a [StringPool]. That makes sense only if the
+/// links are kept in memory for a longer time.
 public class InternalLinkFinder
     extends BreadthFirstVaultVisitor
 {
@@ -21,10 +24,17 @@ public class InternalLinkFinder
     private static final char ALIAS_MARKER = '|';
 
     private final List<InternalLink> internalLinks;
+    private final StringPool stringPool;
 
     public InternalLinkFinder()
+    {
+        this(StringPool.NONE);
+    }
+
+    public InternalLinkFinder(StringPool stringPool)
     {
         internalLinks = new ArrayList<>();
+        this.stringPool = stringPool;
     }
 
     public List<InternalLink> internalLinks()
@@ -39,7 +49,7 @@ public class InternalLinkFinder
     /// @return Set of references to internal documents.
     public static Set<String> extractInternalLinkTargetNamesFrom(String content)
     {
-        return parseInternalLinks(null, content).stream()
+        return parseInternalLinks(null, content, StringPool.NONE).stream()
             .map(InternalLink::targetDocument)
             .collect(toSet());
     }
@@ -51,12 +61,45 @@ public class InternalLinkFinder
 
     public static List<InternalLink> extractInternalLinksFrom(Fragment fragment, String content)
     {
-        var finder = new InternalLinkFinder();
+        return extractInternalLinksFrom(fragment, content, StringPool.NONE);
+    }
+
+    public static List<InternalLink> extractInternalLinksFrom(
+        Fragment fragment, String content, StringPool stringPool)
+    {
+        var finder = new InternalLinkFinder(stringPool);
         finder.extractInternalLinks(fragment, content);
         return finder.internalLinks();
     }
 
-    private static List<InternalLink> parseInternalLinks(Fragment fragment, String content)
+    /// @return All internal links in a chunk of Markdown, as Markdown, without anything in between.
+    /// Finding the internal links in the result gives the same links as finding them in the
+    /// original.
+    static String internalLinksMarkdown(String content)
+    {
+        var result = new StringBuilder();
+        var index = 0;
+        var length = content.length();
+        while (index < length)
+        {
+            var start = content.indexOf(LINK_START, index);
+            if (start == -1)
+            {
+                break;
+            }
+            var end = content.indexOf(LINK_END, start + LINK_START_LENGTH);
+            if (end == -1)
+            {
+                break;
+            }
+            index = end + LINK_END_LENGTH;
+            result.append(content, start, index);
+        }
+        return result.toString();
+    }
+
+    private static List<InternalLink> parseInternalLinks(
+        Fragment fragment, String content, StringPool stringPool)
     {
         var result = new ArrayList<InternalLink>();
         var index = 0;
@@ -90,7 +133,7 @@ public class InternalLinkFinder
             }
             result.add(new InternalLink(
                 fragment,
-                link,
+                stringPool.intern(link),
                 anchor,
                 alias
             ));
@@ -109,11 +152,11 @@ public class InternalLinkFinder
     @Override
     public void visit(TextBlock textBlock)
     {
-        extractInternalLinks(textBlock, textBlock.markdown());
+        extractInternalLinks(textBlock, textBlock.linkSource());
     }
 
     protected void extractInternalLinks(Fragment fragment, String content)
     {
-        internalLinks.addAll(parseInternalLinks(fragment, content));
+        internalLinks.addAll(parseInternalLinks(fragment, content, stringPool));
     }
 }
@@ -3,6 +3,7 @@ package nl.ulso.curator.vault;
 import nl.ulso.curator.vault.MarkdownTokenizer.LineToken;
 
 import java.util.*;
+import java.util.regex.Matcher;
 
 import static nl.ulso.curator.vault.CodeBlock.CODE_MARKER;
 import static nl.ulso.curator.vault.FrontMatter.FRONT_MATTER_MARKER;
@@ -19,6 +20,20 @@ import static nl.ulso.curator.vault.Section.HEADER_PATTERN;
 /// Simple tokenizer for Markdown documents, Vincent flavored; the document is tokenized line by
 /// line. It's not any fancier than that, on purpose.
 ///
+/// The tokenizer works on a [DocumentText]; it inspects lines in place and never creates strings
+/// for them, except for the titles of headers.
+///
+/// There are two ways to use this tokenizer:
+///
+/// 1. As an [Iterable] of [LineToken]s. This is the easiest to use; every line results in a token
+///    object. Headers are detected with the [Section#HEADER_PATTERN].
+/// 2. Through [#tokenize()], which produces all tokens in one go, packed in an array of integers;
+///    see [#tokenType(int)], [#tokenStatus(int)] and [#headerLevel(int)]. Headers are detected with
+///    a hand-written scanner. Apart from the array itself, this allocates nothing. The
+///    [DocumentParser] uses this mode.
+///
+/// Both modes produce exactly the same tokens.
+///
 /// What's Vincent Flavored Markdown (VFM), you ask? Well, it's basically GitHub Flavored Markdown,
 /// with some changes. These are:
 ///
@@ -31,7 +46,16 @@ import static nl.ulso.curator.vault.Section.HEADER_PATTERN;
 class MarkdownTokenizer
     implements Iterable<LineToken>
 {
-    private final List<String> lines;
+    static final int MAXIMUM_HEADER_LEVEL = 6;
+
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final TokenStatus[] TOKEN_STATUSES = TokenStatus.values();
+    private static final int TOKEN_TYPE_MASK = 0b111;
+    private static final int TOKEN_STATUS_SHIFT = 3;
+    private static final int TOKEN_STATUS_MASK = 0b11;
+    private static final int HEADER_LEVEL_SHIFT = 5;
+
+    private final DocumentText text;
 
     enum TokenType
     {
@@ -137,7 +161,152 @@ class MarkdownTokenizer
 
     public MarkdownTokenizer(List<String> lines)
     {
-        this.lines = Objects.requireNonNull(lines);
+        this(DocumentText.of(lines));
+    }
+
+    MarkdownTokenizer(DocumentText text)
+    {
+        this.text = Objects.requireNonNull(text);
+    }
+
+    /// Tokenizes the complete document in one go.
+    ///
+    /// The result holds exactly one token per line, followed by an [TokenType#END_OF_DOCUMENT]
+    /// token. In other words: the index of a token in the array is its line index. Each token packs
+    /// its type, its status and, for headers, its level, in a single integer. The title of a header
+    /// is everything on the line after the level markers and the single space that follows them.
+    int[] tokenize()
+    {
+        var size = text.lineCount();
+        var tokens = new int[size + 1];
+        var mode = Mode.TEXT;
+        for (var i = 0; i < size; i++)
+        {
+            if (i == 0 && text.lineEquals(i, FRONT_MATTER_MARKER))
+            {
+                mode = Mode.FRONT_MATTER;
+                tokens[i] = token(FRONT_MATTER, START);
+            }
+            else if (mode == Mode.FRONT_MATTER)
+            {
+                var status = CONTENT;
+                if (text.lineEquals(i, FRONT_MATTER_MARKER))
+                {
+                    status = END;
+                    mode = Mode.TEXT;
+                }
+                tokens[i] = token(FRONT_MATTER, status);
+            }
+            else if (mode == Mode.TEXT && text.lineStartsWith(i, QUERY_CONFIGURATION_PREFIX))
+            {
+                mode = Mode.QUERY;
+                tokens[i] = token(QUERY, START);
+            }
+            else if (mode == Mode.QUERY)
+            {
+                var status = CONTENT;
+                if (text.lineStartsWith(i, QUERY_CONFIGURATION_PREFIX))
+                {
+                    status = START;
+                }
+                else if (text.lineStartsWith(i, QUERY_OUTPUT_PREFIX) &&
+                         text.lineEndsWith(i, QUERY_OUTPUT_POSTFIX))
+                {
+                    status = END;
+                    mode = Mode.TEXT;
+                }
+                tokens[i] = token(QUERY, status);
+            }
+            else if (mode == Mode.TEXT && text.lineStartsWith(i, CODE_MARKER))
+            {
+                mode = Mode.CODE;
+                tokens[i] = token(CODE, START);
+            }
+            else if (mode == Mode.CODE)
+            {
+                var status = CONTENT;
+                if (text.lineEquals(i, CODE_MARKER))
+                {
+                    status = END;
+                    mode = Mode.TEXT;
+                }
+                tokens[i] = token(CODE, status);
+            }
+            else
+            {
+                var level = scanHeaderLevel(i);
+                tokens[i] = level > 0
+                            ? token(HEADER, CONTENT) | level << HEADER_LEVEL_SHIFT
+                            : token(TEXT, CONTENT);
+            }
+        }
+        tokens[size] = token(END_OF_DOCUMENT, END);
+        return tokens;
+    }
+
+    /// Scans a line for a header, exactly like the [Section#HEADER_PATTERN] would: 1 to 6 `#`'s,
+    /// a space, and a title that doesn't contain any line terminators.
+    ///
+    /// @return The level of the header, or 0 if the line is not a header.
+    private int scanHeaderLevel(int lineIndex)
+    {
+        var content = text.text();
+        var start = text.lineStart(lineIndex);
+        var end = text.lineEnd(lineIndex);
+        var position = start;
+        while (position < end && content.charAt(position) == '#')
+        {
+            position++;
+        }
+        var level = position - start;
+        if (level == 0 || level > MAXIMUM_HEADER_LEVEL
+            || position == end || content.charAt(position) != ' ')
+        {
+            return 0;
+        }
+        for (position++; position < end; position++)
+        {
+            if (isLineTerminator(content.charAt(position)))
+            {
+                return 0;
+            }
+        }
+        return level;
+    }
+
+    /// @return The title of the header on the line with the given index, with the given level.
+    String headerTitle(int lineIndex, int level)
+    {
+        var titleStart = text.lineStart(lineIndex) + level + 1;
+        return text.text().substring(titleStart, text.lineEnd(lineIndex));
+    }
+
+    /// Line terminators as defined by [java.util.regex.Pattern]; the line separator of the
+    /// [DocumentText] itself never occurs within a line.
+    private static boolean isLineTerminator(char c)
+    {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static int token(TokenType type, TokenStatus status)
+    {
+        return type.ordinal() | status.ordinal() << TOKEN_STATUS_SHIFT;
+    }
+
+    static TokenType tokenType(int token)
+    {
+        return TOKEN_TYPES[token & TOKEN_TYPE_MASK];
+    }
+
+    static TokenStatus tokenStatus(int token)
+    {
+        return TOKEN_STATUSES[token >>> TOKEN_STATUS_SHIFT & TOKEN_STATUS_MASK];
+    }
+
+    /// @return The level of a [TokenType#HEADER] token, 0 for all other tokens.
+    static int headerLevel(int token)
+    {
+        return token >>> HEADER_LEVEL_SHIFT;
     }
 
     private enum Mode
@@ -153,7 +322,8 @@ class MarkdownTokenizer
     {
         return new Iterator<>()
         {
-            private final int size = lines.size();
+            private final int size = text.lineCount();
+            private final Matcher headerMatcher = HEADER_PATTERN.matcher(text.text());
             private Mode mode = Mode.TEXT;
             private int index = 0;
 
@@ -176,8 +346,7 @@ class MarkdownTokenizer
                 {
                     return documentEnd(size);
                 }
-                var line = lines.get(i);
-                if (i == 0 && line.contentEquals(FRONT_MATTER_MARKER))
+                if (i == 0 && text.lineEquals(i, FRONT_MATTER_MARKER))
                 {
                     mode = Mode.FRONT_MATTER;
                     return frontMatter(i, START);
@@ -185,14 +354,14 @@ class MarkdownTokenizer
                 if (mode == Mode.FRONT_MATTER)
                 {
                     var status = CONTENT;
-                    if (line.contentEquals(FRONT_MATTER_MARKER))
+                    if (text.lineEquals(i, FRONT_MATTER_MARKER))
                     {
                         status = END;
                         mode = Mode.TEXT;
                     }
                     return frontMatter(i, status);
                 }
-                if (mode == Mode.TEXT && line.startsWith(QUERY_CONFIGURATION_PREFIX))
+                if (mode == Mode.TEXT && text.lineStartsWith(i, QUERY_CONFIGURATION_PREFIX))
                 {
                     mode = Mode.QUERY;
                     return query(i, START);
@@ -200,19 +369,19 @@ class MarkdownTokenizer
                 if (mode == Mode.QUERY)
                 {
                     var status = CONTENT;
-                    if (line.startsWith(QUERY_CONFIGURATION_PREFIX))
+                    if (text.lineStartsWith(i, QUERY_CONFIGURATION_PREFIX))
                     {
                         status = START;
                     }
-                    else if (line.startsWith(QUERY_OUTPUT_PREFIX) &&
-                             line.endsWith(QUERY_OUTPUT_POSTFIX))
+                    else if (text.lineStartsWith(i, QUERY_OUTPUT_PREFIX) &&
+                             text.lineEndsWith(i, QUERY_OUTPUT_POSTFIX))
                     {
                         status = END;
                         mode = Mode.TEXT;
                     }
                     return query(i, status);
                 }
-                if (mode == Mode.TEXT && line.startsWith(CODE_MARKER))
+                if (mode == Mode.TEXT && text.lineStartsWith(i, CODE_MARKER))
                 {
                     mode = Mode.CODE;
                     return code(i, START);
@@ -220,18 +389,18 @@ class MarkdownTokenizer
                 if (mode == Mode.CODE)
                 {
                     var status = CONTENT;
-                    if (line.contentEquals(CODE_MARKER))
+                    if (text.lineEquals(i, CODE_MARKER))
                     {
                         status = END;
                         mode = Mode.TEXT;
                     }
                     return code(i, status);
                 }
-                var matcher = HEADER_PATTERN.matcher(line);
-                if (matcher.matches())
+                headerMatcher.region(text.lineStart(i), text.lineEnd(i));
+                if (headerMatcher.matches())
                 {
-                    var level = matcher.group(1).length();
-                    var title = matcher.group(2);
+                    var level = headerMatcher.end(1) - headerMatcher.start(1);
+                    var title = headerMatcher.group(2);
                     return header(i, level, title);
                 }
                 return text(i);
@@ -6,7 +6,6 @@ import nl.ulso.dictionary.Dictionary;
 import java.util.*;
 
 import static java.lang.Character.isLetterOrDigit;
-import static java.lang.String.join;
 import static java.lang.System.lineSeparator;
 import static nl.ulso.dictionary.Dictionary.yamlDictionary;
 
@@ -43,6 +42,11 @@ import static nl.ulso.dictionary.Dictionary.yamlDictionary;
 /// The simplest way to add a new query to a page is to add an empty query block. After saving the
 /// page, this tool will pick it up and insert the output, which consists of a list of available
 /// queries. Then go from there.
+///
+/// The identity of a query block is made up of the name of its document, its ordinal (the first
+/// query in the document is 0, the next 1, and so on) and its definition. The output is not part of
+/// it. That makes the identity stable across versions of a document, as long as the query is not
+/// moved or changed. It also makes it cheap to compute.
 public final class QueryBlock
     extends FragmentBase
     implements Fragment, QueryDefinition
@@ -56,7 +60,8 @@ public final class QueryBlock
     private static final char QUERY_NAME_MARKER = ':';
     private static final String DEFAULT_NAME = "none";
 
-    private final String id;
+    private final String documentName;
+    private final int ordinal;
     private final String definitionString;
     private final String queryName;
     private final Dictionary configuration;
@@ -64,25 +69,45 @@ public final class QueryBlock
 
     QueryBlock(List<String> lines)
     {
-        id = UUID.randomUUID().toString();
-        var definitionEnd = findDefinitionEnd(lines);
-        definitionString = join(lineSeparator(), lines.subList(0, definitionEnd + 1));
-        var parser = new QueryParser(lines, definitionEnd);
+        this(lines, "", 0);
+    }
+
+    QueryBlock(List<String> lines, String documentName, int ordinal)
+    {
+        this(DocumentText.of(lines), 0, lines.size(), documentName, ordinal);
+    }
+
+    QueryBlock(DocumentText text, int startIndex, int endIndex, String documentName, int ordinal)
+    {
+        this.documentName = documentName;
+        this.ordinal = ordinal;
+        var definitionEnd = findDefinitionEnd(text, startIndex, endIndex);
+        definitionString = text.joinedLines(startIndex, definitionEnd + 1);
+        var parser = new QueryParser(definitionString);
         queryName = parser.queryName();
         configuration = yamlDictionary(parser.configuration());
-        outputHash = parser.outputHash();
+        outputHash = parseOutputHash(text.line(endIndex - 1));
     }
 
-    private int findDefinitionEnd(List<String> lines)
+    private QueryBlock(QueryBlock original)
     {
-        var i = 0;
-        for (var line : lines)
+        super(original);
+        this.documentName = original.documentName;
+        this.ordinal = original.ordinal;
+        this.definitionString = original.definitionString;
+        this.queryName = original.queryName;
+        this.configuration = original.configuration;
+        this.outputHash = original.outputHash;
+    }
+
+    static int findDefinitionEnd(DocumentText text, int startIndex, int endIndex)
+    {
+        for (var i = startIndex; i < endIndex; i++)
         {
-            if (line.endsWith(QUERY_CONFIGURATION_POSTFIX))
+            if (text.lineEndsWith(i, QUERY_CONFIGURATION_POSTFIX))
             {
                 return i;
             }
-            i++;
         }
         throw new IllegalStateException("A query MUST have a definition ending");
     }
@@ -102,6 +127,25 @@ public final class QueryBlock
         return outputHash;
     }
 
+    /// @return The position of this query in its document: 0 for the first query, and so on.
+    int ordinal()
+    {
+        return ordinal;
+    }
+
+    /// @return The definition of this query, exactly as it was written in the document.
+    String definition()
+    {
+        return definitionString;
+    }
+
+    /// @return A copy of this query block, not part of any document yet, that shares its
+    /// definition and configuration.
+    QueryBlock copy()
+    {
+        return new QueryBlock(this);
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -111,7 +155,9 @@ public final class QueryBlock
         }
         if (o instanceof QueryBlock queryBlock)
         {
-            return Objects.equals(id, queryBlock.id);
+            return ordinal == queryBlock.ordinal
+                   && Objects.equals(documentName, queryBlock.documentName)
+                   && Objects.equals(definitionString, queryBlock.definitionString);
         }
         return false;
     }
@@ -119,7 +165,7 @@ public final class QueryBlock
     @Override
     public int hashCode()
     {
-        return Objects.hash(id);
+        return Objects.hash(documentName, ordinal, definitionString);
     }
 
     @Override
@@ -140,15 +186,29 @@ public final class QueryBlock
                QUERY_OUTPUT_POSTFIX + lineSeparator();
     }
 
+    /// @return The hash in the last line of a query block, or an empty string if there is none.
+    static String parseOutputHash(String lastLine)
+    {
+        int hashStart = lastLine.indexOf(QUERY_HASH_PREFIX, QUERY_OUTPUT_PREFIX.length());
+        if (hashStart != -1)
+        {
+            int hashEnd = lastLine.indexOf(QUERY_HASH_POSTFIX, hashStart);
+            if (hashEnd != -1)
+            {
+                return lastLine.substring(hashStart + 1, hashEnd);
+            }
+        }
+        return "";
+    }
+
     private static final class QueryParser
     {
         private String queryName;
         private String configuration;
-        private String outputHash;
 
-        QueryParser(List<String> lines, int definitionEnd)
+        QueryParser(String definition)
         {
-            var query = join(lineSeparator(), lines.subList(0, definitionEnd + 1))
+            var query = definition
                 .substring(QUERY_CONFIGURATION_PREFIX.length())
                 .trim();
             if (!query.isEmpty() && query.charAt(0) == QUERY_NAME_MARKER)
@@ -174,16 +234,6 @@ public final class QueryBlock
             {
                 configuration = query.substring(0, split).trim();
             }
-            var lastLine = lines.getLast();
-            int hashStart = lastLine.indexOf(QUERY_HASH_PREFIX, QUERY_OUTPUT_PREFIX.length());
-            if (hashStart != -1)
-            {
-                int hashEnd = lastLine.indexOf(QUERY_HASH_POSTFIX, hashStart);
-                if (hashEnd != -1)
-                {
-                    outputHash = lastLine.substring(hashStart + 1, hashEnd);
-                }
-            }
         }
 
         String queryName()
@@ -195,10 +245,5 @@ public final class QueryBlock
         {
             return configuration != null ? configuration : "";
         }
-
-        String outputHash()
-        {
-            return outputHash != null ? outputHash : "";
-        }
     }
 }
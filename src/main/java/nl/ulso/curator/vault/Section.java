@@ -37,6 +37,21 @@ public final class Section
         this.sortableTitle = stripEmojisFrom(title).trim();
     }
 
+    private Section(Section original, List<Fragment> fragments)
+    {
+        super(original, fragments);
+        this.level = original.level;
+        this.title = original.title;
+        this.sortableTitle = original.sortableTitle;
+    }
+
+    /// @return A copy of this section, not part of any document yet, with the same level and title
+    /// and the given fragments, which must be copies of the fragments of this section.
+    Section copy(List<Fragment> fragments)
+    {
+        return new Section(this, fragments);
+    }
+
     @Override
     public boolean equals(Object o)
     {
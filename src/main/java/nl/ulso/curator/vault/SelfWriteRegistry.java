@@ -0,0 +1,134 @@
+package nl.ulso.curator.vault;
+
+import io.methvin.watcher.hashing.FileHash;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/// Keeps track of the writes of documents by the curator itself, so that the [FileSystemVault]
+/// can recognize the file system events they cause, and drop them before they result in a change.
+///
+/// A write is registered with the path of the document and the hash the directory watcher will
+/// compute for it after the write. An event is recognized as a self-write only if it is for the
+/// same path and has the same hash. If the user edits the document right after the curator wrote
+/// it, the hash is different, and the event is handled as any other. Any expected writes for the
+/// path are then forgotten: the document is no longer what the curator wrote.
+///
+/// Since the same document can be written again before the watcher reports the previous write,
+/// there can be more than one expected write per path. An event that matches one of them also
+/// consumes all writes that were registered before it.
+///
+/// An event for a write might never arrive, for example because the watcher coalesced it with
+/// another event, or because the write failed. Expected writes therefore expire after a while.
+final class SelfWriteRegistry
+{
+    private static final Logger LOGGER = getLogger(SelfWriteRegistry.class);
+    static final Duration TIME_TO_LIVE = Duration.ofSeconds(30);
+
+    private final Clock clock;
+    private final Map<Path, List<ExpectedWrite>> expectedWrites;
+    private final AtomicLong recognizedWriteCount;
+    private final AtomicLong expiredWriteCount;
+
+    SelfWriteRegistry()
+    {
+        this(Clock.systemUTC());
+    }
+
+    SelfWriteRegistry(Clock clock)
+    {
+        this.clock = clock;
+        this.expectedWrites = new ConcurrentHashMap<>();
+        this.recognizedWriteCount = new AtomicLong();
+        this.expiredWriteCount = new AtomicLong();
+    }
+
+    /// Registers an upcoming write to the file at the path; can be called from any thread.
+    void expect(Path path, FileHash hash)
+    {
+        var expectedWrite = new ExpectedWrite(hash, clock.millis() + TIME_TO_LIVE.toMillis());
+        expectedWrites.compute(path, (_, writes) ->
+        {
+            var list = writes != null ? writes : new ArrayList<ExpectedWrite>(1);
+            list.add(expectedWrite);
+            return list;
+        });
+    }
+
+    /// Checks whether a change to the file at the path is caused by a write of the curator itself.
+    ///
+    /// @param hash The hash of the file after the change, or `null` if it was deleted.
+    /// @return `true` if the change is an expected write that didn't expire.
+    boolean isSelfWrite(Path path, FileHash hash)
+    {
+        var now = clock.millis();
+        var recognized = new boolean[1];
+        expectedWrites.computeIfPresent(path, (_, writes) ->
+        {
+            for (var i = writes.size() - 1; i >= 0; i--)
+            {
+                var write = writes.get(i);
+                if (write.expiresAt() >= now && write.hash().equals(hash))
+                {
+                    recognized[0] = true;
+                    writes.subList(0, i + 1).clear();
+                    return writes.isEmpty() ? null : writes;
+                }
+            }
+            return null;
+        });
+        if (recognized[0])
+        {
+            recognizedWriteCount.incrementAndGet();
+        }
+        return recognized[0];
+    }
+
+    /// Forgets all expected writes that expired.
+    void expire()
+    {
+        var now = clock.millis();
+        for (var path : expectedWrites.keySet())
+        {
+            expectedWrites.computeIfPresent(path, (_, writes) ->
+            {
+                var size = writes.size();
+                writes.removeIf(write -> write.expiresAt() < now);
+                if (writes.size() < size)
+                {
+                    LOGGER.debug("Write of '{}' by the curator was never reported; forgetting it.",
+                        path
+                    );
+                    expiredWriteCount.addAndGet(size - writes.size());
+                }
+                return writes.isEmpty() ? null : writes;
+            });
+        }
+    }
+
+    int size()
+    {
+        return expectedWrites.values().stream().mapToInt(List::size).sum();
+    }
+
+    long recognizedWriteCount()
+    {
+        return recognizedWriteCount.get();
+    }
+
+    long expiredWriteCount()
+    {
+        return expiredWriteCount.get();
+    }
+
+    private record ExpectedWrite(FileHash hash, long expiresAt)
+    {
+    }
+}
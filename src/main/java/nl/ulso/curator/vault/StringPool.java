@@ -0,0 +1,139 @@
+package nl.ulso.curator.vault;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import nl.ulso.curator.statistics.MeasurementCollector;
+import nl.ulso.curator.statistics.MeasurementTracker;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Deduplicates strings that occur many times in a vault: folder and document names, section
+/// titles, front matter keys, link targets, and so on.
+///
+/// Every time a document is parsed, each of these strings is a new copy, even though many of them
+/// are equal to strings that are already in memory. By passing them through the pool, all equal
+/// strings end up as the same instance. For example, the target of a link to a document is the same
+/// instance as the name of that document.
+///
+/// There is a single pool per vault. It is safe to use from multiple threads: the pool is split
+/// into stripes, each with a lock of its own, so that threads that parse documents in parallel
+/// hardly ever wait for each other. The pool holds on to its strings weakly: a string that is no
+/// longer used anywhere else, like a heading that existed only in an intermediate version of a
+/// document, is removed from the pool by the garbage collector.
+///
+/// The pool keeps track of how many strings it deduplicated, and roughly how much memory that
+/// saved, since it was created. Each hit counts, also when a document is parsed again; these are
+/// the copies that would have been allocated without the pool.
+@Singleton
+public final class StringPool
+    implements MeasurementTracker
+{
+    /// Pool that doesn't deduplicate anything, for documents that are not part of a vault.
+    public static final StringPool NONE = new StringPool(false);
+
+    // Must be a power of 2.
+    private static final int STRIPE_COUNT = 64;
+
+    // Rough estimate of the size of a String object and its (compact) byte array, without content.
+    private static final int STRING_OVERHEAD = 40;
+
+    private final Stripe[] stripes;
+    private final LongAdder deduplicatedCount;
+    private final LongAdder savedBytes;
+
+    @Inject
+    public StringPool()
+    {
+        this(true);
+    }
+
+    private StringPool(boolean enabled)
+    {
+        this.stripes = enabled ? new Stripe[STRIPE_COUNT] : null;
+        if (enabled)
+        {
+            for (var i = 0; i < STRIPE_COUNT; i++)
+            {
+                stripes[i] = new Stripe();
+            }
+        }
+        this.deduplicatedCount = new LongAdder();
+        this.savedBytes = new LongAdder();
+    }
+
+    /// @return The instance in the pool that is equal to the given string; if there isn't one, the
+    /// given string is added to the pool and returned.
+    public String intern(String string)
+    {
+        if (stripes == null)
+        {
+            return string;
+        }
+        var hash = string.hashCode();
+        var pooled = stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)].intern(string);
+        if (pooled != string)
+        {
+            deduplicatedCount.increment();
+            savedBytes.add(STRING_OVERHEAD + string.length());
+        }
+        return pooled;
+    }
+
+    /// @return The number of distinct strings in the pool that are still in use.
+    int size()
+    {
+        if (stripes == null)
+        {
+            return 0;
+        }
+        var size = 0;
+        for (var stripe : stripes)
+        {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /// @return The number of strings that were deduplicated since the pool was created.
+    long deduplicatedCount()
+    {
+        return deduplicatedCount.sum();
+    }
+
+    @Override
+    public void collectMeasurements(MeasurementCollector collector)
+    {
+        collector.forModule("vault")
+            .total("pooled_strings", size())
+            .total("deduplicated_strings", deduplicatedCount.sum())
+            .total("deduplicated_bytes", savedBytes.sum());
+    }
+
+    /// Part of the pool, with a lock of its own.
+    private static final class Stripe
+    {
+        // The keys are the pooled instances themselves; the values refer to them weakly as well,
+        // or else the keys would never be collected.
+        private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+        synchronized String intern(String string)
+        {
+            var reference = strings.get(string);
+            var pooled = reference != null ? reference.get() : null;
+            if (pooled != null)
+            {
+                return pooled;
+            }
+            strings.put(string, new WeakReference<>(string));
+            return string;
+        }
+
+        synchronized int size()
+        {
+            return strings.size();
+        }
+    }
+}
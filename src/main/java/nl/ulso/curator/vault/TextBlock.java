@@ -8,15 +8,31 @@ import static java.lang.System.lineSeparator;
 
 /// Represents a block of text in a Markdown document. This is the default type of content, meaning
 /// that anything not specifically handled differently is considered to be text.
+///
+/// In bounded memory mode, the text of a block in a cold document can be evicted from memory; see
+/// [TextEviction]. Everything else about the block stays in memory, including the internal links
+/// in it. Comparing blocks, hashing them and finding links in them never needs the text to be
+/// restored. Only [#markdown()] does.
 public final class TextBlock
     extends FragmentBase
     implements Fragment
 {
-    private final String markdown;
+    private final TextBody body;
 
     TextBlock(List<String> lines)
     {
-        this.markdown = join(lineSeparator(), lines) + lineSeparator();
+        this(join(lineSeparator(), lines) + lineSeparator());
+    }
+
+    TextBlock(String markdown)
+    {
+        this.body = new TextBody(markdown);
+    }
+
+    private TextBlock(TextBlock original)
+    {
+        super(original);
+        this.body = original.body;
     }
 
     @Override
@@ -28,7 +44,7 @@ public final class TextBlock
         }
         if (o instanceof TextBlock textBlock)
         {
-            return Objects.equals(markdown, textBlock.markdown);
+            return Objects.equals(body, textBlock.body);
         }
         return false;
     }
@@ -36,7 +52,7 @@ public final class TextBlock
     @Override
     public int hashCode()
     {
-        return Objects.hash(markdown);
+        return Objects.hashCode(body);
     }
 
     @Override
@@ -45,9 +61,42 @@ public final class TextBlock
         visitor.visit(this);
     }
 
+    /// @return The text of this block. If it was evicted from memory, it is read from disk first.
+    /// That is possible only if the document didn't change on disk since it was loaded. If it did,
+    /// the document is stale, and the text is empty; see [Document#isStale()].
     public String markdown()
     {
-        return markdown;
+        var result = body.residentText();
+        if (result != null)
+        {
+            return result;
+        }
+        return TextEviction.restoreText(this).orElse("");
+    }
+
+    /// @return The text of this block if it is in memory, `null` if it was evicted.
+    String residentMarkdown()
+    {
+        return body.residentText();
+    }
+
+    /// @return The text of this block if it is in memory, otherwise just the internal links in it.
+    String linkSource()
+    {
+        return body.linkSource();
+    }
+
+    TextBody body()
+    {
+        return body;
+    }
+
+    /// @return A copy of this block, not part of any document yet, that shares its text. A copy is
+    /// made for a new version of a document, which is not cold: it keeps its text in memory.
+    TextBlock copy()
+    {
+        body.retain();
+        return new TextBlock(this);
     }
 
     public List<InternalLink> findInternalLinks()
@@ -0,0 +1,147 @@
+package nl.ulso.curator.vault;
+
+import java.lang.ref.SoftReference;
+
+/// The text of a [TextBlock], which can be evicted from memory; see [TextEviction].
+///
+/// A body is immutable, except for where its text is kept: in memory, through a soft reference
+/// that the garbage collector may clear, or nowhere. Changing that takes a lock on the body;
+/// reading the text doesn't. Copies of a text block for new versions of the same document share
+/// its body, so that text that is restored once is restored for all of them.
+///
+/// Some facts about the text are kept in memory at all times, so that they never require the text
+/// to be restored: its hash code, a 64-bit fingerprint and its length, for comparing bodies, and
+/// the internal links in the text, as Markdown. Two bodies are equal if their texts are equal. If
+/// the text of either body is not in memory, they are equal if their hash codes, fingerprints and
+/// lengths are; the chance that two different texts match on all of these is negligible.
+final class TextBody
+{
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int hash;
+    private final long fingerprint;
+    private final int length;
+    private volatile String text;
+    private volatile SoftReference<String> evictableText;
+    private volatile String links;
+
+    TextBody(String text)
+    {
+        this.hash = text.hashCode();
+        this.fingerprint = fingerprintOf(text);
+        this.length = text.length();
+        this.text = text;
+    }
+
+    /// FNV-1a, over the characters of the text.
+    private static long fingerprintOf(String text)
+    {
+        var result = FNV_OFFSET_BASIS;
+        for (var i = 0; i < text.length(); i++)
+        {
+            result = (result ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return result;
+    }
+
+    /// @return The text, if it is in memory; `null` if it was evicted.
+    String residentText()
+    {
+        var result = text;
+        if (result != null)
+        {
+            return result;
+        }
+        var reference = evictableText;
+        // If there's no reference, the text was retained again in the meantime.
+        return reference != null ? reference.get() : text;
+    }
+
+    /// @return The text if it is in memory, otherwise the internal links in it; these are all that
+    /// [InternalLinkFinder] needs.
+    String linkSource()
+    {
+        var result = residentText();
+        return result != null ? result : links;
+    }
+
+    /// Allows the garbage collector to remove the text from memory. The internal links in the text
+    /// are kept.
+    ///
+    /// @return `true` if the text was resident, and is now evictable.
+    synchronized boolean makeEvictable()
+    {
+        var result = text;
+        if (result == null)
+        {
+            return false;
+        }
+        links = InternalLinkFinder.internalLinksMarkdown(result);
+        evictableText = new SoftReference<>(result);
+        text = null;
+        return true;
+    }
+
+    /// Keeps the text in memory again, if it is still there.
+    ///
+    /// @return `true` if the text is in memory, `false` if it was evicted.
+    synchronized boolean retain()
+    {
+        var result = residentText();
+        if (result == null)
+        {
+            return false;
+        }
+        text = result;
+        evictableText = null;
+        links = null;
+        return true;
+    }
+
+    /// Puts text that was read from disk again back in place, still evictable.
+    synchronized void restore(String restoredText)
+    {
+        if (residentText() == null)
+        {
+            evictableText = new SoftReference<>(restoredText);
+        }
+    }
+
+    /// Removes the text from memory right away, if it is evictable; this is what the garbage
+    /// collector does when memory runs low.
+    void evict()
+    {
+        var reference = evictableText;
+        if (reference != null)
+        {
+            reference.clear();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (o instanceof TextBody body)
+        {
+            if (hash != body.hash || fingerprint != body.fingerprint || length != body.length)
+            {
+                return false;
+            }
+            var thisText = residentText();
+            var otherText = body.residentText();
+            return thisText == null || otherText == null || thisText.equals(otherText);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+}
@@ -0,0 +1,234 @@
+package nl.ulso.curator.vault;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.readString;
+import static nl.ulso.curator.vault.Document.newDocument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/// Keeps the memory use of a vault in check by allowing the garbage collector to evict the text of
+/// cold documents; see ADR0009.
+///
+/// A document is cold if it wasn't modified for some time, or if it is outside the hot folders (if
+/// any). The text blocks of a cold document hold their text through soft references only; see
+/// [TextBody]. Everything else - the document itself, its front matter, sections, code blocks,
+/// queries, and the internal links in its text - always stays in memory.
+///
+/// Evicted text is read from disk again when it's needed, for all text blocks in the document at
+/// once. That is possible only if the document on disk is still the same: its time of last
+/// modification must be equal to that of the document in memory. If it isn't, or if the document
+/// is gone, the document is stale: its evicted text is lost. That is reported, and never replaced
+/// with text from another version of the document. The vault replaces a stale document as soon as
+/// it processes the change on disk.
+///
+/// Because documents get colder over time, the vault checks all documents again from time to time.
+/// This check only looks at the time of last modification and the folder of each document; it
+/// doesn't touch their content.
+final class TextEviction
+{
+    private static final Logger LOGGER = getLogger(TextEviction.class);
+    private static final Duration CHECK_INTERVAL = Duration.ofHours(1);
+
+    static final TextEviction NONE =
+        new TextEviction(Optional.empty(), Set.of(), Clock.systemUTC());
+
+    private final Optional<Duration> evictTextAfter;
+    private final Set<String> hotFolders;
+    private final Clock clock;
+    private long lastCheck;
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    TextEviction(Optional<Duration> evictTextAfter, Set<String> hotFolders, Clock clock)
+    {
+        this.evictTextAfter = evictTextAfter;
+        this.hotFolders = hotFolders;
+        this.clock = clock;
+    }
+
+    static TextEviction forSettings(VaultSettings settings)
+    {
+        if (settings.evictTextAfter().isEmpty())
+        {
+            return NONE;
+        }
+        return new TextEviction(
+            settings.evictTextAfter(), settings.hotFolders(), Clock.systemUTC());
+    }
+
+    /// Makes the text of all cold documents in the vault evictable, if the last check was long enough
+    /// ago.
+    void checkPeriodically(FileSystemVault vault)
+    {
+        if (clock.millis() - lastCheck >= CHECK_INTERVAL.toMillis())
+        {
+            check(vault);
+        }
+    }
+
+    /// Makes the text of all cold documents in the vault evictable.
+    void check(FileSystemVault vault)
+    {
+        if (evictTextAfter.isEmpty())
+        {
+            return;
+        }
+        lastCheck = clock.millis();
+        var coldBefore = lastCheck - evictTextAfter.get().toMillis();
+        var count = makeColdTextEvictable(vault, coldBefore);
+        LOGGER.debug("The text of {} more cold documents in '{}' can be evicted from memory.",
+            count, vault.name()
+        );
+    }
+
+    private int makeColdTextEvictable(Folder folder, long coldBefore)
+    {
+        var count = 0;
+        for (var document : folder.documents())
+        {
+            if (document.lastModified() < coldBefore || !isInHotFolder(document))
+            {
+                var evictable = false;
+                for (var textBlock : textBlocksOf(document))
+                {
+                    evictable |= textBlock.body().makeEvictable();
+                }
+                if (evictable)
+                {
+                    count++;
+                }
+            }
+        }
+        for (var subfolder : folder.folders())
+        {
+            count += makeColdTextEvictable(subfolder, coldBefore);
+        }
+        return count;
+    }
+
+    private boolean isInHotFolder(Document document)
+    {
+        if (hotFolders.isEmpty())
+        {
+            return true;
+        }
+        for (var hotFolder : hotFolders)
+        {
+            if (document.isInPath(hotFolder))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /// Reads the evicted text of all text blocks in the document of a text block from disk again.
+    ///
+    /// @return The text of the text block, or nothing if the document is stale.
+    static Optional<String> restoreText(TextBlock textBlock)
+    {
+        var document = textBlock.document();
+        if (document == null)
+        {
+            return Optional.empty();
+        }
+        var vault = vaultOf(document);
+        if (vault.isEmpty())
+        {
+            return reportStale(document, "it is not in a vault");
+        }
+        var path = vault.get().resolveAbsolutePath(document);
+        LOGGER.trace("Restoring evicted text of document '{}' from disk.", path);
+        Document current;
+        try
+        {
+            var lastModified = getLastModifiedTime(path).toMillis();
+            if (lastModified != document.lastModified())
+            {
+                return reportStale(document, "it changed on disk");
+            }
+            current = newDocument(document.name(), lastModified,
+                DocumentText.of(readString(path))
+            );
+            if (getLastModifiedTime(path).toMillis() != lastModified)
+            {
+                return reportStale(document, "it changed on disk");
+            }
+        }
+        catch (IOException e)
+        {
+            return reportStale(document, "it can't be read: " + e.getMessage());
+        }
+        var blocks = textBlocksOf(document);
+        var currentBlocks = textBlocksOf(current);
+        if (!current.equals(document) || blocks.size() != currentBlocks.size())
+        {
+            return reportStale(document, "its content on disk is different");
+        }
+        String result = null;
+        for (var i = 0; i < blocks.size(); i++)
+        {
+            var block = blocks.get(i);
+            var text = currentBlocks.get(i).markdown();
+            block.body().restore(text);
+            if (block == textBlock)
+            {
+                result = text;
+            }
+        }
+        return Optional.ofNullable(result);
+    }
+
+    private static Optional<String> reportStale(Document document, String reason)
+    {
+        if (!document.isStale())
+        {
+            document.markStale();
+            LOGGER.warn("Evicted text of document '{}' is lost: {}.", document, reason);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<FileSystemVault> vaultOf(Document document)
+    {
+        Folder folder = document.folder();
+        while (folder != null && !folder.isRoot())
+        {
+            folder = folder.parent();
+        }
+        return folder instanceof FileSystemVault vault ? Optional.of(vault) : Optional.empty();
+    }
+
+    private static List<TextBlock> textBlocksOf(Document document)
+    {
+        var textBlocks = new ArrayList<TextBlock>();
+        document.accept(new BreadthFirstVaultVisitor()
+        {
+            @Override
+            public void visit(TextBlock textBlock)
+            {
+                textBlocks.add(textBlock);
+            }
+        });
+        return textBlocks;
+    }
+
+    /// Removes all evictable text in a folder and its subfolders from memory right away; this is
+    /// what the garbage collector does when memory runs low.
+    static void evictText(Folder folder)
+    {
+        for (var document : folder.documents())
+        {
+            textBlocksOf(document).forEach(textBlock -> textBlock.body().evict());
+        }
+        folder.folders().forEach(TextEviction::evictText);
+    }
+}
@@ -2,8 +2,17 @@ package nl.ulso.curator.vault;
 
 import nl.ulso.curator.change.Change;
 
+import java.util.List;
+
 /// Callback that is triggered whenever a meaningful change to the vault has been detected.
 public interface VaultChangedCallback
 {
     void vaultChanged(Change<?> change);
+
+    /// Called with a batch of changes that were detected together, in order; see [ChangeBatch]. By
+    /// default, each change in the batch is handled on its own.
+    default void vaultChanged(List<Change<?>> changes)
+    {
+        changes.forEach(this::vaultChanged);
+    }
 }
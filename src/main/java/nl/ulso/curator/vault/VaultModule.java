@@ -16,10 +16,17 @@ public abstract class VaultModule
     @Binds
     abstract DocumentPathResolver bindDocumentPathResolver(FileSystemVault vault);
 
+    @Binds
+    abstract DocumentWriteHandler bindDocumentWriteHandler(FileSystemVault vault);
+
     @Binds
     abstract ExternalChangeHandler bindExternalChangeHandler(FileSystemVault vault);
 
     @Binds
     @IntoSet
     abstract MeasurementTracker bindMeasurementTracker(FileSystemVault vault);
+
+    @Binds
+    @IntoSet
+    abstract MeasurementTracker bindStringPoolMeasurementTracker(StringPool stringPool);
 }
@@ -0,0 +1,118 @@
+package nl.ulso.curator.vault;
+
+import io.methvin.watcher.hashing.FileHash;
+import io.methvin.watcher.hashing.FileHasher;
+import io.methvin.watcher.visitor.FileTreeVisitor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.methvin.watcher.visitor.FileTreeVisitor.DEFAULT_FILE_TREE_VISITOR;
+
+/// Records the walk over the file tree that loads the vault, so that the directory watcher doesn't
+/// have to walk and hash the vault all over again when it starts.
+///
+/// The scan is both the [FileTreeVisitor] and the [FileHasher] of the watcher. When the watcher
+/// walks the root of the vault, the scan replays the directories and documents that were found
+/// while loading the vault, instead of walking the file tree on disk. Hidden directories and files
+/// other than documents are not part of the scan; the vault ignores them anyway. The hash of each
+/// document is computed from the attributes and content that were read to load it. Each hash is
+/// handed out once; after that, and for files that weren't part of the scan, the scan delegates to
+/// the actual [FileHasher].
+///
+/// The hash of a document that was restored from a [VaultSnapshot] can only be computed if the
+/// [FileHashing] doesn't need its content; otherwise the watcher reads it from disk.
+final class VaultScan
+    implements FileTreeVisitor, FileHasher
+{
+    /// Scan that doesn't record anything, for reloads of the vault; see
+    /// [FileSystemVault#reload()].
+    static final VaultScan NONE = new VaultScan(null, FileHashing.PLATFORM_DEFAULT);
+
+    private final Path root;
+    private final FileHashing fileHashing;
+    private final FileHasher fileHasher;
+    private final List<Path> directories;
+    private final List<Path> files;
+    private final Map<Path, FileHash> fileHashes;
+
+    VaultScan(Path root, FileHashing fileHashing)
+    {
+        this.root = root;
+        this.fileHashing = fileHashing;
+        this.fileHasher = fileHashing.fileHasher();
+        this.directories = new ArrayList<>();
+        this.files = new ArrayList<>();
+        this.fileHashes = new ConcurrentHashMap<>();
+    }
+
+    /// Records a directory; to be called from the thread that walks the file tree.
+    void addDirectory(Path directory)
+    {
+        if (root != null)
+        {
+            directories.add(directory);
+        }
+    }
+
+    /// Records a document; to be called from the thread that walks the file tree.
+    void addFile(Path file, BasicFileAttributes attributes)
+    {
+        if (root != null)
+        {
+            files.add(file);
+            addHash(file, attributes, null);
+        }
+    }
+
+    /// Records the content of a document that was read while loading the vault; can be called from
+    /// any thread.
+    void addContent(Path file, BasicFileAttributes attributes, byte[] content)
+    {
+        if (root != null && !fileHashes.containsKey(file))
+        {
+            addHash(file, attributes, content);
+        }
+    }
+
+    private void addHash(Path file, BasicFileAttributes attributes, byte[] content)
+    {
+        var hash = fileHashing.hash(attributes, content);
+        if (hash != null)
+        {
+            fileHashes.put(file, hash);
+        }
+    }
+
+    @Override
+    public void recursiveVisitFiles(Path path, Callback onDirectory, Callback onFile)
+        throws IOException
+    {
+        if (root == null || !root.equals(path))
+        {
+            DEFAULT_FILE_TREE_VISITOR.recursiveVisitFiles(path, onDirectory, onFile);
+            return;
+        }
+        for (var directory : directories)
+        {
+            onDirectory.call(directory);
+        }
+        for (var file : files)
+        {
+            onFile.call(file);
+        }
+    }
+
+    @Override
+    public FileHash hash(Path path)
+        throws IOException
+    {
+        var hash = fileHashes.remove(path);
+        return hash != null ? hash : fileHasher.hash(path);
+    }
+}
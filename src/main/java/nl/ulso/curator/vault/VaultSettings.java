@@ -0,0 +1,86 @@
+package nl.ulso.curator.vault;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+
+/// Settings for the [Vault].
+///
+/// Binding an instance of this record in a curator module is optional. Without it, the [#DEFAULT]
+/// settings apply. Start from the defaults and override specific settings with the `with` methods.
+///
+/// @param parallelLoading     whether to read and parse documents in parallel when loading the
+///                            vault.
+/// @param snapshotFile        file to store a snapshot of the parsed vault in on shutdown, to
+///                            speed up the next start. Without it, the vault is always loaded from
+///                            scratch.
+/// @param evictTextAfter      time after which the text of a document that wasn't modified can be
+///                            evicted from memory. Without it, all text is kept in memory.
+/// @param hotFolders          folders, from the root of the vault, outside of which the text of all
+///                            documents can be evicted from memory, no matter when they were
+///                            modified.
+///                            Without any, only the time of last modification counts. Ignored
+///                            unless `evictTextAfter` is set.
+/// @param fileHashing         how the directory watcher detects that a file has changed.
+/// @param bulkChangeThreshold number of file system events in a single burst above which the
+///                            vault switches to bulk mode: instead of handling each event, it
+///                            rescans the affected folders once the burst is over.
+public record VaultSettings(
+    boolean parallelLoading, Optional<Path> snapshotFile, Optional<Duration> evictTextAfter,
+    Set<String> hotFolders, FileHashing fileHashing, int bulkChangeThreshold)
+{
+    public static final VaultSettings DEFAULT = new VaultSettings(
+        false, empty(), empty(), Set.of(), FileHashing.PLATFORM_DEFAULT, 500);
+
+    public VaultSettings
+    {
+        requireNonNull(snapshotFile);
+        requireNonNull(evictTextAfter);
+        requireNonNull(fileHashing);
+        if (bulkChangeThreshold < 1)
+        {
+            throw new IllegalArgumentException("Bulk change threshold must be at least 1");
+        }
+        hotFolders = Set.copyOf(hotFolders);
+    }
+
+    public VaultSettings withParallelLoading(boolean parallelLoading)
+    {
+        return new VaultSettings(
+            parallelLoading, snapshotFile, evictTextAfter, hotFolders, fileHashing,
+            bulkChangeThreshold);
+    }
+
+    public VaultSettings withSnapshotFile(Path snapshotFile)
+    {
+        return new VaultSettings(
+            parallelLoading, Optional.of(snapshotFile), evictTextAfter, hotFolders, fileHashing,
+            bulkChangeThreshold);
+    }
+
+    /// Enables bounded memory mode: the text of cold documents is kept in memory only as long as
+    /// there is enough memory available, and is read from disk again when needed. The rest of each
+    /// document always stays in memory. See ADR0009.
+    public VaultSettings withTextEviction(Duration evictTextAfter, String... hotFolders)
+    {
+        return new VaultSettings(parallelLoading, snapshotFile, Optional.of(evictTextAfter),
+            Set.of(hotFolders), fileHashing, bulkChangeThreshold);
+    }
+
+    public VaultSettings withFileHashing(FileHashing fileHashing)
+    {
+        return new VaultSettings(
+            parallelLoading, snapshotFile, evictTextAfter, hotFolders, fileHashing,
+            bulkChangeThreshold);
+    }
+
+    public VaultSettings withBulkChangeThreshold(int bulkChangeThreshold)
+    {
+        return new VaultSettings(parallelLoading, snapshotFile, evictTextAfter, hotFolders,
+            fileHashing, bulkChangeThreshold);
+    }
+}
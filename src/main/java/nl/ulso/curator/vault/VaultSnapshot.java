@@ -0,0 +1,373 @@
+package nl.ulso.curator.vault;
+
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.text.Normalizer.Form.NFC;
+import static java.text.Normalizer.normalize;
+import static java.util.Collections.emptyMap;
+import static nl.ulso.curator.vault.FileSystemVault.documentName;
+import static nl.ulso.curator.vault.QueryBlock.QUERY_HASH_POSTFIX;
+import static nl.ulso.curator.vault.QueryBlock.QUERY_HASH_PREFIX;
+import static nl.ulso.curator.vault.QueryBlock.QUERY_OUTPUT_POSTFIX;
+import static nl.ulso.curator.vault.QueryBlock.QUERY_OUTPUT_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/// On-disk snapshot of the parsed documents in a vault, used to speed up warm restarts.
+///
+/// A snapshot holds the [Fragment] tree of every document, keyed by the path of the document
+/// relative to the root of the vault, together with the size and last modification time the file
+/// had when the snapshot was written. On startup, a document is restored from the snapshot only if
+/// its file still has exactly the same size and last modification time; all other documents are
+/// read and parsed from disk as usual.
+///
+/// A snapshot is an optimization, nothing more. A snapshot that is missing, corrupt, or written by
+/// a different version of this class, is ignored; the vault is then loaded from disk in full. The
+/// same goes for a single entry in the snapshot that cannot be restored.
+///
+/// Restored documents use the [StringPool] of the vault, just like documents read from disk.
+///
+/// See ADR0008 for the reasoning behind this (optional) cache.
+final class VaultSnapshot
+{
+    private static final Logger LOGGER = getLogger(VaultSnapshot.class);
+
+    private static final int MAGIC = 0x4D435653; // "MCVS": Markdown Curator Vault Snapshot
+    private static final int VERSION = 2;
+
+    private static final byte FRONT_MATTER = 0;
+    private static final byte SECTION = 1;
+    private static final byte TEXT = 2;
+    private static final byte CODE = 3;
+    private static final byte QUERY = 4;
+
+    static final VaultSnapshot EMPTY = new VaultSnapshot(emptyMap(), StringPool.NONE);
+
+    private final Map<String, Entry> entries;
+    private final StringPool stringPool;
+    private final AtomicInteger restored;
+
+    private VaultSnapshot(Map<String, Entry> entries, StringPool stringPool)
+    {
+        this.entries = entries;
+        this.stringPool = stringPool;
+        this.restored = new AtomicInteger();
+    }
+
+    /// Loads the snapshot from the given file; if anything is wrong with the file, an empty
+    /// snapshot is returned.
+    static VaultSnapshot load(Path snapshotFile, StringPool stringPool)
+    {
+        if (!Files.isRegularFile(snapshotFile))
+        {
+            LOGGER.debug("No vault snapshot found at '{}'.", snapshotFile);
+            return EMPTY;
+        }
+        try
+        {
+            var bytes = Files.readAllBytes(snapshotFile);
+            var contentLength = bytes.length - Long.BYTES;
+            if (contentLength < 0 || checksum(bytes, contentLength) != readChecksum(bytes))
+            {
+                LOGGER.debug("Ignoring corrupt vault snapshot '{}'.", snapshotFile);
+                return EMPTY;
+            }
+            var input = new DataInputStream(new ByteArrayInputStream(bytes, 0, contentLength));
+            if (input.readInt() != MAGIC
+                || input.readInt() != VERSION
+                || !readString(input).equals(lineSeparator()))
+            {
+                LOGGER.debug("Ignoring incompatible vault snapshot '{}'.", snapshotFile);
+                return EMPTY;
+            }
+            var count = input.readInt();
+            var entries = HashMap.<String, Entry>newHashMap(count);
+            for (var i = 0; i < count; i++)
+            {
+                var path = readString(input);
+                var size = input.readLong();
+                var lastModified = input.readLong();
+                var data = new byte[input.readInt()];
+                input.readFully(data);
+                entries.put(path, new Entry(size, lastModified, data));
+            }
+            LOGGER.debug("Loaded vault snapshot '{}' with {} documents.", snapshotFile, count);
+            return new VaultSnapshot(entries, stringPool);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.debug("Ignoring unreadable vault snapshot '{}': {}", snapshotFile,
+                e.getMessage()
+            );
+            return EMPTY;
+        }
+    }
+
+    /// Writes a snapshot of all documents in the vault to the given file. Documents that changed on
+    /// disk since they were last loaded are left out of the snapshot.
+    ///
+    /// The snapshot is written to a temporary file first, which then replaces the existing
+    /// snapshot, if any. That way a crash while writing never leaves a partial snapshot behind.
+    static void save(Path snapshotFile, FileSystemVault vault)
+    {
+        var temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try
+        {
+            var bytes = new ByteArrayOutputStream();
+            var output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            writeString(output, lineSeparator());
+            var documents = new ArrayList<Document>();
+            collectDocuments(vault, documents);
+            var count = 0;
+            var body = new ByteArrayOutputStream();
+            var bodyOutput = new DataOutputStream(body);
+            for (var document : documents)
+            {
+                var absolutePath = vault.resolveAbsolutePath(document);
+                var attributes = readAttributes(absolutePath);
+                if (attributes == null
+                    || attributes.lastModifiedTime().toMillis() != document.lastModified())
+                {
+                    continue;
+                }
+                var data = encode(document);
+                if (document.isStale())
+                {
+                    // Text that was evicted from memory couldn't be restored for encoding.
+                    continue;
+                }
+                writeString(bodyOutput, key(vault.root().relativize(absolutePath)));
+                bodyOutput.writeLong(attributes.size());
+                bodyOutput.writeLong(document.lastModified());
+                bodyOutput.writeInt(data.length);
+                bodyOutput.write(data);
+                count++;
+            }
+            output.writeInt(count);
+            body.writeTo(output);
+            output.flush();
+            var content = bytes.toByteArray();
+            var checksum = new CRC32();
+            checksum.update(content);
+            output.writeLong(checksum.getValue());
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            Files.write(temporaryFile, bytes.toByteArray());
+            Files.move(temporaryFile, snapshotFile, REPLACE_EXISTING, ATOMIC_MOVE);
+            LOGGER.debug("Saved vault snapshot '{}' with {} documents.", snapshotFile, count);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.warn("Failed to save vault snapshot '{}': {}", snapshotFile, e.getMessage());
+            try
+            {
+                Files.deleteIfExists(temporaryFile);
+            }
+            catch (IOException _)
+            {
+                // Nothing left to do.
+            }
+        }
+    }
+
+    /// Restores the document at the given path from the snapshot, but only if the file on disk has
+    /// the same size and last modification time as when the snapshot was written.
+    ///
+    /// @param relativePath Path of the document, relative to the root of the vault.
+    /// @param attributes   Current attributes of the file on disk.
+    /// @return The restored document, or nothing if the document must be read from disk.
+    Optional<Document> restore(Path relativePath, BasicFileAttributes attributes)
+    {
+        if (entries.isEmpty())
+        {
+            return Optional.empty();
+        }
+        var entry = entries.get(key(relativePath));
+        if (entry == null
+            || entry.size() != attributes.size()
+            || entry.lastModified() != attributes.lastModifiedTime().toMillis())
+        {
+            return Optional.empty();
+        }
+        try
+        {
+            var input = new DataInputStream(new ByteArrayInputStream(entry.data()));
+            var name = stringPool.intern(documentName(relativePath));
+            var document = new Document(name, entry.lastModified(),
+                readFragments(input, name, stringPool)
+            );
+            DocumentParser.updateInternalReferences(document);
+            restored.incrementAndGet();
+            return Optional.of(document);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOGGER.debug("Ignoring snapshot of document '{}': {}", relativePath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /// @return The number of documents restored from this snapshot so far.
+    int restoredDocumentCount()
+    {
+        return restored.get();
+    }
+
+    private static String key(Path relativePath)
+    {
+        return normalize(relativePath.toString(), NFC);
+    }
+
+    private static void collectDocuments(Folder folder, List<Document> documents)
+    {
+        documents.addAll(folder.documents());
+        folder.folders().forEach(subfolder -> collectDocuments(subfolder, documents));
+    }
+
+    private static BasicFileAttributes readAttributes(Path absolutePath)
+    {
+        try
+        {
+            return Files.readAttributes(absolutePath, BasicFileAttributes.class);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    private static byte[] encode(Document document)
+        throws IOException
+    {
+        var bytes = new ByteArrayOutputStream();
+        var output = new DataOutputStream(bytes);
+        writeFragments(output, document.fragments());
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeFragments(DataOutputStream output, List<Fragment> fragments)
+        throws IOException
+    {
+        output.writeInt(fragments.size());
+        for (var fragment : fragments)
+        {
+            switch (fragment)
+            {
+                case FrontMatter frontMatter ->
+                {
+                    output.writeByte(FRONT_MATTER);
+                    writeString(output, frontMatter.markdown());
+                }
+                case Section section ->
+                {
+                    output.writeByte(SECTION);
+                    output.writeInt(section.level());
+                    writeString(output, section.title());
+                    writeFragments(output, section.fragments());
+                }
+                case TextBlock textBlock ->
+                {
+                    output.writeByte(TEXT);
+                    writeString(output, textBlock.markdown());
+                }
+                case CodeBlock codeBlock ->
+                {
+                    output.writeByte(CODE);
+                    writeString(output, codeBlock.language());
+                    writeString(output, codeBlock.code());
+                }
+                case QueryBlock queryBlock ->
+                {
+                    output.writeByte(QUERY);
+                    writeString(output, queryBlock.definition());
+                    writeString(output, queryBlock.outputHash());
+                    output.writeInt(queryBlock.ordinal());
+                }
+                default -> throw new IllegalStateException(
+                    "Unsupported fragment type: " + fragment.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private static List<Fragment> readFragments(
+        DataInputStream input, String documentName, StringPool stringPool)
+        throws IOException
+    {
+        var count = input.readInt();
+        var fragments = new ArrayList<Fragment>(count);
+        for (var i = 0; i < count; i++)
+        {
+            var type = input.readByte();
+            fragments.add(switch (type)
+            {
+                case FRONT_MATTER ->
+                    new FrontMatter(readString(input).lines().toList(), stringPool);
+                case SECTION ->
+                {
+                    var level = input.readInt();
+                    var title = stringPool.intern(readString(input));
+                    yield new Section(level, title,
+                        readFragments(input, documentName, stringPool)
+                    );
+                }
+                case TEXT -> new TextBlock(readString(input));
+                case CODE -> new CodeBlock(readString(input), readString(input));
+                case QUERY -> new QueryBlock(Stream.concat(
+                    readString(input).lines(),
+                    Stream.of(QUERY_OUTPUT_PREFIX + " " + QUERY_HASH_PREFIX + readString(input)
+                              + QUERY_HASH_POSTFIX + QUERY_OUTPUT_POSTFIX)
+                ).toList(), documentName, input.readInt());
+                default -> throw new IllegalStateException("Unknown fragment type: " + type);
+            });
+        }
+        return fragments;
+    }
+
+    private static void writeString(DataOutputStream output, String string)
+        throws IOException
+    {
+        var bytes = string.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input)
+        throws IOException
+    {
+        var bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static long checksum(byte[] bytes, int length)
+    {
+        var checksum = new CRC32();
+        checksum.update(bytes, 0, length);
+        return checksum.getValue();
+    }
+
+    private static long readChecksum(byte[] bytes)
+        throws IOException
+    {
+        return new DataInputStream(
+            new ByteArrayInputStream(bytes, bytes.length - Long.BYTES, Long.BYTES)).readLong();
+    }
+
+    private record Entry(long size, long lastModified, byte[] data)
+    {
+    }
+}
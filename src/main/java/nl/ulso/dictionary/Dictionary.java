@@ -2,6 +2,7 @@ package nl.ulso.dictionary;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 import static java.util.Objects.requireNonNull;
 
@@ -54,6 +55,21 @@ public interface Dictionary
         return new YamlDictionary(string);
     }
 
+    /// @see #yamlDictionary(String)
+    ///
+    /// Property keys and string values are passed through the string pool, so that equal strings
+    /// across many dictionaries can share a single instance.
+    ///
+    /// @param stringPool Function that returns the instance to use for a string.
+    static Dictionary yamlDictionary(String string, UnaryOperator<String> stringPool)
+    {
+        if (requireNonNull(string).isBlank())
+        {
+            return emptyDictionary();
+        }
+        return new YamlDictionary(string, requireNonNull(stringPool));
+    }
+
     static Dictionary mapDictionary(Map<String, Object> map)
     {
         if (requireNonNull(map).isEmpty())
@@ -0,0 +1,306 @@
+package nl.ulso.dictionary;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/// Hand-written parser for the flat YAML that almost all front matter consists of. It is much
+/// cheaper than a full YAML engine, but it supports only a small subset of YAML:
+///
+/// - Every non-blank line is either a property or a block list item.
+/// - A property is a simple key (starting with a letter, followed by letters, digits, `-` or `_`)
+///   at the start of the line, directly followed by a colon.
+/// - A property value is a scalar, a single-line flow list (`[a, b]`), or nothing at all. In the
+///   latter case the property can be followed by a block list: items starting with `- `, all with
+///   the same indentation.
+/// - A scalar is a plain string that starts with a letter, a quoted string without escapes, a
+///   date (`yyyy-MM-dd`, which stays a string), an integer, `true`, `false` or `null`.
+///
+/// Anything outside this subset, including comments, tabs, duplicate keys and values that YAML
+/// schemas disagree on (like `True` or `007`), is not parsed at all: the parser gives up, so that
+/// the caller can fall back to a full YAML engine. Within the subset, the result is exactly the
+/// same as what the YAML engine produces, minus the properties without a value.
+///
+/// Keys and string values can be passed through a string pool, so that the many equal strings in
+/// the front matter of different documents share a single instance.
+final class FlatYamlParser
+{
+    private static final int MAXIMUM_INTEGER_DIGITS = 9;
+
+    private FlatYamlParser()
+    {
+    }
+
+    /// @return The properties in the YAML, or nothing if the YAML is outside the supported subset.
+    static Optional<Map<String, Object>> parse(String yaml)
+    {
+        return parse(yaml, UnaryOperator.identity());
+    }
+
+    /// @param stringPool Function that returns the instance to use for a key or a string value.
+    /// @return The properties in the YAML, or nothing if the YAML is outside the supported subset.
+    static Optional<Map<String, Object>> parse(String yaml, UnaryOperator<String> stringPool)
+    {
+        var map = new HashMap<String, Object>();
+        var keys = new HashSet<String>();
+        String listKey = null;
+        List<Object> list = null;
+        var listIndentation = 0;
+        for (var line : yaml.lines().toList())
+        {
+            if (!isPrintable(line))
+            {
+                return Optional.empty();
+            }
+            if (line.isBlank())
+            {
+                continue;
+            }
+            var indentation = indentation(line);
+            if (line.charAt(indentation) == '-')
+            {
+                if (listKey == null
+                    || !line.startsWith("- ", indentation)
+                    || (list != null && indentation != listIndentation))
+                {
+                    return Optional.empty();
+                }
+                var item = scalar(line.substring(indentation + 2).trim(), false);
+                if (item == null)
+                {
+                    return Optional.empty();
+                }
+                if (list == null)
+                {
+                    list = new ArrayList<>();
+                    listIndentation = indentation;
+                    map.put(listKey, list);
+                }
+                list.add(pooled(item, stringPool));
+                continue;
+            }
+            var colon = indentation == 0 ? keyEnd(line) : -1;
+            if (colon == -1
+                || (colon + 1 < line.length() && line.charAt(colon + 1) != ' ')
+                || !keys.add(line.substring(0, colon)))
+            {
+                return Optional.empty();
+            }
+            var key = stringPool.apply(line.substring(0, colon));
+            var value = line.substring(colon + 1).trim();
+            listKey = value.isEmpty() ? key : null;
+            list = null;
+            if (value.isEmpty() || value.equals("null"))
+            {
+                // Properties without a value are null; just like the YAML dictionary does, leave
+                // those out.
+                continue;
+            }
+            var result = value.charAt(0) == '['
+                         ? flowList(value, stringPool)
+                         : pooled(scalar(value, false), stringPool);
+            if (result == null)
+            {
+                return Optional.empty();
+            }
+            map.put(key, result);
+        }
+        return Optional.of(map);
+    }
+
+    private static int indentation(String line)
+    {
+        var i = 0;
+        while (i < line.length() && line.charAt(i) == ' ')
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /// @return The index of the colon after the key at the start of the line, or `-1` if the
+    /// line doesn't start with a supported key.
+    private static int keyEnd(String line)
+    {
+        if (!Character.isLetter(line.charAt(0)))
+        {
+            return -1;
+        }
+        for (var i = 1; i < line.length(); i++)
+        {
+            var c = line.charAt(i);
+            if (c == ':')
+            {
+                return isAmbiguousWord(line.substring(0, i)) ? -1 : i;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_')
+            {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static Object flowList(String value, UnaryOperator<String> stringPool)
+    {
+        if (!value.endsWith("]"))
+        {
+            return null;
+        }
+        var list = new ArrayList<>();
+        var content = value.substring(1, value.length() - 1);
+        if (content.isBlank())
+        {
+            return list;
+        }
+        for (var part : content.split(",", -1))
+        {
+            var item = scalar(part.trim(), true);
+            if (item == null)
+            {
+                return null;
+            }
+            list.add(pooled(item, stringPool));
+        }
+        return list;
+    }
+
+    private static Object pooled(Object value, UnaryOperator<String> stringPool)
+    {
+        return value instanceof String string ? stringPool.apply(string) : value;
+    }
+
+    /// @return The value of the scalar, or `null` if it is not supported, or is `null` itself.
+    private static Object scalar(String value, boolean inFlowList)
+    {
+        if (value.isEmpty())
+        {
+            return null;
+        }
+        var first = value.charAt(0);
+        if (first == '\'' || first == '"')
+        {
+            return inFlowList ? null : quoted(value, first);
+        }
+        if (first == '-' || Character.isDigit(first))
+        {
+            return number(value);
+        }
+        if (!Character.isLetter(first))
+        {
+            return null;
+        }
+        if (value.equals("true") || value.equals("false"))
+        {
+            return Boolean.valueOf(value);
+        }
+        if (isAmbiguousWord(value) || value.endsWith(":"))
+        {
+            return null;
+        }
+        for (var i = 1; i < value.length(); i++)
+        {
+            var c = value.charAt(i);
+            if (c == '#'
+                || (c == ':' && value.charAt(i + 1) == ' ')
+                || (inFlowList && isFlowIndicator(c)))
+            {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    private static Object quoted(String value, char quote)
+    {
+        if (value.length() < 2 || value.charAt(value.length() - 1) != quote)
+        {
+            return null;
+        }
+        var content = value.substring(1, value.length() - 1);
+        for (var i = 0; i < content.length(); i++)
+        {
+            var c = content.charAt(i);
+            if (c == quote || c == '\\' || c == '#')
+            {
+                return null;
+            }
+        }
+        return content;
+    }
+
+    /// Supports integers that fit in an [Integer] and dates, as strings, in `yyyy-MM-dd` format.
+    private static Object number(String value)
+    {
+        if (isDate(value))
+        {
+            return value;
+        }
+        var start = value.charAt(0) == '-' ? 1 : 0;
+        var digits = value.length() - start;
+        if (digits == 0
+            || digits > MAXIMUM_INTEGER_DIGITS
+            || (digits > 1 && value.charAt(start) == '0'))
+        {
+            return null;
+        }
+        for (var i = start; i < value.length(); i++)
+        {
+            if (!isAsciiDigit(value.charAt(i)))
+            {
+                return null;
+            }
+        }
+        return Integer.valueOf(value);
+    }
+
+    private static boolean isDate(String value)
+    {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-')
+        {
+            return false;
+        }
+        for (var i = 0; i < value.length(); i++)
+        {
+            if (i != 4 && i != 7 && !isAsciiDigit(value.charAt(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiDigit(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    /// Words that are `null` or booleans in some YAML schemas but strings in others.
+    private static boolean isAmbiguousWord(String value)
+    {
+        return switch (value)
+        {
+            case "null", "Null", "NULL", "true", "True", "TRUE", "false", "False", "FALSE" -> true;
+            default -> false;
+        };
+    }
+
+    /// Rejects control characters, tabs and special line breaks, none of which are supported.
+    private static boolean isPrintable(String line)
+    {
+        for (var i = 0; i < line.length(); i++)
+        {
+            var c = line.charAt(i);
+            if (c < ' ' || (c >= '\u007F' && c <= '\u009F')
+                || c == '\u2028' || c == '\u2029' || c == '\uFEFF')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFlowIndicator(char c)
+    {
+        return c == '[' || c == ']' || c == '{' || c == '}' || c == ':';
+    }
+}
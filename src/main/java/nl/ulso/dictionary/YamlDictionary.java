@@ -9,6 +9,7 @@ import org.snakeyaml.engine.v2.exceptions.YamlEngineException;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 import static java.lang.String.join;
 import static java.lang.System.lineSeparator;
@@ -27,17 +28,27 @@ import static java.util.stream.Collectors.toMap;
 /// - Reading a list from a single value results in a list with one item.
 ///
 /// Dates are supported only in one format: "yyyy-MM-dd"
+///
+/// Most front matter is flat YAML. That is parsed with the much cheaper [FlatYamlParser]; only YAML
+/// outside its subset goes through the full YAML engine. Only the [FlatYamlParser] deduplicates
+/// keys and strings with a string pool, if one is given.
 final class YamlDictionary
         extends MapDictionary
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(YamlDictionary.class);
     private static final String DOCUMENT_SEPARATOR = "---";
+    private static final LoadSettings LOAD_SETTINGS = LoadSettings.builder().build();
 
     private final Map<String, List<LocalDate>> dateCache;
 
     YamlDictionary(String string)
     {
-        super(parseYaml(string));
+        this(string, UnaryOperator.identity());
+    }
+
+    YamlDictionary(String string, UnaryOperator<String> stringPool)
+    {
+        super(parseYaml(string, stringPool));
         dateCache = new HashMap<>();
     }
 
@@ -46,10 +57,16 @@ final class YamlDictionary
         this(join(lineSeparator(), singleYamlNode(lines)));
     }
 
-    private static Map<String, Object> parseYaml(String string)
+    /// Parses the YAML with the [FlatYamlParser] if possible, and with the full YAML engine if not.
+    static Map<String, Object> parseYaml(String string, UnaryOperator<String> stringPool)
+    {
+        return FlatYamlParser.parse(string, stringPool)
+                .orElseGet(() -> parseYamlWithEngine(string));
+    }
+
+    static Map<String, Object> parseYamlWithEngine(String string)
     {
-        LoadSettings settings = LoadSettings.builder().build();
-        Load load = new Load(settings);
+        Load load = new Load(LOAD_SETTINGS);
         Map<String, ?> yaml = null;
         try
         {
@@ -0,0 +1,64 @@
+package nl.ulso.curator.addon.journal;
+
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.vault.Document;
+import nl.ulso.curator.vault.FolderStub;
+import nl.ulso.curator.vault.StringPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.change.Changelog.changelogFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyProducerTest
+{
+    private static final String DAILY = """
+        ## Activities
+        - Worked on [[Project]]
+
+        ## Notes
+        Some notes
+        """;
+
+    private FolderStub journal;
+    private DailyProducer producer;
+
+    @BeforeEach
+    void setUp()
+    {
+        journal = new FolderStub(null, "Vault").addFolder("Journal");
+        producer = new DailyProducer(
+            new JournalSettings("Journal", "Markers", "Activities", "Projects"), new StringPool());
+    }
+
+    @Test
+    void changedActivitiesUpdateDaily()
+    {
+        var v1 = journal.addDocument("2026-10-17", DAILY);
+        var v2 = journal.updateDocument("2026-10-17", DAILY.replace("Worked", "Slacked"));
+        var changes = producer.apply(changelogFor(update(v1, v2, Document.class))).changes()
+            .toList();
+        assertThat(changes).hasSize(1);
+        var daily = (Daily) changes.getFirst().newValue();
+        assertThat(daily.linesFor("Project")).containsExactly("- Slacked on [[Project]]");
+    }
+
+    @Test
+    void unchangedActivitiesDoNotUpdateDaily()
+    {
+        var v1 = journal.addDocument("2026-10-17", DAILY);
+        var v2 = journal.updateDocument("2026-10-17", DAILY.replace("Some", "Other"));
+        var changes = producer.apply(changelogFor(update(v1, v2, Document.class))).changes();
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void equalActivitiesParsedSeparatelyUpdateDaily()
+    {
+        var v1 = journal.addDocument("2026-10-17", DAILY);
+        var v2 = journal.addDocument("2026-10-17", DAILY);
+        var changes = producer.apply(changelogFor(update(v1, v2, Document.class))).changes();
+        assertThat(changes).extracting(Change::kind).containsExactly(Change.Kind.UPDATE);
+    }
+}
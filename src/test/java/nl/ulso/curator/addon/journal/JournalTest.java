@@ -1,5 +1,6 @@
 package nl.ulso.curator.addon.journal;
 
+import nl.ulso.curator.vault.StringPool;
 import nl.ulso.curator.vault.VaultStub;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.assertj.core.util.Strings;
@@ -279,7 +280,7 @@ class JournalTest
             WeekFields.ISO
         );
         var changelog = initializeVault(vault);
-        var dailyProducer = new DailyProducer(settings);
+        var dailyProducer = new DailyProducer(settings, new StringPool());
         changelog = changelog.append(
             dailyProducer.apply(changelog.changelogFor(dailyProducer.consumedPayloadTypes())));
         var weeklyProducer = new WeeklyProducer(settings);
@@ -1,6 +1,7 @@
 package nl.ulso.curator.addon.project;
 
 import nl.ulso.curator.change.Change;
+import nl.ulso.curator.vault.StringPool;
 import nl.ulso.curator.vault.VaultStub;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,7 +31,9 @@ class FrontMatterProjectAttributeValueProducerTest
     void setUp()
     {
         vault = ProjectTestData.createTestVault();
-        producer = new FrontMatterProjectAttributeValueProducer(ATTRIBUTE_DEFINITIONS, vault);
+        producer = new FrontMatterProjectAttributeValueProducer(ATTRIBUTE_DEFINITIONS, vault,
+            new StringPool()
+        );
     }
 
     @Test
@@ -9,11 +9,15 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
+import static nl.ulso.curator.change.Change.Kind.CREATE;
+import static nl.ulso.curator.change.Change.Kind.DELETE;
+import static nl.ulso.curator.change.ChangeHandler.newChangeHandler;
 import static nl.ulso.curator.change.Changelog.changelogFor;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -38,6 +42,42 @@ class ChangeProcessorTemplateTest
             .isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    void dispatchChangesToHandlersInOrder()
+    {
+        var processor = new DispatchingChangeProcessor();
+        processor.apply(changelogFor(
+            Change.create(null, Folder.class),
+            Change.create(null, Document.class),
+            Change.update(null, Document.class),
+            Change.delete(null, Document.class),
+            Change.delete(null, Folder.class)
+        ));
+        assertThat(processor.calls).containsExactly(
+            "any-create:Folder", "custom:Folder", "folder:CREATE",
+            "any-create:Document", "custom:Document", "document-create",
+            "custom:Document",
+            "custom:Folder", "folder:DELETE"
+        );
+    }
+
+    @Test
+    void selectionSelectsOnPayloadTypeAndKind()
+    {
+        var handler = newChangeHandler(Document.class, DELETE, (_, _) -> {});
+        assertThat(handler.selection()).isPresent();
+        assertThat(handler.test(Change.delete(null, Document.class))).isTrue();
+        assertThat(handler.test(Change.create(null, Document.class))).isFalse();
+        assertThat(handler.test(Change.delete(null, Folder.class))).isFalse();
+    }
+
+    @Test
+    void predicateHandlerHasNoSelection()
+    {
+        var handler = newChangeHandler(_ -> true, (_, _) -> {});
+        assertThat(handler.selection()).isEmpty();
+    }
+
     public static Stream<Arguments> provideChanges()
     {
         return Stream.of(
@@ -71,6 +111,39 @@ class ChangeProcessorTemplateTest
         }
     }
 
+    private static class DispatchingChangeProcessor
+        extends ChangeProcessorTemplate
+    {
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        protected List<? extends ChangeHandler> createChangeHandlers()
+        {
+            return List.of(
+                newChangeHandler(CREATE,
+                    (change, _) -> record("any-create:", change)),
+                newChangeHandler(change -> change.kind() != Change.Kind.UPDATE
+                                           || change.payloadType() == Folder.class,
+                    (change, _) -> record("custom:", change)),
+                newChangeHandler(Document.class, CREATE,
+                    (_, _) -> calls.add("document-create")),
+                newChangeHandler(Folder.class,
+                    (change, _) -> calls.add("folder:" + change.kind()))
+            );
+        }
+
+        private void record(String prefix, Change<?> change)
+        {
+            calls.add(prefix + change.payloadType().getSimpleName());
+        }
+
+        @Override
+        public Set<Class<?>> consumedPayloadTypes()
+        {
+            return Set.of(Folder.class, Document.class);
+        }
+    }
+
     private static class InvalidChangeProcessor
         extends ChangeProcessorTemplate
     {
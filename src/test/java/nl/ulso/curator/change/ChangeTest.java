@@ -7,6 +7,7 @@ import static nl.ulso.curator.change.Change.Kind.DELETE;
 import static nl.ulso.curator.change.Change.Kind.UPDATE;
 import static nl.ulso.curator.change.Change.create;
 import static nl.ulso.curator.change.Change.delete;
+import static nl.ulso.curator.change.Change.netEffect;
 import static nl.ulso.curator.change.Change.update;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -160,4 +161,73 @@ class ChangeTest
         assertThatThrownBy(change::newValue)
             .isInstanceOf(UnsupportedOperationException.class);
     }
+
+    @Test
+    void netEffectOfCreateAndUpdateIsCreateOfLatestValue()
+    {
+        assertThat(netEffect(create(1, Integer.class), update(1, 2, Integer.class)))
+            .contains(create(2, Integer.class));
+    }
+
+    @Test
+    void netEffectOfCreateAndSingleValueUpdateIsCreateOfLatestValue()
+    {
+        assertThat(netEffect(create(1, Integer.class), update(2, Integer.class)))
+            .contains(create(2, Integer.class));
+    }
+
+    @Test
+    void netEffectOfCreateAndDeleteIsNothing()
+    {
+        assertThat(netEffect(create(1, Integer.class), delete(1, Integer.class))).isEmpty();
+    }
+
+    @Test
+    void netEffectOfUpdateAndUpdateIsUpdateFromOldestToLatestValue()
+    {
+        assertThat(netEffect(update(1, 2, Integer.class), update(2, 3, Integer.class)))
+            .contains(update(1, 3, Integer.class));
+    }
+
+    @Test
+    void netEffectOfSingleValueUpdatesIsSingleValueUpdate()
+    {
+        assertThat(netEffect(update(1, Integer.class), update(1, 2, Integer.class)))
+            .contains(update(2, Integer.class));
+    }
+
+    @Test
+    void netEffectOfUpdateAndDeleteIsDeleteOfOldestValue()
+    {
+        assertThat(netEffect(update(1, 2, Integer.class), delete(2, Integer.class)))
+            .contains(delete(1, Integer.class));
+    }
+
+    @Test
+    void netEffectOfSingleValueUpdateAndDeleteIsDeleteOfThatValue()
+    {
+        assertThat(netEffect(update(1, Integer.class), delete(1, Integer.class)))
+            .contains(delete(1, Integer.class));
+    }
+
+    @Test
+    void netEffectOfDeleteAndCreateIsUpdate()
+    {
+        assertThat(netEffect(delete(1, Integer.class), create(2, Integer.class)))
+            .contains(update(1, 2, Integer.class));
+    }
+
+    @Test
+    void netEffectOfDeleteAndUpdateIsUpdate()
+    {
+        assertThat(netEffect(delete(1, Integer.class), update(2, Integer.class)))
+            .contains(update(1, 2, Integer.class));
+    }
+
+    @Test
+    void netEffectOfDeleteAndDeleteIsDeleteOfOldestValue()
+    {
+        assertThat(netEffect(delete(1, Integer.class), delete(2, Integer.class)))
+            .contains(delete(1, Integer.class));
+    }
 }
@@ -120,4 +120,55 @@ class ChangelogTest
         var filteredChangelog = changelog.changelogFor(Set.of(Integer.class, Boolean.class));
         assertThat(filteredChangelog.changes().toList()).hasSize(2);
     }
+
+    @Test
+    void appendedChangelogsKeepOrder()
+    {
+        var changelog = changelogFor(create(1, Integer.class), create("a", String.class))
+            .append(changelogFor(create(2, Integer.class)))
+            .append(changelogFor(create("b", String.class), create(3, Integer.class)));
+        assertThat(changelog.size()).isEqualTo(5);
+        assertThat(changelog.changes().<Object>map(Change::value).toList())
+            .containsExactly(1, "a", 2, "b", 3);
+    }
+
+    @Test
+    void changesForPayloadTypeSpanAppendedChangelogs()
+    {
+        var changelog = changelogFor(create(1, Integer.class), create("a", String.class))
+            .append(changelogFor(create(2, Integer.class)));
+        assertThat(changelog.changesFor(Integer.class).map(Change::value).toList())
+            .containsExactly(1, 2);
+    }
+
+    @Test
+    void filteredChangelogKeepsOrderOfMixedPayloads()
+    {
+        var changelog = changelogFor(
+            create(1, Integer.class),
+            create("a", String.class),
+            create(true, Boolean.class),
+            create(2, Integer.class),
+            create("b", String.class)
+        );
+        var filteredChangelog = changelog.changelogFor(Set.of(Integer.class, String.class));
+        assertThat(filteredChangelog.size()).isEqualTo(4);
+        assertThat(filteredChangelog.changes().<Object>map(Change::value).toList())
+            .containsExactly(1, "a", 2, "b");
+    }
+
+    @Test
+    void filteringOnAllPayloadTypesResultsInSameChangelog()
+    {
+        var changelog = changelogFor(create(1, Integer.class), create("a", String.class));
+        assertThat(changelog.changelogFor(Set.of(Integer.class, String.class)))
+            .isSameAs(changelog);
+    }
+
+    @Test
+    void filteringOnAbsentPayloadTypeResultsInEmptyChangelog()
+    {
+        var changelog = changelogFor(create(1, Integer.class));
+        assertThat(changelog.changelogFor(Set.of(String.class))).isSameAs(emptyChangelog());
+    }
 }
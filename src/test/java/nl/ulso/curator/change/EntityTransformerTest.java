@@ -4,15 +4,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.MDC;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNullElse;
 import static nl.ulso.curator.change.Change.create;
 import static nl.ulso.curator.change.Change.delete;
 import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.change.ChangeProcessorTemplate.CONCURRENT_PROCESSING_THRESHOLD;
 import static nl.ulso.curator.change.Changelog.changelogFor;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -58,6 +64,57 @@ class EntityTransformerTest
         assertThat(strings).containsExactlyElementsOf(expected);
     }
 
+    @Test
+    void processLargeChangelogOnCallingThreadByDefault()
+    {
+        var threads = ConcurrentHashMap.<Thread>newKeySet();
+        var producer = new EntityProducerStub(false, ConcurrentHashMap.newKeySet(), threads);
+        var input = IntStream.range(0, CONCURRENT_PROCESSING_THRESHOLD)
+            .<Change<?>>mapToObj(i -> create(i, Integer.class))
+            .toList();
+        producer.apply(changelogFor(input));
+        assertThat(threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void processLargeChangelogInOrder()
+    {
+        var producer = new EntityProducerStub(true);
+        var input = IntStream.range(-10, CONCURRENT_PROCESSING_THRESHOLD * 2)
+            .<Change<?>>mapToObj(i -> i % 3 == 0
+                                      ? create(i, Integer.class)
+                                      : delete(i, Integer.class))
+            .toList();
+        var changelog = producer.apply(changelogFor(input));
+        var expected = IntStream.range(0, CONCURRENT_PROCESSING_THRESHOLD * 2)
+            .mapToObj(i -> (i % 3 == 0 ? "C:" : "D:") + i)
+            .toList();
+        var strings = changelog.changes()
+            .map(c -> c.kind().toString().charAt(0) + ":" + c.value())
+            .toList();
+        assertThat(strings).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void processLargeChangelogWithCuratorNameInContext()
+    {
+        var curatorNames = ConcurrentHashMap.<String>newKeySet();
+        var producer = new EntityProducerStub(true, curatorNames, ConcurrentHashMap.newKeySet());
+        var input = IntStream.range(0, CONCURRENT_PROCESSING_THRESHOLD)
+            .<Change<?>>mapToObj(i -> create(i, Integer.class))
+            .toList();
+        MDC.put("curator", "test");
+        try
+        {
+            producer.apply(changelogFor(input));
+        }
+        finally
+        {
+            MDC.remove("curator");
+        }
+        assertThat(curatorNames).containsExactly("test");
+    }
+
     private static Stream<Arguments> testCases()
     {
         return Stream.of(
@@ -75,6 +132,26 @@ class EntityTransformerTest
     private static class EntityProducerStub
         extends EntityTransformer<Integer, String>
     {
+        private final boolean concurrent;
+        private final Set<String> curatorNames;
+        private final Set<Thread> threads;
+
+        EntityProducerStub()
+        {
+            this(false);
+        }
+
+        EntityProducerStub(boolean concurrent)
+        {
+            this(concurrent, ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        }
+
+        EntityProducerStub(boolean concurrent, Set<String> curatorNames, Set<Thread> threads)
+        {
+            this.concurrent = concurrent;
+            this.curatorNames = curatorNames;
+            this.threads = threads;
+        }
 
         @Override
         protected Class<Integer> sourceClass()
@@ -88,9 +165,17 @@ class EntityTransformerTest
             return String.class;
         }
 
+        @Override
+        protected boolean canHandleChangesConcurrently()
+        {
+            return concurrent;
+        }
+
         @Override
         protected Optional<String> transform(Integer integer)
         {
+            threads.add(Thread.currentThread());
+            curatorNames.add(requireNonNullElse(MDC.get("curator"), "none"));
             if (integer < 0)
             {
                 return Optional.empty();
@@ -12,8 +12,14 @@ import org.slf4j.event.Level;
 
 import java.io.PrintWriter;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Function;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static nl.ulso.curator.change.Change.create;
+import static nl.ulso.curator.change.Changelog.changelogFor;
 import static nl.ulso.curator.change.Changelog.emptyChangelog;
+import static nl.ulso.curator.change.Reset.RESET;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -99,6 +105,87 @@ class ChangeProcessorOrchestratorTest
             .hasMessageContaining("unsatisfied consumer");
     }
 
+    @Test
+    void parallelProcessingProducesSameChangelogAsSequentialProcessing()
+    {
+        var seen = Collections.synchronizedList(new ArrayList<List<Object>>());
+        var models = createModelSet(
+            new ChangeProcessorStub(1).consuming(Reset.class).producing(Integer.class)
+                .applying(_ -> changelogFor(create(1, Integer.class), create(2, Integer.class))),
+            new ChangeProcessorStub(2).consuming(Reset.class).producing(String.class)
+                .applying(_ -> changelogFor(create("a", String.class))),
+            new ChangeProcessorStub(3).consuming(Integer.class).consuming(String.class)
+                .producing(Long.class)
+                .applying(changelog ->
+                {
+                    seen.add(changelog.changes().<Object>map(Change::value).toList());
+                    return changelogFor(create((long) changelog.size(), Long.class));
+                }),
+            new ChangeProcessorStub(4).consuming(Reset.class).producing(Boolean.class)
+                .applying(_ -> changelogFor(create(true, Boolean.class))),
+            new ChangeProcessorStub(5).consuming(Long.class).consuming(Boolean.class)
+                .applying(changelog ->
+                {
+                    seen.add(changelog.changes().<Object>map(Change::value).toList());
+                    return emptyChangelog();
+                })
+        );
+        var sequential = new DefaultChangeProcessorOrchestrator(models, new NullStatistics())
+            .runFor(List.of(RESET));
+        var sequentialSeen = List.copyOf(seen);
+        seen.clear();
+        var parallel = new DefaultChangeProcessorOrchestrator(models, new NullStatistics(),
+            CuratorSettings.DEFAULT.withParallelChangeProcessing(true)
+        ).runFor(List.of(RESET));
+        assertThat(parallel.changes().<Object>map(Change::value).toList())
+            .isEqualTo(sequential.changes().<Object>map(Change::value).toList())
+            .containsExactly(RESET.value(), 1, 2, "a", 3L, true);
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(sequentialSeen);
+    }
+
+    @Test
+    void parallelProcessingRunsIndependentProcessorsConcurrently()
+    {
+        var latch = new CountDownLatch(2);
+        Function<Changelog, Changelog> awaitOther = _ ->
+        {
+            latch.countDown();
+            try
+            {
+                return latch.await(5, SECONDS)
+                       ? changelogFor(create(true, Boolean.class))
+                       : emptyChangelog();
+            }
+            catch (InterruptedException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        };
+        var models = createModelSet(
+            new ChangeProcessorStub(1).consuming(Reset.class).producing(Boolean.class)
+                .applying(awaitOther),
+            new ChangeProcessorStub(2).consuming(Reset.class).producing(Boolean.class)
+                .applying(awaitOther)
+        );
+        var orchestrator = new DefaultChangeProcessorOrchestrator(models, new NullStatistics(),
+            CuratorSettings.DEFAULT.withParallelChangeProcessing(true));
+        var changelog = orchestrator.runFor(List.of(RESET));
+        assertThat(changelog.changesFor(Boolean.class).count()).isEqualTo(2);
+    }
+
+    @Test
+    void parallelProcessingRejectsUndeclaredPayloadTypes()
+    {
+        var models = createModelSet(new ChangeProcessorStub(1).consuming(Reset.class)
+            .applying(_ -> changelogFor(create(1, Integer.class))));
+        var orchestrator = new DefaultChangeProcessorOrchestrator(models, new NullStatistics(),
+            CuratorSettings.DEFAULT.withParallelChangeProcessing(true));
+        var changes = List.<Change<?>>of(RESET);
+        assertThatThrownBy(() -> orchestrator.runFor(changes))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("doesn't claim to produce");
+    }
+
     /// Creates a set of models that are in a guaranteed order to ensure non-flaky tests. Data
     /// models are ordered on their... order.
     private Set<ChangeProcessor> createModelSet(ChangeProcessorStub... models)
@@ -113,6 +200,7 @@ class ChangeProcessorOrchestratorTest
         private final Set<Class<?>> processedPayloadTypes = new HashSet<>();
         private final Set<Class<?>> consumedPayloadTypes = new HashSet<>();
         private final Set<Class<?>> requiredPayloadTypes = new HashSet<>();
+        private Function<Changelog, Changelog> function = _ -> emptyChangelog();
 
         ChangeProcessorStub(int order)
         {
@@ -137,6 +225,12 @@ class ChangeProcessorOrchestratorTest
             return this;
         }
 
+        ChangeProcessorStub applying(Function<Changelog, Changelog> function)
+        {
+            this.function = function;
+            return this;
+        }
+
         @Override
         public int compareTo(ChangeProcessorStub o)
         {
@@ -152,7 +246,7 @@ class ChangeProcessorOrchestratorTest
         @Override
         public Changelog apply(Changelog changelog)
         {
-            return emptyChangelog();
+            return function.apply(changelog);
         }
 
         @Override
@@ -0,0 +1,255 @@
+package nl.ulso.curator.main;
+
+import nl.ulso.curator.addon.project.Project;
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.change.Identifiable;
+import nl.ulso.curator.vault.Document;
+import nl.ulso.curator.vault.Folder;
+import nl.ulso.curator.vault.FolderStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static nl.ulso.curator.change.Change.Kind.CREATE;
+import static nl.ulso.curator.change.Change.create;
+import static nl.ulso.curator.change.Change.delete;
+import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.change.Reset.RESET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ChangeQueueTest
+{
+    private FolderStub folder;
+    private ChangeQueue queue;
+
+    @BeforeEach
+    void setUp()
+    {
+        folder = new FolderStub(null, "Vault");
+        queue = new ChangeQueue();
+    }
+
+    @Test
+    void emptyQueue()
+    {
+        assertThat(queue.changes()).isEmpty();
+    }
+
+    @Test
+    void createAndUpdateFoldToCreateOfLatestVersion()
+    {
+        var v1 = folder.addDocument("a", "1");
+        var v2 = folder.addDocument("a", "2");
+        queue.add(create(v1, Document.class));
+        queue.add(update(v1, v2, Document.class));
+        assertThat(queue.changes()).containsExactly(create(v2, Document.class));
+    }
+
+    @Test
+    void createAndDeleteCancelOut()
+    {
+        var document = folder.addDocument("a", "");
+        queue.add(create(document, Document.class));
+        queue.add(delete(document, Document.class));
+        assertThat(queue.changes()).isEmpty();
+    }
+
+    @Test
+    void updatesFoldToUpdateFromOldestToLatestVersion()
+    {
+        var v1 = folder.addDocument("a", "1");
+        var v2 = folder.addDocument("a", "2");
+        var v3 = folder.addDocument("a", "3");
+        queue.add(update(v1, v2, Document.class));
+        queue.add(update(v2, v3, Document.class));
+        assertThat(queue.changes()).containsExactly(update(v1, v3, Document.class));
+    }
+
+    @Test
+    void updateAndDeleteFoldToDeleteOfOldestVersion()
+    {
+        var v1 = folder.addDocument("a", "1");
+        var v2 = folder.addDocument("a", "2");
+        queue.add(update(v1, v2, Document.class));
+        queue.add(delete(v2, Document.class));
+        assertThat(queue.changes()).containsExactly(delete(v1, Document.class));
+    }
+
+    @Test
+    void deleteAndCreateFoldToUpdate()
+    {
+        var v1 = folder.addDocument("a", "1");
+        var v2 = folder.addDocument("a", "2");
+        queue.add(delete(v1, Document.class));
+        queue.add(create(v2, Document.class));
+        assertThat(queue.changes()).containsExactly(update(v1, v2, Document.class));
+    }
+
+    @Test
+    void createDeleteAndCreateFoldToCreate()
+    {
+        var v1 = folder.addDocument("a", "1");
+        var v2 = folder.addDocument("a", "2");
+        queue.add(create(v1, Document.class));
+        queue.add(delete(v1, Document.class));
+        queue.add(create(v2, Document.class));
+        assertThat(queue.changes()).containsExactly(create(v2, Document.class));
+    }
+
+    @Test
+    void foldedChangeTakesPositionOfLastChange()
+    {
+        var a1 = folder.addDocument("a", "1");
+        var a2 = folder.addDocument("a", "2");
+        var a3 = folder.addDocument("a", "3");
+        var b1 = folder.addDocument("b", "1");
+        var b2 = folder.addDocument("b", "2");
+        queue.add(update(a1, a2, Document.class));
+        queue.add(update(b1, b2, Document.class));
+        queue.add(update(a2, a3, Document.class));
+        assertThat(queue.changes()).containsExactly(
+            update(b1, b2, Document.class),
+            update(a1, a3, Document.class)
+        );
+    }
+
+    @Test
+    void folderCreateAndDeleteCancelOut()
+    {
+        var subfolder = folder.addFolder("Sub");
+        queue.add(create(subfolder, Folder.class));
+        queue.add(delete(subfolder, Folder.class));
+        assertThat(queue.changes()).isEmpty();
+    }
+
+    @Test
+    void folderDeleteAndCreateFoldToUpdate()
+    {
+        var v1 = new FolderStub(folder, "Sub");
+        var v2 = new FolderStub(folder, "Sub");
+        queue.add(delete(v1, Folder.class));
+        queue.add(create(v2, Folder.class));
+        assertThat(queue.changes()).containsExactly(update(v1, v2, Folder.class));
+    }
+
+    @Test
+    void foldersWithSameNameInDifferentParentsAreNotFolded()
+    {
+        var a = folder.addFolder("A").addFolder("Sub");
+        var b = folder.addFolder("B").addFolder("Sub");
+        queue.add(create(a, Folder.class));
+        queue.add(delete(b, Folder.class));
+        assertThat(queue.changes()).containsExactly(
+            create(a, Folder.class),
+            delete(b, Folder.class)
+        );
+    }
+
+    @Test
+    void identifiableCreateAndUpdateFoldToCreateOfLatestVersion()
+    {
+        queue.add(create(new Entity("a", 1), Entity.class));
+        queue.add(update(new Entity("a", 1), new Entity("a", 2), Entity.class));
+        queue.add(update(new Entity("a", 2), Entity.class));
+        assertThat(queue.changes()).containsExactly(create(new Entity("a", 2), Entity.class));
+    }
+
+    @Test
+    void identifiableUpdatesFoldToUpdateFromOldestToLatestVersion()
+    {
+        queue.add(update(new Entity("a", 1), new Entity("a", 2), Entity.class));
+        queue.add(update(new Entity("b", 1), new Entity("b", 2), Entity.class));
+        queue.add(update(new Entity("a", 2), new Entity("a", 3), Entity.class));
+        assertThat(queue.changes()).containsExactly(
+            update(new Entity("b", 1), new Entity("b", 2), Entity.class),
+            update(new Entity("a", 1), new Entity("a", 3), Entity.class)
+        );
+    }
+
+    @Test
+    void identifiableUpdateAndDeleteFoldToDeleteOfOldestVersion()
+    {
+        queue.add(update(new Entity("a", 1), new Entity("a", 2), Entity.class));
+        queue.add(delete(new Entity("a", 2), Entity.class));
+        assertThat(queue.changes()).containsExactly(delete(new Entity("a", 1), Entity.class));
+    }
+
+    @Test
+    void identifiableCreateAndDeleteCancelOut()
+    {
+        queue.add(create(new Entity("a", 1), Entity.class));
+        queue.add(delete(new Entity("a", 1), Entity.class));
+        assertThat(queue.changes()).isEmpty();
+    }
+
+    @Test
+    void identifiableDeleteAndCreateFoldToUpdate()
+    {
+        queue.add(delete(new Entity("a", 1), Entity.class));
+        queue.add(create(new Entity("a", 2), Entity.class));
+        assertThat(queue.changes()).containsExactly(
+            update(new Entity("a", 1), new Entity("a", 2), Entity.class));
+    }
+
+    @Test
+    void projectChangesAreFoldedOnDocumentName()
+    {
+        var v1 = new Project(folder.addDocument("Project", "1"));
+        var v2 = new Project(folder.addDocument("Project", "2"));
+        var other = new Project(folder.addDocument("Other", ""));
+        queue.add(create(v1, Project.class));
+        queue.add(create(other, Project.class));
+        queue.add(update(v1, v2, Project.class));
+        assertThat(queue.changes()).extracting(Change::kind, Change::value).containsExactly(
+            tuple(CREATE, other),
+            tuple(CREATE, v2)
+        );
+        assertThat(queue.changes().getLast().value()).isSameAs(v2);
+    }
+
+    @Test
+    void changesWithoutIdentityAreKeptAsTheyAre()
+    {
+        queue.add(update(42, Integer.class));
+        queue.add(update(42, Integer.class));
+        assertThat(queue.changes()).containsExactly(
+            update(42, Integer.class),
+            update(42, Integer.class)
+        );
+    }
+
+    @Test
+    void changesAreNotFoldedAcrossReset()
+    {
+        var v1 = folder.addDocument("a", "1");
+        var v2 = folder.addDocument("a", "2");
+        queue.add(create(v1, Document.class));
+        queue.add(RESET);
+        queue.add(delete(v2, Document.class));
+        assertThat(queue.changes()).<Change<?>>containsExactly(
+            create(v1, Document.class),
+            RESET,
+            delete(v2, Document.class)
+        );
+    }
+
+    @Test
+    void clearEmptiesQueue()
+    {
+        var document = folder.addDocument("a", "");
+        queue.add(create(document, Document.class));
+        queue.clear();
+        queue.add(delete(document, Document.class));
+        assertThat(queue.changes()).containsExactly(delete(document, Document.class));
+    }
+
+    private record Entity(String name, int version)
+        implements Identifiable
+    {
+        @Override
+        public Object identity()
+        {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package nl.ulso.curator.main;
+
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.vault.Document;
+import nl.ulso.curator.vault.FolderStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+
+import static nl.ulso.curator.change.Change.update;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DebounceSchedulerTest
+{
+    private static final CuratorSettings SETTINGS = CuratorSettings.DEFAULT
+        .withAdaptiveDelay(Duration.ofSeconds(1), Duration.ofSeconds(5))
+        .withMaximumLatency(Duration.ofSeconds(10));
+
+    private TestClock clock;
+    private DebounceScheduler scheduler;
+    private Document document;
+
+    @BeforeEach
+    void setUp()
+    {
+        clock = new TestClock();
+        scheduler = new DebounceScheduler(SETTINGS, clock);
+        document = new FolderStub(null, "Vault").addDocument("Document", "");
+    }
+
+    @Test
+    void isolatedChangeGetsMinimumDelay()
+    {
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void changeInBurstGetsLongerDelay()
+    {
+        scheduler.delayFor(changes());
+        clock.advance(2000);
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void delayIsCappedAtMaximumDelay()
+    {
+        scheduler.delayFor(changes());
+        clock.advance(4000);
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void changeAfterLongGapIsIsolatedAgain()
+    {
+        scheduler.delayFor(changes());
+        scheduler.runStarted();
+        clock.advance(Duration.ofMinutes(5).toMillis());
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void continuousChangesAreCappedAtMaximumLatency()
+    {
+        for (var i = 0; i < 4; i++)
+        {
+            scheduler.delayFor(changes());
+            clock.advance(2000);
+        }
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ofSeconds(2));
+        clock.advance(3000);
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void runResetsMaximumLatency()
+    {
+        for (var i = 0; i < 5; i++)
+        {
+            scheduler.delayFor(changes());
+            clock.advance(2000);
+        }
+        scheduler.runStarted();
+        assertThat(scheduler.delayFor(changes())).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void changesWithoutDocumentsGetMinimumDelay()
+    {
+        assertThat(scheduler.delayFor(List.of(update(42, Integer.class))))
+            .isEqualTo(Duration.ofSeconds(1));
+    }
+
+    private List<Change<?>> changes()
+    {
+        return List.of(update(document, Document.class));
+    }
+
+    private static final class TestClock
+        extends Clock
+    {
+        private long millis;
+
+        void advance(long millis)
+        {
+            this.millis += millis;
+        }
+
+        @Override
+        public ZoneId getZone()
+        {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone)
+        {
+            return this;
+        }
+
+        @Override
+        public Instant instant()
+        {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package nl.ulso.curator.main;
+
+import nl.ulso.curator.addon.journal.Weekly;
+import nl.ulso.curator.addon.project.Project;
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.change.Changelog;
+import nl.ulso.curator.vault.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static nl.ulso.curator.change.Change.create;
+import static nl.ulso.curator.change.Change.delete;
+import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.change.Changelog.changelogFor;
+import static nl.ulso.curator.change.Reset.RESET;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultCuratorTest
+{
+    private static final CuratorSettings SETTINGS = CuratorSettings.DEFAULT
+        .withAdaptiveDelay(Duration.ofMillis(200), Duration.ofMillis(200));
+
+    private List<List<Change<?>>> processedChanges;
+    private List<Changelog> producedChangelogs;
+    private List<Changelog> queriedChangelogs;
+    private CountDownLatch queryRun;
+    private Document document1;
+    private Document document2;
+
+    @BeforeEach
+    void setUp()
+    {
+        processedChanges = Collections.synchronizedList(new ArrayList<>());
+        producedChangelogs = Collections.synchronizedList(new ArrayList<>());
+        queriedChangelogs = Collections.synchronizedList(new ArrayList<>());
+        queryRun = new CountDownLatch(1);
+        var folder = new FolderStub(null, "Vault");
+        document1 = folder.addDocument("One", "");
+        document2 = folder.addDocument("Two", "");
+    }
+
+    @Test
+    void changesDuringDelayAreProcessedInSingleRun()
+        throws InterruptedException
+    {
+        var curator = createCurator(SETTINGS);
+        curator.vaultChanged(create(document1, Document.class));
+        curator.vaultChanged(create(document2, Document.class));
+        awaitQueryRun();
+        assertThat(processedChanges).containsExactly(
+            List.of(create(document1, Document.class), create(document2, Document.class)));
+        assertThat(queriedChangelogs).containsExactly(producedChangelogs.getFirst());
+    }
+
+    @Test
+    void changesDuringDelayAreCompacted()
+        throws InterruptedException
+    {
+        var curator = createCurator(SETTINGS);
+        curator.vaultChanged(create(document1, Document.class));
+        curator.vaultChanged(update(document1, Document.class));
+        awaitQueryRun();
+        assertThat(processedChanges).containsExactly(List.of(create(document1, Document.class)));
+    }
+
+    @Test
+    void resetIsProcessedImmediately()
+    {
+        var curator = createCurator(SETTINGS);
+        curator.vaultChanged(create(document1, Document.class));
+        curator.vaultChanged(RESET);
+        assertThat(processedChanges).containsExactly(
+            List.of(create(document1, Document.class), RESET));
+        assertThat(queriedChangelogs).containsExactly(producedChangelogs.getFirst());
+    }
+
+    @Test
+    void pipelinedChangesAreProcessedImmediatelyAndQueriedOnce()
+        throws InterruptedException
+    {
+        var curator = createCurator(SETTINGS.withPipelinedProcessing(true));
+        curator.vaultChanged(create(document1, Document.class));
+        curator.vaultChanged(create(document2, Document.class));
+        assertThat(processedChanges).containsExactly(
+            List.of(create(document1, Document.class)),
+            List.of(create(document2, Document.class)));
+        awaitQueryRun();
+        assertThat(queriedChangelogs).hasSize(1);
+        assertThat(queriedChangelogs.getFirst().changes()).containsExactly(
+            create(document1, Document.class), create(document2, Document.class));
+    }
+
+    @Test
+    void pipelinedChangesAreCompactedAcrossRuns()
+        throws InterruptedException
+    {
+        var curator = createCurator(SETTINGS.withPipelinedProcessing(true));
+        curator.vaultChanged(create(document1, Document.class));
+        curator.vaultChanged(update(document1, Document.class));
+        curator.vaultChanged(create(document2, Document.class));
+        curator.vaultChanged(delete(document2, Document.class));
+        awaitQueryRun();
+        assertThat(processedChanges).hasSize(4);
+        assertThat(queriedChangelogs.getFirst().changes())
+            .containsExactly(create(document1, Document.class));
+    }
+
+    @Test
+    void pipelinedEntityChangesAreCompactedAcrossRuns()
+        throws InterruptedException
+    {
+        var curator = createCurator(SETTINGS.withPipelinedProcessing(true));
+        var folder = new FolderStub(null, "Vault");
+        var v1 = new Project(folder.addDocument("Project", "1"));
+        var v2 = new Project(folder.addDocument("Project", "2"));
+        curator.vaultChanged(create(v1, Project.class));
+        curator.vaultChanged(update(v1, v2, Project.class));
+        curator.vaultChanged(create(new Weekly(2026, 42), Weekly.class));
+        curator.vaultChanged(delete(new Weekly(2026, 42), Weekly.class));
+        awaitQueryRun();
+        assertThat(processedChanges).hasSize(4);
+        assertThat(queriedChangelogs.getFirst().changes()).hasSize(1)
+            .allSatisfy(change -> assertThat(change.value()).isSameAs(v2));
+    }
+
+    @Test
+    void pipelinedResetClearsProcessedChanges()
+    {
+        var curator = createCurator(SETTINGS.withPipelinedProcessing(true));
+        curator.vaultChanged(create(document1, Document.class));
+        curator.vaultChanged(RESET);
+        assertThat(processedChanges).containsExactly(
+            List.of(create(document1, Document.class)),
+            List.of(RESET));
+        assertThat(queriedChangelogs).hasSize(1);
+        assertThat(queriedChangelogs.getFirst().changes()).containsExactly(RESET);
+    }
+
+    private void awaitQueryRun()
+        throws InterruptedException
+    {
+        assertThat(queryRun.await(5, SECONDS)).isTrue();
+    }
+
+    /// Creates a curator with change processors that pass on all changes as they are, and queries
+    /// that produce no document updates.
+    private DefaultCurator createCurator(CuratorSettings settings)
+    {
+        ChangeProcessorOrchestrator changeProcessorOrchestrator = changes ->
+        {
+            processedChanges.add(List.copyOf(changes));
+            var changelog = changelogFor(changes);
+            producedChangelogs.add(changelog);
+            return changelog;
+        };
+        QueryOrchestrator queryOrchestrator = changelog ->
+        {
+            queriedChangelogs.add(changelog);
+            queryRun.countDown();
+            return Set.of();
+        };
+        var documentWriter = new DocumentWriter(
+            document -> Path.of(document.name()),
+            new DocumentWriteHandler()
+            {
+                @Override
+                public void expectWrite(Path path, BasicFileAttributes attributes, byte[] content)
+                {
+                }
+
+                @Override
+                public void documentWritten(Document document, String content, long lastModified)
+                {
+                }
+            }
+        );
+        return new DefaultCurator(new VaultStub(), changeProcessorOrchestrator, queryOrchestrator,
+            documentWriter, Optional.of(settings), new DebounceScheduler(settings, Clock.systemUTC())
+        );
+    }
+}
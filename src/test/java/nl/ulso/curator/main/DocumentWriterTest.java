@@ -0,0 +1,184 @@
+package nl.ulso.curator.main;
+
+import nl.ulso.curator.vault.Document;
+import nl.ulso.curator.vault.DocumentWriteHandler;
+import nl.ulso.curator.vault.VaultStub;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static nl.ulso.dictionary.Dictionary.emptyDictionary;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class DocumentWriterTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @TempDir
+    private Path vaultRoot;
+
+    private VaultStub vault;
+    private Map<Path, FileTime> expectedWrites;
+    private Map<String, String> writtenDocuments;
+    private DocumentWriter writer;
+
+    @BeforeEach
+    void setUp()
+    {
+        vault = new VaultStub();
+        expectedWrites = new ConcurrentHashMap<>();
+        writtenDocuments = new ConcurrentHashMap<>();
+        writer = new DocumentWriter(
+            document -> vaultRoot.resolve(document.name() + ".md"),
+            new DocumentWriteHandler()
+            {
+                @Override
+                public void expectWrite(
+                    Path path, BasicFileAttributes attributes, byte[] content)
+                {
+                    expectedWrites.put(path, attributes.lastModifiedTime());
+                }
+
+                @Override
+                public void documentWritten(Document document, String content, long lastModified)
+                {
+                    writtenDocuments.put(document.name(), content);
+                }
+            }
+        );
+    }
+
+    @Test
+    void writesAllDocumentUpdates()
+        throws IOException
+    {
+        var updates = List.of(
+            updateFor("One", "Old one", "New one\n"),
+            updateFor("Two", "Old two", "New two\n")
+        );
+        var written = writer.writeAll(updates);
+        softly.assertThat(written).containsExactlyInAnyOrder("One", "Two");
+        softly.assertThat(Files.readString(vaultRoot.resolve("One.md"))).isEqualTo("New one\n");
+        softly.assertThat(Files.readString(vaultRoot.resolve("Two.md"))).isEqualTo("New two\n");
+        softly.assertThat(writtenDocuments)
+            .containsEntry("One", "New one\n")
+            .containsEntry("Two", "New two\n");
+        try (var files = Files.list(vaultRoot))
+        {
+            softly.assertThat(files).hasSize(2);
+        }
+    }
+
+    @Test
+    void skipsDocumentsChangedOnDisk()
+        throws IOException
+    {
+        var update = updateFor("One", "Old one", "New one\n");
+        Files.setLastModifiedTime(vaultRoot.resolve("One.md"), FileTime.fromMillis(1000));
+        var written = writer.writeAll(List.of(update));
+        softly.assertThat(written).isEmpty();
+        softly.assertThat(Files.readString(vaultRoot.resolve("One.md"))).isEqualTo("Old one");
+        softly.assertThat(expectedWrites).isEmpty();
+        softly.assertThat(writtenDocuments).isEmpty();
+    }
+
+    @Test
+    void skipsDocumentsUnchangedOnDisk()
+        throws IOException
+    {
+        var update = updateFor("One", "Same\n", "Same\n");
+        var written = writer.writeAll(List.of(update));
+        softly.assertThat(written).isEmpty();
+        softly.assertThat(Files.getLastModifiedTime(vaultRoot.resolve("One.md")).toMillis())
+            .isZero();
+    }
+
+    @Test
+    void writesDocumentsWithSameSizeButOtherContent()
+        throws IOException
+    {
+        var update = updateFor("One", "Old\n", "New\n");
+        var written = writer.writeAll(List.of(update));
+        softly.assertThat(written).containsExactly("One");
+        softly.assertThat(Files.readString(vaultRoot.resolve("One.md"))).isEqualTo("New\n");
+    }
+
+    @Test
+    void expectedWriteHasAttributesOfFileOnDisk()
+        throws IOException
+    {
+        var path = vaultRoot.resolve("One.md");
+        writer.writeAll(List.of(updateFor("One", "Old one", "New one\n")));
+        softly.assertThat(expectedWrites).containsEntry(path, Files.getLastModifiedTime(path));
+    }
+
+    @Test
+    void writeAtomicallyReplacesFile()
+        throws IOException
+    {
+        var path = vaultRoot.resolve("File.md");
+        Files.writeString(path, "Old content");
+        DocumentWriter.writeAtomically(path, "New content".getBytes(), _ -> {});
+        softly.assertThat(Files.readString(path)).isEqualTo("New content");
+        try (var files = Files.list(vaultRoot))
+        {
+            softly.assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    void writeAtomicallyKeepsCreationTime()
+        throws IOException
+    {
+        var path = vaultRoot.resolve("File.md");
+        Files.writeString(path, "Old content");
+        var creationTime = FileTime.fromMillis(1_000_000_000_000L);
+        Files.getFileAttributeView(path, BasicFileAttributeView.class)
+            .setTimes(null, null, creationTime);
+        assumeTrue(creationTimeOf(path).equals(creationTime),
+            "File system doesn't support setting the creation time");
+        DocumentWriter.writeAtomically(path, "New content".getBytes(), _ -> {});
+        softly.assertThat(creationTimeOf(path)).isEqualTo(creationTime);
+    }
+
+    private static FileTime creationTimeOf(Path path)
+        throws IOException
+    {
+        return Files.readAttributes(path, BasicFileAttributes.class).creationTime();
+    }
+
+    @Test
+    void noUpdatesWritesNothing()
+    {
+        softly.assertThat(writer.writeAll(emptyList())).isEmpty();
+    }
+
+    /// Creates an update for a document with the old content on disk, that rewrites it to the new
+    /// content. Stub documents are last modified at time 0.
+    private DocumentUpdate updateFor(String name, String oldContent, String newContent)
+        throws IOException
+    {
+        var path = vaultRoot.resolve(name + ".md");
+        Files.writeString(path, oldContent);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(0));
+        Document document = vault.addDocument(name, newContent);
+        return new DocumentUpdate(document, emptyDictionary(), emptyList());
+    }
+}
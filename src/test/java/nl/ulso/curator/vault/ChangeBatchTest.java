@@ -0,0 +1,97 @@
+package nl.ulso.curator.vault;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static nl.ulso.curator.change.Change.create;
+import static nl.ulso.curator.change.Change.delete;
+import static nl.ulso.curator.change.Change.update;
+import static nl.ulso.curator.vault.Document.newDocument;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class ChangeBatchTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    private final ChangeBatch batch = new ChangeBatch();
+
+    @Test
+    void deleteAndCreateIsMove()
+    {
+        var oldFolder = new FolderStub(null, "Actors");
+        var newFolder = new FolderStub(null, "People");
+        var oldDocument = oldFolder.addDocument("Daniel Craig", "");
+        var newDocument = newFolder.addDocument("Daniel Craig", "");
+        batch.vaultChanged(delete(oldDocument, Document.class));
+        batch.vaultChanged(delete(oldFolder, Folder.class));
+        batch.vaultChanged(create(newFolder, Folder.class));
+        batch.vaultChanged(create(newDocument, Document.class));
+        softly.assertThat(batch.drain()).containsExactly(
+            delete(oldFolder, Folder.class),
+            create(newFolder, Folder.class),
+            update(oldDocument, newDocument, Document.class)
+        );
+        softly.assertThat(batch.drain()).isEmpty();
+    }
+
+    @Test
+    void createAndUpdateIsCreate()
+    {
+        var first = document("First");
+        var second = document("Second");
+        batch.vaultChanged(create(first, Document.class));
+        batch.vaultChanged(update(first, second, Document.class));
+        softly.assertThat(batch.drain()).containsExactly(create(second, Document.class));
+    }
+
+    @Test
+    void createAndDeleteIsNothing()
+    {
+        var document = document("Document");
+        batch.vaultChanged(create(document, Document.class));
+        batch.vaultChanged(delete(document, Document.class));
+        softly.assertThat(batch.drain()).isEmpty();
+    }
+
+    @Test
+    void updatesAreFolded()
+    {
+        var first = document("First");
+        var second = document("Second");
+        var third = document("Third");
+        batch.vaultChanged(update(first, second, Document.class));
+        batch.vaultChanged(update(second, third, Document.class));
+        softly.assertThat(batch.drain())
+            .containsExactly(update(first, third, Document.class));
+    }
+
+    @Test
+    void updateAndDeleteIsDeleteOfOldest()
+    {
+        var first = document("First");
+        var second = document("Second");
+        batch.vaultChanged(update(first, second, Document.class));
+        batch.vaultChanged(delete(second, Document.class));
+        softly.assertThat(batch.drain()).containsExactly(delete(first, Document.class));
+    }
+
+    @Test
+    void changesToDifferentDocumentsAreKept()
+    {
+        var foo = newDocument("Foo", 0, DocumentText.of(""));
+        var bar = newDocument("Bar", 0, DocumentText.of(""));
+        batch.vaultChanged(create(foo, Document.class));
+        batch.vaultChanged(delete(bar, Document.class));
+        softly.assertThat(batch.drain())
+            .containsExactly(create(foo, Document.class), delete(bar, Document.class));
+    }
+
+    private static Document document(String content)
+    {
+        return newDocument("Document", 0, DocumentText.of(content));
+    }
+}
@@ -35,7 +35,8 @@ class DocumentTest
                 new Section(1, "1", emptyList()),
                 new Section(1, "2", emptyList())
             )
-            .withIgnoredFields("document", "section", "title", "folder", "sortableTitle")
+            .withIgnoredFields(
+                "content", "document", "section", "title", "folder", "sortableTitle", "stale")
             .verify();
     }
 
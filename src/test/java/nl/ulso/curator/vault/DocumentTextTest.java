@@ -0,0 +1,95 @@
+package nl.ulso.curator.vault;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static java.lang.System.lineSeparator;
+import static java.util.Collections.emptyList;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class DocumentTextTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    void emptyText()
+    {
+        var text = DocumentText.of("");
+        softly.assertThat(text.lineCount()).isZero();
+        softly.assertThat(text.text()).isEmpty();
+        softly.assertThat(text.lines(0, 0)).isEmpty();
+    }
+
+    @Test
+    void emptyListOfLines()
+    {
+        softly.assertThat(DocumentText.of(emptyList()).lineCount()).isZero();
+    }
+
+    @Test
+    void missingFinalLineSeparatorIsAdded()
+    {
+        var text = DocumentText.of("foo\nbar");
+        softly.assertThat(text.lineCount()).isEqualTo(2);
+        softly.assertThat(text.text()).isEqualTo(linesOf("foo", "bar"));
+    }
+
+    @Test
+    void emptyLinesAreKept()
+    {
+        var text = DocumentText.of("\nfoo\n\n");
+        softly.assertThat(text.lineCount()).isEqualTo(3);
+        softly.assertThat(text.line(0)).isEmpty();
+        softly.assertThat(text.line(1)).isEqualTo("foo");
+        softly.assertThat(text.line(2)).isEmpty();
+    }
+
+    @Test
+    void lineSeparatorsAreNormalized()
+    {
+        var text = DocumentText.of("one\r\ntwo\rthree\nfour");
+        softly.assertThat(text.lineCount()).isEqualTo(4);
+        softly.assertThat(text.text()).isEqualTo(linesOf("one", "two", "three", "four"));
+    }
+
+    @Test
+    void sameAsJoinedListOfLines()
+    {
+        var lines = List.of("", "# Title", "", "Text");
+        softly.assertThat(DocumentText.of(lines).text())
+            .isEqualTo(DocumentText.of("\n# Title\n\nText\n").text());
+    }
+
+    @Test
+    void lineComparisons()
+    {
+        var text = DocumentText.of("```java\n```\n");
+        softly.assertThat(text.lineStartsWith(0, "```")).isTrue();
+        softly.assertThat(text.lineEquals(0, "```")).isFalse();
+        softly.assertThat(text.lineEquals(1, "```")).isTrue();
+        softly.assertThat(text.lineEndsWith(0, "java")).isTrue();
+        softly.assertThat(text.lineEndsWith(1, "java")).isFalse();
+        softly.assertThat(text.lineStartsWith(1, "```java")).isFalse();
+    }
+
+    @Test
+    void rangesOfLines()
+    {
+        var text = DocumentText.of("one\ntwo\nthree\n");
+        softly.assertThat(text.lines(0, 2)).isEqualTo(linesOf("one", "two"));
+        softly.assertThat(text.joinedLines(1, 3)).isEqualTo("two" + lineSeparator() + "three");
+        softly.assertThat(text.joinedLines(2, 2)).isEmpty();
+    }
+
+    /// @return The lines, each followed by the line separator of the platform.
+    private static String linesOf(String... lines)
+    {
+        return String.join(lineSeparator(), lines) + lineSeparator();
+    }
+}
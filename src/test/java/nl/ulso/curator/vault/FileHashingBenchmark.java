@@ -0,0 +1,107 @@
+package nl.ulso.curator.vault;
+
+import io.methvin.watcher.hashing.FileHasher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Compares the cost of the different kinds of [FileHashing] when the directory watcher starts: it
+/// then hashes every file in the vault.
+///
+/// [FileHashing#CONTENT] reads every byte of the vault, where [FileHashing#LAST_MODIFIED_TIME] and
+/// [FileHashing#FINGERPRINT] read only file attributes. Note that the files in the generated vault
+/// are in the page cache of the OS, making reads cheaper than on a real cold start.
+///
+/// This is not a unit test; run it from the IDE (after a `mvn test-compile`) through its main
+/// method.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileHashingBenchmark
+{
+    private static final String PARAGRAPH = """
+        Some text with a [[Link]] in it, and then some more text to make the paragraph a bit
+        longer, like the paragraphs in the documents of a real vault.
+
+        """;
+
+    @Param({"CONTENT", "LAST_MODIFIED_TIME", "FINGERPRINT"})
+    private FileHashing fileHashing;
+
+    @Param({"1000"})
+    private int documents;
+
+    @Param({"5000"})
+    private int documentSize;
+
+    private Path vault;
+    private List<Path> files;
+    private FileHasher fileHasher;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        vault = Files.createTempDirectory("vault");
+        files = new ArrayList<>(documents);
+        var content = PARAGRAPH.repeat(documentSize / PARAGRAPH.length() + 1);
+        // Files modified long ago, so that the fingerprint doesn't fall back to hashing content.
+        var lastModified = FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS));
+        for (var i = 0; i < documents; i++)
+        {
+            var file = vault.resolve("Document " + i + ".md");
+            Files.writeString(file, content);
+            Files.setLastModifiedTime(file, lastModified);
+            files.add(file);
+        }
+        fileHasher = fileHashing.fileHasher();
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        try (var paths = Files.walk(vault))
+        {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList())
+            {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void hashAllFiles(Blackhole blackhole)
+        throws IOException
+    {
+        for (var file : files)
+        {
+            blackhole.consume(fileHasher.hash(file));
+        }
+    }
+
+    public static void main(String[] arguments)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+            .include(FileHashingBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+}
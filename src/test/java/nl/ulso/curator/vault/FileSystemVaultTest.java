@@ -11,16 +11,27 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.text.Normalizer.normalize;
 import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
 import static nl.ulso.curator.change.Change.Kind.CREATE;
 import static nl.ulso.curator.change.Change.Kind.DELETE;
+import static nl.ulso.curator.change.Change.Kind.UPDATE;
 import static nl.ulso.curator.vault.ElementCounter.countAll;
+import static nl.ulso.curator.vault.FileSystemVault.newDocumentFromAbsolutePath;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.awaitility.Awaitility.await;
@@ -134,6 +145,173 @@ class FileSystemVaultTest
         assertThat(oldReadme).isNotSameAs(newReadme);
     }
 
+    @Test
+    void parallelLoadingResultsInSameVault()
+    {
+        var parallelVault = vaultWith(VaultSettings.DEFAULT.withParallelLoading(true));
+        assertThat(countAll(parallelVault)).isEqualTo(countAll(vault));
+    }
+
+    @Test
+    void snapshotResultsInSameVault()
+        throws IOException
+    {
+        var snapshotFile = Files.createTempDirectory("macu-snapshot-").resolve("vault.snapshot");
+        VaultSnapshot.save(snapshotFile, vault);
+        var restoredVault = vaultWith(VaultSettings.DEFAULT.withSnapshotFile(snapshotFile));
+        softly.assertThat(countAll(restoredVault)).isEqualTo(countAll(vault));
+        softly.assertThat(restoredVault.folder("Movies").orElseThrow().document("Skyfall"))
+            .isEqualTo(vault.folder("Movies").orElseThrow().document("Skyfall"));
+        softly.assertThat(restoredVault.document("README").orElseThrow().title())
+            .isEqualTo("README");
+        deleteRecursively(snapshotFile.getParent().toFile());
+    }
+
+    @Test
+    void snapshotIsIgnoredForChangedDocuments()
+        throws IOException
+    {
+        var snapshotFile = Files.createTempDirectory("macu-snapshot-").resolve("vault.snapshot");
+        VaultSnapshot.save(snapshotFile, vault);
+        writeFile("Movies/Skyfall.md", "## Year\n\n2012\n\n## Director\n\nSam Mendes");
+        var restoredVault = vaultWith(VaultSettings.DEFAULT.withSnapshotFile(snapshotFile));
+        var movies = restoredVault.folder("Movies").orElseThrow();
+        assertThat(movies.document("Skyfall").orElseThrow().fragments()).hasSize(3);
+        deleteRecursively(snapshotFile.getParent().toFile());
+    }
+
+    @Test
+    void evictedTextIsReadFromDisk()
+    {
+        var boundedVault = vaultWith(VaultSettings.DEFAULT.withTextEviction(Duration.ZERO));
+        var movies = boundedVault.folder("Movies").orElseThrow();
+        var skyfall = movies.document("Skyfall").orElseThrow();
+        evictColdText(boundedVault);
+        softly.assertThat(textBlockOf(skyfall).residentMarkdown()).isNull();
+        softly.assertThat(movies.document("Skyfall")).containsSame(skyfall);
+        softly.assertThat(textBlockOf(skyfall).markdown()).isEqualTo("\n2012\n");
+        softly.assertThat(skyfall.isStale()).isFalse();
+        softly.assertThat(countAll(boundedVault)).isEqualTo(countAll(vault));
+    }
+
+    @Test
+    void internalLinksInEvictedTextAreKept()
+        throws IOException
+    {
+        writeFile("Movies/Spectre.md", "## Year\n\n2015, after [[Skyfall]]");
+        var boundedVault = vaultWith(VaultSettings.DEFAULT.withTextEviction(Duration.ZERO));
+        var spectre = boundedVault.folder("Movies").orElseThrow().document("Spectre").orElseThrow();
+        evictColdText(boundedVault);
+        Files.delete(testVaultRoot.resolve("Movies/Spectre.md"));
+        softly.assertThat(textBlockOf(spectre).findInternalLinks())
+            .extracting(InternalLink::targetDocument)
+            .containsExactly("Skyfall");
+        softly.assertThat(spectre.isStale()).isFalse();
+    }
+
+    @Test
+    void evictedTextOfDocumentThatChangedOnDiskIsStale()
+        throws IOException
+    {
+        var boundedVault = vaultWith(VaultSettings.DEFAULT.withTextEviction(Duration.ZERO));
+        var skyfall = boundedVault.folder("Movies").orElseThrow().document("Skyfall").orElseThrow();
+        evictColdText(boundedVault);
+        writeFile("Movies/Skyfall.md", "## Year\n\n2013");
+        Files.setLastModifiedTime(testVaultRoot.resolve("Movies/Skyfall.md"),
+            FileTime.fromMillis(skyfall.lastModified() + 1000)
+        );
+        softly.assertThat(textBlockOf(skyfall).markdown()).isEmpty();
+        softly.assertThat(skyfall.isStale()).isTrue();
+        softly.assertThat(((Section) skyfall.fragment(1)).title()).isEqualTo("Year");
+    }
+
+    @Test
+    void evictedTextOfDocumentThatIsGoneFromDiskIsStale()
+        throws IOException
+    {
+        var boundedVault = vaultWith(VaultSettings.DEFAULT.withTextEviction(Duration.ZERO));
+        var skyfall = boundedVault.folder("Movies").orElseThrow().document("Skyfall").orElseThrow();
+        evictColdText(boundedVault);
+        Files.delete(testVaultRoot.resolve("Movies/Skyfall.md"));
+        softly.assertThat(textBlockOf(skyfall).markdown()).isEmpty();
+        softly.assertThat(skyfall.isStale()).isTrue();
+        softly.assertThat(skyfall.fragments()).hasSize(2);
+    }
+
+    @Test
+    void textInHotFoldersIsNotEvicted()
+    {
+        var boundedVault = vaultWith(
+            VaultSettings.DEFAULT.withTextEviction(Duration.ofDays(1), "Movies"));
+        var hot = boundedVault.folder("Movies").orElseThrow().document("Skyfall").orElseThrow();
+        var cold = boundedVault.document("README").orElseThrow();
+        TextEviction.evictText(boundedVault);
+        softly.assertThat(textBlockOf(hot).residentMarkdown()).isEqualTo("\n2012\n");
+        softly.assertThat(firstTextBlockOf(cold).residentMarkdown()).isNull();
+        softly.assertThat(firstTextBlockOf(cold).markdown())
+            .isEqualTo("This is a dummy vault, for testing purposes.\n");
+        softly.assertThat(cold.isStale()).isFalse();
+    }
+
+    /// Makes the text of all documents evictable, no matter how recently they were modified, and
+    /// then evicts it.
+    private void evictColdText(FileSystemVault boundedVault)
+    {
+        new TextEviction(Optional.of(Duration.ZERO), Set.of(),
+            Clock.offset(Clock.systemUTC(), Duration.ofMinutes(1))
+        ).check(boundedVault);
+        TextEviction.evictText(boundedVault);
+    }
+
+    private TextBlock firstTextBlockOf(Document document)
+    {
+        var textBlocks = new ArrayList<TextBlock>();
+        document.accept(new BreadthFirstVaultVisitor()
+        {
+            @Override
+            public void visit(TextBlock textBlock)
+            {
+                textBlocks.add(textBlock);
+            }
+        });
+        return textBlocks.getFirst();
+    }
+
+    private TextBlock textBlockOf(Document document)
+    {
+        return (TextBlock) ((Section) document.fragment(1)).fragment(0);
+    }
+
+    @Test
+    void corruptSnapshotIsIgnored()
+        throws IOException
+    {
+        var snapshotFile = Files.createTempDirectory("macu-snapshot-").resolve("vault.snapshot");
+        Files.writeString(snapshotFile, "This is not a snapshot");
+        var restoredVault = vaultWith(VaultSettings.DEFAULT.withSnapshotFile(snapshotFile));
+        assertThat(countAll(restoredVault)).isEqualTo(countAll(vault));
+        deleteRecursively(snapshotFile.getParent().toFile());
+    }
+
+    @Test
+    void parallelLoadingPublishesSameChangesInSameOrder()
+        throws IOException
+    {
+        var sequentialChanges = new ArrayList<Change<?>>();
+        new FileSystemVault.VaultBuilder(
+            new FileSystemFolder(testVaultRoot.toString()), testVaultRoot, sequentialChanges::add
+        ).build();
+        var parallelChanges = new ArrayList<Change<?>>();
+        try (var executor = newVirtualThreadPerTaskExecutor())
+        {
+            new FileSystemVault.VaultBuilder(
+                new FileSystemFolder(testVaultRoot.toString()), testVaultRoot,
+                parallelChanges::add, executor
+            ).build();
+        }
+        assertThat(parallelChanges).hasSize(16).containsExactlyElementsOf(sequentialChanges);
+    }
+
     @Test
     void watchVaultForNewFiles()
     {
@@ -201,7 +379,7 @@ class FileSystemVaultTest
                 var oldPath = testVaultRoot.resolve("Actors");
                 var newPath = testVaultRoot.resolve("People");
                 Files.move(oldPath, newPath);
-                return 10; // 1 folder, 4 files, times 2
+                return 6; // 1 folder deleted, 1 folder created, 4 files moved
             }
 
             @Override
@@ -211,10 +389,13 @@ class FileSystemVaultTest
                 softly.assertThat(vault.folder("People")).isPresent();
                 softly.assertThat(vault.folder("People").orElseThrow().documents().size())
                     .isEqualTo(4);
-                softly.assertThat(changes.stream().filter(c -> c.kind() == DELETE).count())
-                    .isEqualTo(5);
-                softly.assertThat(changes.stream().filter(c -> c.kind() == CREATE).count())
-                    .isEqualTo(5);
+                softly.assertThat(changes.stream().map(Change::kind))
+                    .containsExactly(DELETE, CREATE, UPDATE, UPDATE, UPDATE, UPDATE);
+                softly.assertThat(changes.subList(2, 6))
+                    .allMatch(change -> change.as(Document.class).oldValue().folder().name()
+                        .equals("Actors"))
+                    .allMatch(change -> change.as(Document.class).newValue().folder().name()
+                        .equals("People"));
             }
         });
     }
@@ -245,6 +426,32 @@ class FileSystemVaultTest
         });
     }
 
+    @Test
+    void watchVaultInBulkMode()
+    {
+        vault = vaultWith(VaultSettings.DEFAULT.withBulkChangeThreshold(1));
+        whileWatchingForChanges(new TestCase()
+        {
+            @Override
+            public int changeFileSystem(FileSystem fileSystem)
+                throws IOException
+            {
+                Files.delete(testVaultRoot.resolve("Characters/James Bond.md"));
+                Files.delete(testVaultRoot.resolve("Characters/M.md"));
+                Files.delete(testVaultRoot.resolve("Characters/Moneypenny.md"));
+                return 3;
+            }
+
+            @Override
+            public void verify(List<Change<?>> changes)
+            {
+                softly.assertThat(vault.folder("Characters").orElseThrow().documents()).isEmpty();
+                softly.assertThat(changes.stream().map(Change::kind))
+                    .containsExactly(DELETE, DELETE, DELETE);
+            }
+        });
+    }
+
     @Test
     void watchVaultForChangedDocument()
     {
@@ -272,6 +479,139 @@ class FileSystemVaultTest
         });
     }
 
+    @Test
+    void watchVaultForAtomicallyReplacedDocument()
+    {
+        whileWatchingForChanges(new TestCase()
+        {
+            @Override
+            public int changeFileSystem(FileSystem fileSystem)
+                throws IOException
+            {
+                var temporaryFile = testVaultRoot.resolve("Characters/.M.md.tmp");
+                Files.writeString(temporaryFile, "Played by several actors");
+                Files.move(temporaryFile, testVaultRoot.resolve("Characters/M.md"),
+                    ATOMIC_MOVE, REPLACE_EXISTING
+                );
+                return 1;
+            }
+
+            @Override
+            public void verify(List<Change<?>> changes)
+            {
+                softly.assertThat(vault.folder("Characters").orElseThrow().documents().size())
+                    .isEqualTo(3);
+                softly.assertThat(changes.stream().map(Change::kind)).containsExactly(UPDATE);
+            }
+        });
+    }
+
+    @Test
+    void ignoreOwnWritesOfDocuments()
+    {
+        whileWatchingForChanges(new TestCase()
+        {
+            private Document m;
+
+            @Override
+            public int changeFileSystem(FileSystem fileSystem)
+                throws IOException
+            {
+                m = vault.folder("Characters").orElseThrow().document("M").orElseThrow();
+                var path = testVaultRoot.resolve("Characters/M.md");
+                var content = "Played by several actors\n";
+                var bytes = content.getBytes(StandardCharsets.UTF_8);
+                var temporaryFile = testVaultRoot.resolve("Characters/.M.md.tmp");
+                Files.write(temporaryFile, bytes);
+                var attributes = Files.readAttributes(temporaryFile, BasicFileAttributes.class);
+                vault.expectWrite(path, attributes, bytes);
+                Files.move(temporaryFile, path, ATOMIC_MOVE, REPLACE_EXISTING);
+                vault.documentWritten(m, content, attributes.lastModifiedTime().toMillis());
+                writeFile("Characters/Blofeld.md", "Ernst Stavro");
+                return 1;
+            }
+
+            @Override
+            public void verify(List<Change<?>> changes)
+            {
+                var newM = vault.folder("Characters").orElseThrow().document("M").orElseThrow();
+                softly.assertThat(newM).isNotSameAs(m);
+                var textBlock = (TextBlock) newM.fragment(1);
+                softly.assertThat(textBlock.markdown()).isEqualTo("Played by several actors\n");
+                softly.assertThat(changes.stream().map(Change::kind)).containsExactly(CREATE);
+                softly.assertThat(changes.getFirst().value()).hasToString("Blofeld");
+            }
+        });
+    }
+
+    @Test
+    void skipWrittenDocumentInFolderThatIsGone()
+    {
+        var m = vault.folder("Characters").orElseThrow().document("M").orElseThrow();
+        vault.removeFolder("Characters");
+        vault.documentWritten(m, "Played by several actors\n", Long.MAX_VALUE);
+        softly.assertThat(vault.folder("Characters")).isEmpty();
+        vault.addFolder("Characters");
+        vault.documentWritten(m, "Played by several actors\n", Long.MAX_VALUE);
+        softly.assertThat(vault.folder("Characters").orElseThrow().documents()).isEmpty();
+        softly.assertThat(m.folder().document("M")).containsSame(m);
+    }
+
+    @Test
+    void selfWritesAndConcurrentUserEditsConverge()
+        throws InterruptedException
+    {
+        vault.setVaultChangedCallback(_ -> {});
+        var background = Thread.ofPlatform().factory().newThread(() -> vault.watchForChanges());
+        background.start();
+        TimeUnit.MILLISECONDS.sleep(WATCHER_INITIALIZATION_TIME_MILLISECONDS);
+        var path = testVaultRoot.resolve("Characters/M.md");
+        try (var executor = newVirtualThreadPerTaskExecutor())
+        {
+            executor.submit(() ->
+            {
+                for (var i = 0; i < 100; i++)
+                {
+                    writeAsCurator(path, "Written by the curator " + i + "\n");
+                }
+                return null;
+            });
+            executor.submit(() ->
+            {
+                for (var i = 0; i < 100; i++)
+                {
+                    Files.writeString(path, "Written by the user " + i + "\n");
+                    TimeUnit.MILLISECONDS.sleep(1);
+                }
+                return null;
+            });
+        }
+        try
+        {
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(vault.folder("Characters").orElseThrow().document("M"))
+                    .contains(newDocumentFromAbsolutePath(path, StringPool.NONE)));
+        }
+        finally
+        {
+            background.interrupt();
+        }
+    }
+
+    /// Writes a document the way the curator does: atomically, and with the vault informed.
+    private void writeAsCurator(Path path, String content)
+        throws IOException
+    {
+        var document = vault.folder("Characters").orElseThrow().document("M").orElseThrow();
+        var bytes = content.getBytes(StandardCharsets.UTF_8);
+        var temporaryFile = Files.createTempFile(path.getParent(), ".M.md", ".tmp");
+        Files.write(temporaryFile, bytes);
+        var attributes = Files.readAttributes(temporaryFile, BasicFileAttributes.class);
+        vault.expectWrite(path, attributes, bytes);
+        Files.move(temporaryFile, path, ATOMIC_MOVE, REPLACE_EXISTING);
+        vault.documentWritten(document, content, attributes.lastModifiedTime().toMillis());
+    }
+
     /**
      * So, this was an evening of bug hunting... "All of a sudden" - which I know is never true when
      * it comes to computers; something changed, but I can't figure out what - documents with
@@ -353,6 +693,13 @@ class FileSystemVaultTest
         testCase.verify(events.subList(0, expectedEventCount));
     }
 
+    private FileSystemVault vaultWith(VaultSettings settings)
+    {
+        return new FileSystemVault(testVaultRoot, Optional.empty(), Optional.of(settings),
+            new StringPool()
+        );
+    }
+
     private void writeFile(String relativePath, String content)
         throws IOException
     {
@@ -0,0 +1,98 @@
+package nl.ulso.curator.vault;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+
+import static java.time.ZoneOffset.UTC;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class FingerprintFileHasherTest
+{
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final FileTime LONG_AGO = FileTime.from(NOW.minusSeconds(3600));
+    private static final FileTime JUST_NOW = FileTime.from(NOW.minusMillis(500));
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @TempDir
+    private Path directory;
+
+    private final FingerprintFileHasher hasher =
+        new FingerprintFileHasher(Clock.fixed(NOW, UTC));
+
+    @Test
+    void sameFingerprintSameHash()
+        throws IOException
+    {
+        var file = write("Foo", LONG_AGO);
+        var hash = hasher.hash(file);
+        softly.assertThat(hasher.hash(file)).isEqualTo(hash);
+        write("Bar", LONG_AGO);
+        softly.assertThat(hasher.hash(file)).isEqualTo(hash);
+    }
+
+    @Test
+    void differentSizeDifferentHash()
+        throws IOException
+    {
+        var file = write("Foo", LONG_AGO);
+        var hash = hasher.hash(file);
+        write("Fooo", LONG_AGO);
+        softly.assertThat(hasher.hash(file)).isNotEqualTo(hash);
+    }
+
+    @Test
+    void differentLastModifiedTimeDifferentHash()
+        throws IOException
+    {
+        var file = write("Foo", LONG_AGO);
+        var hash = hasher.hash(file);
+        write("Bar", FileTime.from(NOW.minusSeconds(60)));
+        softly.assertThat(hasher.hash(file)).isNotEqualTo(hash);
+    }
+
+    @Test
+    void recentlyModifiedFileIncludesContent()
+        throws IOException
+    {
+        var file = write("Foo", JUST_NOW);
+        var hash = hasher.hash(file);
+        softly.assertThat(hasher.hash(file)).isEqualTo(hash);
+        write("Bar", JUST_NOW);
+        softly.assertThat(hasher.hash(file)).isNotEqualTo(hash);
+    }
+
+    @Test
+    void hashWithoutContentHashDoesNotDependOnTimeOfHashing()
+        throws IOException
+    {
+        var file = write("Foo", JUST_NOW);
+        var racyHash = hasher.hash(file);
+        var laterHash = new FingerprintFileHasher(Clock.fixed(NOW.plusSeconds(3), UTC)).hash(file);
+        softly.assertThat(laterHash).isNotEqualTo(racyHash);
+        softly.assertThat(FingerprintFileHasher.withoutContentHash(laterHash))
+            .isEqualTo(FingerprintFileHasher.withoutContentHash(racyHash))
+            .isEqualTo(laterHash);
+    }
+
+    private Path write(String content, FileTime lastModified)
+        throws IOException
+    {
+        var file = directory.resolve("Document.md");
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, lastModified);
+        return file;
+    }
+}
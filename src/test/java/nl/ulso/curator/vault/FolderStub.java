@@ -3,6 +3,7 @@ package nl.ulso.curator.vault;
 import java.util.*;
 
 import static nl.ulso.curator.vault.Document.newDocument;
+import static nl.ulso.curator.vault.Document.updatedDocument;
 
 public class FolderStub
         implements Folder
@@ -54,6 +55,19 @@ public class FolderStub
         return document;
     }
 
+    /// Replaces a document in this folder with a new version, reusing the fragments that didn't
+    /// change, like the vault does when a document is modified on disk.
+    public Document updateDocument(String name, String content)
+    {
+        var previousVersion = documents.get(name);
+        var document = updatedDocument(previousVersion, previousVersion.lastModified() + 1,
+            DocumentText.of(content.lines().toList())
+        );
+        document.setFolder(this);
+        documents.put(name, document);
+        return document;
+    }
+
     public Document resolveDocumentInPath(String path)
     {
         int index = 0;
@@ -0,0 +1,98 @@
+package nl.ulso.curator.vault;
+
+import nl.ulso.curator.change.Change;
+import nl.ulso.curator.vault.FileSystemVault.VaultBuilder;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static nl.ulso.curator.change.Change.Kind.CREATE;
+import static nl.ulso.curator.change.Change.Kind.DELETE;
+import static nl.ulso.curator.change.Change.Kind.UPDATE;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class FolderSynchronizerTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @TempDir
+    private Path root;
+
+    private FileSystemFolder vault;
+    private List<Change<?>> changes;
+
+    @BeforeEach
+    void setUp()
+        throws IOException
+    {
+        write("Movies/Skyfall.md", "2012");
+        write("Movies/Spectre.md", "2015");
+        write("Actors/Daniel Craig.md", "Bond");
+        vault = new FileSystemFolder("vault");
+        new VaultBuilder(vault, root, _ -> {}).build();
+        changes = new ArrayList<>();
+    }
+
+    @Test
+    void unchangedVaultHasNoChanges()
+        throws IOException
+    {
+        new FolderSynchronizer(changes::add).synchronize(vault, root);
+        softly.assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void netChangesOnly()
+        throws IOException
+    {
+        write("Movies/Skyfall.md", "2012, directed by Sam Mendes");
+        Files.setLastModifiedTime(root.resolve("Movies/Skyfall.md"),
+            FileTime.from(Instant.now().plusSeconds(60)));
+        Files.delete(root.resolve("Movies/Spectre.md"));
+        write("Movies/No Time To Die.md", "2021");
+        new FolderSynchronizer(changes::add).synchronize(vault, root);
+        softly.assertThat(changes.stream().map(Change::kind))
+            .containsExactly(DELETE, CREATE, UPDATE);
+        var movies = vault.folder("Movies").orElseThrow();
+        softly.assertThat(movies.documents()).map(Document::name)
+            .containsExactlyInAnyOrder("Skyfall", "No Time To Die");
+        var textBlock = (TextBlock) movies.document("Skyfall").orElseThrow().fragment(1);
+        softly.assertThat(textBlock.markdown()).contains("Sam Mendes");
+    }
+
+    @Test
+    void foldersAreCreatedAndDeleted()
+        throws IOException
+    {
+        Files.delete(root.resolve("Actors/Daniel Craig.md"));
+        Files.delete(root.resolve("Actors"));
+        write("Characters/M.md", "Judi Dench");
+        write(".obsidian/workspace.json", "{}");
+        new FolderSynchronizer(changes::add).synchronize(vault, root);
+        softly.assertThat(changes).map(Change::kind)
+            .containsExactly(DELETE, DELETE, CREATE, CREATE);
+        softly.assertThat(vault.folders()).map(Folder::name)
+            .containsExactlyInAnyOrder("Movies", "Characters");
+    }
+
+    private void write(String path, String content)
+        throws IOException
+    {
+        var file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
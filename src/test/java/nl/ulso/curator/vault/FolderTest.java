@@ -23,13 +23,14 @@ class FolderTest
     void equalsContract()
     {
         EqualsVerifier.forClass(FileSystemFolder.class)
-                .withIgnoredFields("folders", "documents")
+                .withIgnoredFields("folders", "documents", "stringPool")
                 .withPrefabValues(Document.class,
                         newDocument("1", 0, Collections.emptyList()),
                         newDocument("2", 0, Collections.emptyList()))
                 .withPrefabValues(FileSystemFolder.class,
                         new FileSystemFolder("red"),
                         new FileSystemFolder("blue"))
+                .withPrefabValues(StringPool.class, new StringPool(), StringPool.NONE)
                 .verify();
     }
 
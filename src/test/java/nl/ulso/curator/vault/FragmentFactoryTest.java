@@ -0,0 +1,170 @@
+package nl.ulso.curator.vault;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static nl.ulso.curator.vault.Document.newDocument;
+import static nl.ulso.curator.vault.Document.updatedDocument;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class FragmentFactoryTest
+{
+    private static final String DOCUMENT = """
+        ---
+        aliases: [Alias]
+        ---
+        # Title
+
+        ## Unchanged
+
+        Some text
+
+        ```java
+        code();
+        ```
+
+        ## Changed
+
+        <!--query:list
+        folder: Projects
+        -->
+        output
+        <!--/query (hash)-->
+
+        Some text
+        """;
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    void unchangedDocumentReusesAllFragments()
+    {
+        var original = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        var updated = updatedDocument(original, 1, DocumentText.of(DOCUMENT));
+        softly.assertThat(updated.lastModified()).isEqualTo(1);
+        for (var i = 0; i < original.fragments().size(); i++)
+        {
+            assertReused(updated.fragment(i), original.fragment(i));
+        }
+    }
+
+    @Test
+    void changedDocumentReusesUnchangedFragments()
+    {
+        var original = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        var changed = DOCUMENT.substring(0, DOCUMENT.lastIndexOf("Some text")) + "Other text\n";
+        var updated = updatedDocument(original, 1, DocumentText.of(changed));
+        var originalTitle = (Section) original.fragment(1);
+        var updatedTitle = (Section) updated.fragment(1);
+        var freshTitle = (Section) newDocument("document", 1, DocumentText.of(changed)).fragment(1);
+        softly.assertThat(updatedTitle.toMarkdown()).isEqualTo(freshTitle.toMarkdown());
+        assertReused(updated.fragment(0), original.fragment(0));
+        assertNotReused(updatedTitle, originalTitle);
+        assertReused(updatedTitle.fragment(1), originalTitle.fragment(1));
+        var originalChanged = (Section) originalTitle.fragment(2);
+        var updatedChanged = (Section) updatedTitle.fragment(2);
+        assertNotReused(updatedChanged, originalChanged);
+        assertReused(updatedChanged.fragment(1), originalChanged.fragment(1));
+        assertNotReused(updatedChanged.fragment(2), originalChanged.fragment(2));
+    }
+
+    @Test
+    void reusedFragmentsBelongToNewVersion()
+    {
+        var original = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        var updated = updatedDocument(original, 1, DocumentText.of(DOCUMENT + "More text\n"));
+        var title = (Section) updated.fragment(1);
+        var section = (Section) title.fragment(1);
+        assertReused(section, ((Section) original.fragment(1)).fragment(1));
+        softly.assertThat(section.document()).isSameAs(updated);
+        softly.assertThat(section.parentSection()).containsSame(title);
+        softly.assertThat(section.fragment(0).document()).isSameAs(updated);
+    }
+
+    @Test
+    void previousVersionIsNotChanged()
+    {
+        var original = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        updatedDocument(original, 1, DocumentText.of(DOCUMENT));
+        var title = (Section) original.fragment(1);
+        var section = (Section) title.fragment(1);
+        softly.assertThat(original.fragment(0).document()).isSameAs(original);
+        softly.assertThat(section.document()).isSameAs(original);
+        softly.assertThat(section.parentSection()).containsSame(title);
+        softly.assertThat(section.fragment(0).document()).isSameAs(original);
+        softly.assertThat(section.fragment(0).parentSection()).containsSame(section);
+    }
+
+    @Test
+    void changedQueryOutputIsNotReused()
+    {
+        var original = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        var updated = updatedDocument(original, 1,
+            DocumentText.of(DOCUMENT.replace("(hash)", "(other)"))
+        );
+        var query = (QueryBlock) ((Section) ((Section) updated.fragment(1)).fragment(2))
+            .fragment(1);
+        var originalQuery = (QueryBlock) ((Section) ((Section) original.fragment(1)).fragment(2))
+            .fragment(1);
+        assertNotReused(query, originalQuery);
+        softly.assertThat(query.outputHash()).isEqualTo("other");
+        softly.assertThat(query.definition()).isEqualTo(originalQuery.definition());
+    }
+
+    @Test
+    void sameFragmentIsReusedOnlyOnce()
+    {
+        var text = "Text\n```\ncode\n```\n";
+        var original = newDocument("document", 0, DocumentText.of(text));
+        var factory = new FragmentFactory(original);
+        var newText = DocumentText.of(text + text);
+        var first = factory.textBlock(newText, 0, 1);
+        var second = factory.textBlock(newText, 4, 5);
+        assertReused(first, original.fragment(1));
+        assertNotReused(second, original.fragment(1));
+        softly.assertThat(factory.reusedFragmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void separatelyParsedFragmentsAreNotUnchangedFromEachOther()
+    {
+        var first = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        var second = newDocument("document", 0, DocumentText.of(DOCUMENT));
+        softly.assertThat(second).isEqualTo(first);
+        for (var i = 0; i < first.fragments().size(); i++)
+        {
+            softly.assertThat(second.fragment(i).isUnchangedFrom(first.fragment(i))).isFalse();
+        }
+    }
+
+    /// A reused fragment is a copy of the original that shares its content.
+    private void assertReused(Fragment fragment, Fragment original)
+    {
+        softly.assertThat(fragment).isNotSameAs(original).isEqualTo(original);
+        softly.assertThat(fragment.isUnchangedFrom(original)).isTrue();
+        softly.assertThat(content(fragment)).isSameAs(content(original));
+    }
+
+    private void assertNotReused(Fragment fragment, Fragment original)
+    {
+        softly.assertThat(fragment.isUnchangedFrom(original)).isFalse();
+        softly.assertThat(content(fragment)).isNotSameAs(content(original));
+    }
+
+    private static Object content(Fragment fragment)
+    {
+        return switch (fragment)
+        {
+            case FrontMatter frontMatter -> frontMatter.markdown();
+            case Section section -> section.title();
+            case TextBlock textBlock -> textBlock.markdown();
+            case CodeBlock codeBlock -> codeBlock.code();
+            case QueryBlock queryBlock -> queryBlock.configuration();
+            default -> throw new AssertionError("Unknown fragment: " + fragment);
+        };
+    }
+}
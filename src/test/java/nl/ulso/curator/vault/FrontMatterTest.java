@@ -22,7 +22,8 @@ class FrontMatterTest
                 .withPrefabValues(Section.class,
                         new Section(1, "1", emptyList()),
                         new Section(1, "2", emptyList()))
-                .withIgnoredFields("document", "section")
+                .withPrefabValues(StringPool.class, new StringPool(), StringPool.NONE)
+                .withIgnoredFields("content", "document", "section", "stringPool", "dictionary")
                 .verify();
     }
 
@@ -76,6 +77,30 @@ class FrontMatterTest
         assertThat(frontMatter().listOfDates("date")).hasSize(1);
     }
 
+    @Test
+    void dictionaryIsParsedOnce()
+    {
+        var frontMatter = frontMatter();
+        assertThat(frontMatter.dictionary()).isSameAs(frontMatter.dictionary());
+    }
+
+    @Test
+    void equalityDoesNotDependOnParsing()
+    {
+        var parsed = frontMatter();
+        parsed.dictionary();
+        assertThat(parsed).isEqualTo(frontMatter()).hasSameHashCodeAs(frontMatter());
+    }
+
+    @Test
+    void markersAreSkipped()
+    {
+        var document = newDocument("document", 0, List.of("---", "foo: bar", "---"));
+        var frontMatter = (FrontMatter) document.fragment(0);
+        assertThat(frontMatter.propertyNames()).containsExactly("foo");
+        assertThat(frontMatter.string("foo", null)).isEqualTo("bar");
+    }
+
     private FrontMatter frontMatter()
     {
         return new FrontMatter(List.of(
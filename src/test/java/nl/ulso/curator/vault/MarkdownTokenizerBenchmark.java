@@ -0,0 +1,87 @@
+package nl.ulso.curator.vault;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/// Compares the two modes of the [MarkdownTokenizer]: the [Iterable] of token objects versus the
+/// packed array of tokens.
+///
+/// This is not a unit test; run it from the IDE (after a `mvn test-compile`) through its main
+/// method. Use the `-prof gc` option of JMH to compare allocation rates.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkdownTokenizerBenchmark
+{
+    private static final String SECTION = """
+        ## Section
+
+        Some text with a [[Link]] in it.
+        #hashtag at the start of a line
+
+        ### Subsection
+
+        - A list
+        - Of items
+
+        ```java
+        # Not a header
+        ```
+
+        <!--query:list
+        folder: Projects
+        -->
+        - [[Project]]
+        <!--/query (4a3f9e2b)-->
+        """;
+
+    @Param({"10", "100"})
+    private int sections;
+
+    private DocumentText text;
+
+    @Setup
+    public void setUp()
+    {
+        var document = new StringBuilder("""
+            ---
+            aliases: [Benchmark]
+            ---
+            # Title
+            """);
+        document.append(SECTION.repeat(sections));
+        text = DocumentText.of(document.toString());
+    }
+
+    @Benchmark
+    public void iterator(Blackhole blackhole)
+    {
+        for (var token : new MarkdownTokenizer(text))
+        {
+            blackhole.consume(token);
+        }
+    }
+
+    @Benchmark
+    public int[] packed()
+    {
+        return new MarkdownTokenizer(text).tokenize();
+    }
+
+    public static void main(String[] arguments)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+            .include(MarkdownTokenizerBenchmark.class.getSimpleName())
+            .build()
+        ).run();
+    }
+}
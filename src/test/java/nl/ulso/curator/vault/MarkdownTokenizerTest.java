@@ -11,7 +11,11 @@ import java.util.List;
 import java.util.NoSuchElementException;
 
 import static java.util.Collections.emptyList;
+import static nl.ulso.curator.vault.MarkdownTokenizer.TokenStatus.END;
 import static nl.ulso.curator.vault.MarkdownTokenizer.TokenType.*;
+import static nl.ulso.curator.vault.MarkdownTokenizer.headerLevel;
+import static nl.ulso.curator.vault.MarkdownTokenizer.tokenStatus;
+import static nl.ulso.curator.vault.MarkdownTokenizer.tokenType;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -141,6 +145,36 @@ class MarkdownTokenizerTest
         );
     }
 
+    @Test
+    void headersAreScannedLikeThePattern()
+    {
+        assertSame(List.of(
+                "# Level 1",
+                "###### Level 6",
+                "####### Level 7",
+                "#No space",
+                "#",
+                "# ",
+                "## Trailing space ",
+                "# Line\u2028separator"
+            ),
+            HEADER, HEADER, TEXT, TEXT, TEXT, HEADER, HEADER, TEXT, END_OF_DOCUMENT
+        );
+    }
+
+    @Test
+    void packedHeaderLevelsAndTitles()
+    {
+        var tokenizer = new MarkdownTokenizer(List.of("## Section", "Text", "### Sub section "));
+        var tokens = tokenizer.tokenize();
+        softly.assertThat(headerLevel(tokens[0])).isEqualTo(2);
+        softly.assertThat(tokenizer.headerTitle(0, 2)).isEqualTo("Section");
+        softly.assertThat(headerLevel(tokens[1])).isZero();
+        softly.assertThat(headerLevel(tokens[2])).isEqualTo(3);
+        softly.assertThat(tokenizer.headerTitle(2, 3)).isEqualTo("Sub section ");
+        softly.assertThat(tokenStatus(tokens[3])).isEqualTo(END);
+    }
+
     @Test
     void noSuchElementException()
     {
@@ -171,6 +205,29 @@ class MarkdownTokenizerTest
         {
             softly.fail("More lines in actual input than expected");
         }
+        assertSamePackedTokens(tokens, types);
+    }
+
+    private void assertSamePackedTokens(MarkdownTokenizer tokenizer, TokenType... types)
+    {
+        var packedTokens = tokenizer.tokenize();
+        softly.assertThat(packedTokens).hasSize(types.length);
+        var i = 0;
+        for (var token : tokenizer)
+        {
+            if (i < packedTokens.length)
+            {
+                softly.assertThat(tokenType(packedTokens[i])).isEqualTo(token.tokenType());
+                softly.assertThat(tokenStatus(packedTokens[i])).isEqualTo(token.tokenStatus());
+                if (token instanceof MarkdownTokenizer.HeaderLineToken header)
+                {
+                    softly.assertThat(headerLevel(packedTokens[i])).isEqualTo(header.level());
+                    softly.assertThat(tokenizer.headerTitle(i, header.level()))
+                        .isEqualTo(header.title());
+                }
+            }
+            i++;
+        }
     }
 
     private List<String> document(String text)
@@ -27,7 +27,7 @@ public class QueryBlockTest
     void equalsContract()
     {
         EqualsVerifier.forClass(QueryBlock.class)
-                .withOnlyTheseFields("id")
+                .withOnlyTheseFields("documentName", "ordinal", "definitionString")
                 .withPrefabValues(Document.class,
                         newDocument("1", 0, emptyList()),
                         newDocument("2", 0, emptyList()))
@@ -130,4 +130,27 @@ public class QueryBlockTest
         softly.assertThat(query.configuration().isEmpty()).isTrue();
         softly.assertThat(query.outputHash()).isEqualTo("47ef02da");
     }
-}
\ No newline at end of file
+
+    @Test
+    void identityIsStableAcrossVersions()
+    {
+        var lines = List.of("<!--query-->", "<!--/query (old)-->", "<!--query-->", "<!--/query-->");
+        var changed =
+                List.of("<!--query-->", "<!--/query (new)-->", "<!--query-->", "<!--/query-->");
+        var document = newDocument("document", 0, lines);
+        var newVersion = newDocument("document", 1, changed);
+        var otherDocument = newDocument("other", 0, lines);
+        softly.assertThat(newVersion.fragment(1)).isEqualTo(document.fragment(1));
+        softly.assertThat(newVersion.fragment(2)).isEqualTo(document.fragment(2));
+        softly.assertThat(document.fragment(1)).isNotEqualTo(document.fragment(2));
+        softly.assertThat(otherDocument.fragment(1)).isNotEqualTo(document.fragment(1));
+    }
+
+    @Test
+    void changedDefinitionChangesIdentity()
+    {
+        var document = newDocument("document", 0, List.of("<!--query:foo-->", "<!--/query-->"));
+        var newVersion = newDocument("document", 1, List.of("<!--query:bar-->", "<!--/query-->"));
+        softly.assertThat(newVersion.fragment(1)).isNotEqualTo(document.fragment(1));
+    }
+}
@@ -30,7 +30,7 @@ class SectionTest
                 .withPrefabValues(Section.class,
                         new Section(1, "1", emptyList()),
                         new Section(1, "2", emptyList()))
-                .withIgnoredFields("document", "section", "sortableTitle")
+                .withIgnoredFields("content", "document", "section", "sortableTitle")
                 .verify();
     }
 
@@ -0,0 +1,173 @@
+package nl.ulso.curator.vault;
+
+import io.methvin.watcher.hashing.FileHash;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.file.Path;
+import java.time.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class SelfWriteRegistryTest
+{
+    private static final Path PATH = Path.of("/vault/Document.md");
+    private static final FileHash HASH_1 = FileHash.fromLong(1);
+    private static final FileHash HASH_2 = FileHash.fromLong(2);
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    private TestClock clock;
+    private SelfWriteRegistry registry;
+
+    @BeforeEach
+    void setUp()
+    {
+        clock = new TestClock();
+        registry = new SelfWriteRegistry(clock);
+    }
+
+    @Test
+    void unexpectedWriteIsNotSelfWrite()
+    {
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_1)).isFalse();
+    }
+
+    @Test
+    void expectedWriteIsSelfWriteOnce()
+    {
+        registry.expect(PATH, HASH_1);
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_1)).isTrue();
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_1)).isFalse();
+        softly.assertThat(registry.recognizedWriteCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writeToOtherPathIsNotSelfWrite()
+    {
+        registry.expect(PATH, HASH_1);
+        softly.assertThat(registry.isSelfWrite(Path.of("/vault/Other.md"), HASH_1)).isFalse();
+        softly.assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void userEditForgetsExpectedWrites()
+    {
+        registry.expect(PATH, HASH_1);
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_2)).isFalse();
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_1)).isFalse();
+        softly.assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void deleteForgetsExpectedWrites()
+    {
+        registry.expect(PATH, HASH_1);
+        softly.assertThat(registry.isSelfWrite(PATH, null)).isFalse();
+        softly.assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void laterWriteConsumesEarlierWrites()
+    {
+        registry.expect(PATH, HASH_1);
+        registry.expect(PATH, HASH_2);
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_2)).isTrue();
+        softly.assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void earlierWriteKeepsLaterWrites()
+    {
+        registry.expect(PATH, HASH_1);
+        registry.expect(PATH, HASH_2);
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_1)).isTrue();
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_2)).isTrue();
+    }
+
+    @Test
+    void expiredWriteIsNotSelfWrite()
+    {
+        registry.expect(PATH, HASH_1);
+        clock.advance(SelfWriteRegistry.TIME_TO_LIVE.plusMillis(1));
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_1)).isFalse();
+    }
+
+    @Test
+    void expireForgetsExpiredWritesOnly()
+    {
+        registry.expect(PATH, HASH_1);
+        clock.advance(SelfWriteRegistry.TIME_TO_LIVE);
+        registry.expect(PATH, HASH_2);
+        clock.advance(Duration.ofMillis(1));
+        registry.expire();
+        softly.assertThat(registry.size()).isEqualTo(1);
+        softly.assertThat(registry.expiredWriteCount()).isEqualTo(1);
+        softly.assertThat(registry.isSelfWrite(PATH, HASH_2)).isTrue();
+    }
+
+    @Test
+    void concurrentWritesAndEvents()
+    {
+        var pathCount = 100;
+        var writesPerPath = 50;
+        var recognized = new AtomicInteger();
+        try (var executor = newVirtualThreadPerTaskExecutor())
+        {
+            for (var p = 0; p < pathCount; p++)
+            {
+                var path = Path.of("/vault/Document " + p + ".md");
+                executor.submit(() ->
+                {
+                    for (var w = 0; w < writesPerPath; w++)
+                    {
+                        var hash = FileHash.fromLong(w);
+                        registry.expect(path, hash);
+                        if (registry.isSelfWrite(path, hash))
+                        {
+                            recognized.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        softly.assertThat(recognized).hasValue(pathCount * writesPerPath);
+        softly.assertThat(registry.size()).isZero();
+    }
+
+    private static final class TestClock
+        extends Clock
+    {
+        private long millis;
+
+        void advance(Duration duration)
+        {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public ZoneId getZone()
+        {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone)
+        {
+            return this;
+        }
+
+        @Override
+        public Instant instant()
+        {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package nl.ulso.curator.vault;
+
+import nl.ulso.curator.statistics.MeasurementCollectorStub;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.stream.IntStream;
+
+import static java.lang.ref.Reference.reachabilityFence;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static nl.ulso.curator.vault.Document.newDocument;
+import static nl.ulso.curator.vault.InternalLinkFinder.extractInternalLinksFrom;
+import static org.awaitility.Awaitility.await;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class StringPoolTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    void equalStringsShareOneInstance()
+    {
+        var pool = new StringPool();
+        var first = new String("Foo");
+        var second = new String("Foo");
+        softly.assertThat(pool.intern(first)).isSameAs(first);
+        softly.assertThat(pool.intern(second)).isSameAs(first);
+        softly.assertThat(pool.intern(first)).isSameAs(first);
+        softly.assertThat(pool.size()).isEqualTo(1);
+        softly.assertThat(pool.deduplicatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentInternsShareOneInstance()
+    {
+        var pool = new StringPool();
+        var names = IntStream.range(0, 1000).mapToObj(i -> "Name " + i).toList();
+        var pooled = IntStream.range(0, 8).parallel()
+            .mapToObj(_ -> names.stream().map(name -> pool.intern(new String(name))).toList())
+            .toList();
+        for (var strings : pooled)
+        {
+            for (var i = 0; i < names.size(); i++)
+            {
+                if (strings.get(i) != pooled.getFirst().get(i))
+                {
+                    softly.fail("Different instances of '%s'", names.get(i));
+                }
+            }
+        }
+        softly.assertThat(pool.deduplicatedCount()).isEqualTo(7 * names.size());
+    }
+
+    @Test
+    void unusedStringsAreRemoved()
+    {
+        var pool = new StringPool();
+        pool.intern(new String("Foo"));
+        await().atMost(5, SECONDS).until(() ->
+        {
+            System.gc();
+            return pool.size() == 0;
+        });
+        var bar = new String("Bar");
+        softly.assertThat(pool.intern(bar)).isSameAs(bar);
+    }
+
+    @Test
+    void noneDoesNotPool()
+    {
+        var string = new String("Foo");
+        softly.assertThat(StringPool.NONE.intern(string)).isSameAs(string);
+        softly.assertThat(StringPool.NONE.intern(new String("Foo"))).isNotSameAs(string);
+        softly.assertThat(StringPool.NONE.size()).isZero();
+    }
+
+    @Test
+    void documentsShareStrings()
+    {
+        var pool = new StringPool();
+        var foo = newDocument("Foo", 0, DocumentText.of("""
+            ---
+            status: active
+            ---
+            ## Activities
+            """), pool);
+        var bar = newDocument("Bar", 0, DocumentText.of("""
+            ---
+            status: active
+            ---
+            ## Activities
+
+            [[Foo]]
+            """), pool);
+        softly.assertThat(((Section) bar.fragment(1)).title())
+            .isSameAs(((Section) foo.fragment(1)).title());
+        softly.assertThat(bar.frontMatter().string("status", null))
+            .isSameAs(foo.frontMatter().string("status", null));
+        var link = extractInternalLinksFrom(null, "[[Foo]]", pool).getFirst();
+        softly.assertThat(link.targetDocument()).isSameAs(foo.name());
+    }
+
+    @Test
+    void measurements()
+    {
+        var pool = new StringPool();
+        var foo = pool.intern(new String("Foo"));
+        pool.intern(new String("Foo"));
+        var bar = pool.intern(new String("Bar"));
+        var measurements = new MeasurementCollectorStub();
+        pool.collectMeasurements(measurements);
+        softly.assertThat(measurements.totalFor("vault", "pooled_strings")).isEqualTo(2);
+        softly.assertThat(measurements.totalFor("vault", "deduplicated_strings")).isEqualTo(1);
+        softly.assertThat(measurements.totalFor("vault", "deduplicated_bytes")).isEqualTo(43);
+        reachabilityFence(foo);
+        reachabilityFence(bar);
+    }
+}
@@ -29,7 +29,8 @@ class TextBlockTest
                 .withPrefabValues(Section.class,
                         new Section(1, "1", emptyList()),
                         new Section(1, "2", emptyList()))
-                .withIgnoredFields("document", "section")
+                .withPrefabValues(TextBody.class, new TextBody("1"), new TextBody("2"))
+                .withIgnoredFields("content", "document", "section")
                 .verify();
     }
 
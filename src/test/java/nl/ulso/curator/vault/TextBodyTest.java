@@ -0,0 +1,60 @@
+package nl.ulso.curator.vault;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class TextBodyTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    void evictedTextIsGone()
+    {
+        var body = new TextBody("See [[Home]] and [[Away|there]].\n");
+        softly.assertThat(body.makeEvictable()).isTrue();
+        body.evict();
+        softly.assertThat(body.residentText()).isNull();
+        softly.assertThat(body.linkSource()).isEqualTo("[[Home]][[Away|there]]");
+    }
+
+    @Test
+    void retainedTextIsKept()
+    {
+        var body = new TextBody("foo\n");
+        body.makeEvictable();
+        softly.assertThat(body.retain()).isTrue();
+        body.evict();
+        softly.assertThat(body.residentText()).isEqualTo("foo\n");
+        softly.assertThat(body.makeEvictable()).isTrue();
+        softly.assertThat(body.makeEvictable()).isFalse();
+    }
+
+    @Test
+    void restoredTextIsEvictableAgain()
+    {
+        var body = new TextBody("foo\n");
+        body.makeEvictable();
+        body.evict();
+        softly.assertThat(body.retain()).isFalse();
+        body.restore("foo\n");
+        softly.assertThat(body.residentText()).isEqualTo("foo\n");
+        body.evict();
+        softly.assertThat(body.residentText()).isNull();
+    }
+
+    @Test
+    void evictedBodiesAreComparedByFingerprint()
+    {
+        var evicted = new TextBody("foo\n");
+        evicted.makeEvictable();
+        evicted.evict();
+        softly.assertThat(evicted).isEqualTo(new TextBody("foo\n"));
+        softly.assertThat(evicted).isNotEqualTo(new TextBody("bar\n"));
+        softly.assertThat(evicted.hashCode()).isEqualTo("foo\n".hashCode());
+    }
+}
@@ -0,0 +1,82 @@
+package nl.ulso.curator.vault;
+
+import nl.ulso.curator.vault.FileSystemVault.VaultBuilder;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class VaultScanTest
+{
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @TempDir
+    private Path root;
+
+    @ParameterizedTest
+    @EnumSource(FileHashing.class)
+    void hashesFromScanAreTheSameAsFromDisk(FileHashing fileHashing)
+        throws IOException
+    {
+        var document = write("Movies/No Time To Die.md", "# No Time To Die\n\nWith Rami Malek");
+        var scan = scanVault(fileHashing);
+        softly.assertThat(scan.hash(document))
+            .isEqualTo(fileHashing.fileHasher().hash(document));
+    }
+
+    @Test
+    void replayScannedDirectoriesAndDocuments()
+        throws IOException
+    {
+        write("Movies/No Time To Die.md", "No Time To Die");
+        write("Movies/poster.jpg", "Not a document");
+        write(".obsidian/workspace.json", "{}");
+        var scan = scanVault(FileHashing.CONTENT);
+        var directories = new ArrayList<Path>();
+        var files = new ArrayList<Path>();
+        scan.recursiveVisitFiles(root, directories::add, files::add);
+        softly.assertThat(directories).containsExactly(root, root.resolve("Movies"));
+        softly.assertThat(files).containsExactly(root.resolve("Movies/No Time To Die.md"));
+    }
+
+    @Test
+    void noneRecordsNothing()
+        throws IOException
+    {
+        var document = write("Movies/Skyfall.md", "Skyfall");
+        new VaultBuilder(new FileSystemFolder("vault"), root, _ -> {}, Runnable::run,
+            VaultSnapshot.EMPTY, VaultScan.NONE
+        ).build();
+        softly.assertThat(VaultScan.NONE.hash(document))
+            .isEqualTo(FileHashing.PLATFORM_DEFAULT.fileHasher().hash(document));
+    }
+
+    private VaultScan scanVault(FileHashing fileHashing)
+        throws IOException
+    {
+        var scan = new VaultScan(root, fileHashing);
+        new VaultBuilder(new FileSystemFolder("vault"), root, _ -> {}, Runnable::run,
+            VaultSnapshot.EMPTY, scan
+        ).build();
+        return scan;
+    }
+
+    private Path write(String path, String content)
+        throws IOException
+    {
+        var file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,154 @@
+package nl.ulso.dictionary;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static nl.ulso.dictionary.YamlDictionary.parseYamlWithEngine;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SoftAssertionsExtension.class)
+class FlatYamlParserTest
+{
+    private static final int CORPUS_SIZE = 10_000;
+
+    private static final List<String> KEYS = List.of(
+        "aliases", "title", "date", "tags", "priority", "status", "my-key", "my_key", "a1", "y",
+        "on", "no", "Null", "True", "ñame"
+    );
+
+    private static final List<String> SCALARS = List.of(
+        "bar", "Hello world", "Foo Bar Baz", "a-b", "a:b", "http://example.com/a?b=c&d", "C#",
+        "x # comment", "a: b", "a:", "42", "-17", "0", "-0", "007", "123456789", "1234567890",
+        "1.5", "1e3", ".inf", "0x1F", "+5", "1976-11-30", "2024-13-45", "1976-11-30T10:00",
+        "true", "false", "True", "FALSE", "null", "Null", "~", "yes", "no", "on", "off",
+        "'quoted'", "'it''s'", "''", "\"double\"", "\"esc\\n\"", "\"a # b\"", "'unterminated",
+        "[a, b]", "[]", "[ ]", "[42, 84]", "[a, [b]]", "[a, b,]", "[a,,b]", "[true, null]",
+        "[1976-11-30, 1977-11-11]", "['a', b]", "[a: b]", "{a: b}", "&anchor x", "*alias",
+        "!tag x", "|", ">", "- item", "a [b] c", "émoji 📄", "📄 title", "a\tb", "trailing  ",
+        "a ' b", "a \" b", "%x", "@x", "`x`", "a, b", "?x", "a \\ b"
+    );
+
+    private static final List<String> ITEMS = List.of(
+        "one", "two three", "42", "1976-11-30", "true", "null", "", "'quoted'", "a: b", "[a]",
+        "- nested", "x # y", "True", "007"
+    );
+
+    @InjectSoftAssertions
+    private SoftAssertions softly;
+
+    @Test
+    void sameResultAsYamlEngineOnGeneratedCorpus()
+    {
+        var random = new Random(42);
+        var parsed = 0;
+        for (var i = 0; i < CORPUS_SIZE; i++)
+        {
+            var yaml = generateYaml(random);
+            var result = FlatYamlParser.parse(yaml);
+            if (result.isPresent())
+            {
+                parsed++;
+                softly.assertThat(result.get()).as(yaml).isEqualTo(parseYamlWithEngine(yaml));
+            }
+        }
+        // The test is useless if the fast path gives up on almost everything.
+        assertThat(parsed).isGreaterThan(CORPUS_SIZE / 10);
+    }
+
+    private static String generateYaml(Random random)
+    {
+        var yaml = new StringBuilder();
+        var properties = random.nextInt(6);
+        for (var i = 0; i < properties; i++)
+        {
+            var key = KEYS.get(random.nextInt(random.nextInt(10) == 0 ? KEYS.size() : 8));
+            var choice = random.nextInt(10);
+            if (choice < 6)
+            {
+                var scalar = SCALARS.get(random.nextInt(random.nextInt(3) == 0
+                                                        ? SCALARS.size() : 10));
+                yaml.append(key).append(": ").append(scalar).append('\n');
+            }
+            else if (choice < 9)
+            {
+                yaml.append(key).append(":\n");
+                var indentation = " ".repeat(random.nextInt(3));
+                var items = random.nextInt(4);
+                for (var j = 0; j < items; j++)
+                {
+                    var item = ITEMS.get(random.nextInt(random.nextInt(3) == 0
+                                                        ? ITEMS.size() : 5));
+                    yaml.append(random.nextInt(20) == 0 ? " " : indentation)
+                        .append("- ").append(item).append('\n');
+                }
+            }
+            else
+            {
+                yaml.append(switch (random.nextInt(6))
+                {
+                    case 0 -> "\n";
+                    case 1 -> "# comment\n";
+                    case 2 -> key + ":value\n";
+                    case 3 -> "  indented: value\n";
+                    case 4 -> key + " : value\n";
+                    default -> key + ": first\n  continued\n";
+                });
+            }
+        }
+        return yaml.toString();
+    }
+
+    @Test
+    void flatYaml()
+    {
+        var result = FlatYamlParser.parse("""
+            title: Hello world
+            priority: 42
+            date: 1976-11-30
+            done: false
+            nothing: null
+            empty:
+            aliases: [one, two]
+            tags:
+              - foo
+              - 'bar'
+            """).orElseThrow();
+        softly.assertThat(result).containsEntry("title", "Hello world");
+        softly.assertThat(result).containsEntry("priority", 42);
+        softly.assertThat(result).containsEntry("date", "1976-11-30");
+        softly.assertThat(result).containsEntry("done", false);
+        softly.assertThat(result).containsEntry("aliases", List.of("one", "two"));
+        softly.assertThat(result).containsEntry("tags", List.of("foo", "bar"));
+        softly.assertThat(result).doesNotContainKeys("nothing", "empty");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "foo: bar # comment",
+        "foo: True",
+        "foo: 007",
+        "foo: 1.5",
+        "foo: bar\nfoo: baz",
+        "foo:\n  bar: baz",
+        "foo: bar\n  continued",
+        "foo: [a, [b]]",
+        "foo: {a: b}",
+        "foo: \"escaped\\n\"",
+        "foo:\n  - a\n    - b",
+        "foo:\tbar",
+        "- foo",
+        "---"
+    })
+    void unsupportedYamlFallsBack(String yaml)
+    {
+        assertThat(FlatYamlParser.parse(yaml)).isEmpty();
+    }
+}